@@ -12,4 +12,345 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final IntentCache intentCache = new IntentCache();
+
+    private final EndpointMetrics endpointMetrics = new EndpointMetrics();
+
+    private final ConversationContext conversationContext = new ConversationContext();
+
+    private final SpellCorrection spellCorrection = new SpellCorrection();
+
+    private final Classification classification = new Classification();
+
+    private final MongoMetrics mongoMetrics = new MongoMetrics();
+
+    private final MongoPool mongoPool = new MongoPool();
+
+    public IntentCache getIntentCache() {
+        return intentCache;
+    }
+
+    public EndpointMetrics getEndpointMetrics() {
+        return endpointMetrics;
+    }
+
+    public ConversationContext getConversationContext() {
+        return conversationContext;
+    }
+
+    public SpellCorrection getSpellCorrection() {
+        return spellCorrection;
+    }
+
+    public Classification getClassification() {
+        return classification;
+    }
+
+    public MongoMetrics getMongoMetrics() {
+        return mongoMetrics;
+    }
+
+    public MongoPool getMongoPool() {
+        return mongoPool;
+    }
+
+    public static class IntentCache {
+
+        private int maxEntries = 1000;
+
+        private int timeToLiveSeconds = 60;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class EndpointMetrics {
+
+        private boolean enabled = true;
+
+        private int timeWindowSeconds = 60;
+
+        private int timeWindowChunks = 6;
+
+        private int significantDigits = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeWindowSeconds() {
+            return timeWindowSeconds;
+        }
+
+        public void setTimeWindowSeconds(int timeWindowSeconds) {
+            this.timeWindowSeconds = timeWindowSeconds;
+        }
+
+        public int getTimeWindowChunks() {
+            return timeWindowChunks;
+        }
+
+        public void setTimeWindowChunks(int timeWindowChunks) {
+            this.timeWindowChunks = timeWindowChunks;
+        }
+
+        public int getSignificantDigits() {
+            return significantDigits;
+        }
+
+        public void setSignificantDigits(int significantDigits) {
+            this.significantDigits = significantDigits;
+        }
+    }
+
+    public static class ConversationContext {
+
+        private int timeToLiveSeconds = 1800;
+
+        private int stripes = 64;
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+    }
+
+    public static class SpellCorrection {
+
+        private int maxEditDistance = 2;
+
+        private int prefixLength = 7;
+
+        private int maxWords = 100000;
+
+        public int getMaxEditDistance() {
+            return maxEditDistance;
+        }
+
+        public void setMaxEditDistance(int maxEditDistance) {
+            this.maxEditDistance = maxEditDistance;
+        }
+
+        public int getPrefixLength() {
+            return prefixLength;
+        }
+
+        public void setPrefixLength(int prefixLength) {
+            this.prefixLength = prefixLength;
+        }
+
+        public int getMaxWords() {
+            return maxWords;
+        }
+
+        public void setMaxWords(int maxWords) {
+            this.maxWords = maxWords;
+        }
+    }
+
+    public static class Classification {
+
+        private int parallelism = 0;
+
+        private int chunkSize = 256;
+
+        private int maxUtterances = 10000;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxUtterances() {
+            return maxUtterances;
+        }
+
+        public void setMaxUtterances(int maxUtterances) {
+            this.maxUtterances = maxUtterances;
+        }
+    }
+
+    public static class MongoMetrics {
+
+        private long slowCommandThresholdMillis = 100;
+
+        private int payloadSampling = 16;
+
+        private int timeWindowSeconds = 60;
+
+        private int timeWindowChunks = 6;
+
+        private int significantDigits = 2;
+
+        public long getSlowCommandThresholdMillis() {
+            return slowCommandThresholdMillis;
+        }
+
+        public void setSlowCommandThresholdMillis(long slowCommandThresholdMillis) {
+            this.slowCommandThresholdMillis = slowCommandThresholdMillis;
+        }
+
+        public int getPayloadSampling() {
+            return payloadSampling;
+        }
+
+        public void setPayloadSampling(int payloadSampling) {
+            this.payloadSampling = payloadSampling;
+        }
+
+        public int getTimeWindowSeconds() {
+            return timeWindowSeconds;
+        }
+
+        public void setTimeWindowSeconds(int timeWindowSeconds) {
+            this.timeWindowSeconds = timeWindowSeconds;
+        }
+
+        public int getTimeWindowChunks() {
+            return timeWindowChunks;
+        }
+
+        public void setTimeWindowChunks(int timeWindowChunks) {
+            this.timeWindowChunks = timeWindowChunks;
+        }
+
+        public int getSignificantDigits() {
+            return significantDigits;
+        }
+
+        public void setSignificantDigits(int significantDigits) {
+            this.significantDigits = significantDigits;
+        }
+    }
+    public static class MongoPool {
+
+        private int minConnectionsPerHost = 0;
+
+        private int connectionsPerHost = 100;
+
+        private int threadsAllowedToBlockForConnectionMultiplier = 5;
+
+        private int maxWaitTimeMillis = 5000;
+
+        private int connectTimeoutMillis = 10000;
+
+        private int socketTimeoutMillis = 0;
+
+        private int maxConnectionIdleTimeMillis = 0;
+
+        private boolean socketKeepAlive = true;
+
+        private double saturationThreshold = 0.9;
+
+        public int getMinConnectionsPerHost() {
+            return minConnectionsPerHost;
+        }
+
+        public void setMinConnectionsPerHost(int minConnectionsPerHost) {
+            this.minConnectionsPerHost = minConnectionsPerHost;
+        }
+
+        public int getConnectionsPerHost() {
+            return connectionsPerHost;
+        }
+
+        public void setConnectionsPerHost(int connectionsPerHost) {
+            this.connectionsPerHost = connectionsPerHost;
+        }
+
+        public int getThreadsAllowedToBlockForConnectionMultiplier() {
+            return threadsAllowedToBlockForConnectionMultiplier;
+        }
+
+        public void setThreadsAllowedToBlockForConnectionMultiplier(int threadsAllowedToBlockForConnectionMultiplier) {
+            this.threadsAllowedToBlockForConnectionMultiplier = threadsAllowedToBlockForConnectionMultiplier;
+        }
+
+        public int getMaxWaitTimeMillis() {
+            return maxWaitTimeMillis;
+        }
+
+        public void setMaxWaitTimeMillis(int maxWaitTimeMillis) {
+            this.maxWaitTimeMillis = maxWaitTimeMillis;
+        }
+
+        public int getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public int getSocketTimeoutMillis() {
+            return socketTimeoutMillis;
+        }
+
+        public void setSocketTimeoutMillis(int socketTimeoutMillis) {
+            this.socketTimeoutMillis = socketTimeoutMillis;
+        }
+
+        public int getMaxConnectionIdleTimeMillis() {
+            return maxConnectionIdleTimeMillis;
+        }
+
+        public void setMaxConnectionIdleTimeMillis(int maxConnectionIdleTimeMillis) {
+            this.maxConnectionIdleTimeMillis = maxConnectionIdleTimeMillis;
+        }
+
+        public boolean isSocketKeepAlive() {
+            return socketKeepAlive;
+        }
+
+        public void setSocketKeepAlive(boolean socketKeepAlive) {
+            this.socketKeepAlive = socketKeepAlive;
+        }
+
+        public double getSaturationThreshold() {
+            return saturationThreshold;
+        }
+
+        public void setSaturationThreshold(double saturationThreshold) {
+            this.saturationThreshold = saturationThreshold;
+        }
+    }
 }
@@ -1,6 +1,13 @@
 package com.mycompany.myapp.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.github.mongobee.Mongobee;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mycompany.myapp.config.metrics.MongoCommandMetricsListener;
+import com.mycompany.myapp.config.metrics.MongoPoolHealthIndicator;
+import com.mycompany.myapp.config.metrics.MongoPoolMetricsListener;
 
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.domain.util.JSR310DateConverters.*;
@@ -17,6 +24,7 @@ import org.springframework.context.annotation.*;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
 import org.springframework.data.mongodb.core.convert.CustomConversions;
 import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
@@ -33,8 +41,35 @@ public class CloudDatabaseConfiguration extends AbstractCloudConfig {
     private final Logger log = LoggerFactory.getLogger(CloudDatabaseConfiguration.class);
 
     @Bean
-    public MongoDbFactory mongoFactory() {
-        return connectionFactory().mongoDbFactory();
+    public MongoCommandMetricsListener mongoCommandMetricsListener(MetricRegistry metricRegistry,
+            ApplicationProperties applicationProperties) {
+        return new MongoCommandMetricsListener(metricRegistry, applicationProperties.getMongoMetrics());
+    }
+
+    @Bean
+    public MongoPoolMetricsListener mongoPoolMetricsListener(MetricRegistry metricRegistry,
+            ApplicationProperties applicationProperties) {
+        return new MongoPoolMetricsListener(metricRegistry, applicationProperties.getMongoMetrics());
+    }
+
+    @Bean
+    public MongoPoolHealthIndicator mongoPoolHealthIndicator(MongoPoolMetricsListener mongoPoolMetricsListener,
+            ApplicationProperties applicationProperties) {
+        return new MongoPoolHealthIndicator(mongoPoolMetricsListener,
+            applicationProperties.getMongoPool().getSaturationThreshold());
+    }
+
+    /**
+     * The client is built from the URI of the bound service, with the same options as outside the cloud.
+     * Options given in the URI take precedence.
+     */
+    @Bean
+    public MongoDbFactory mongoFactory(Cloud cloud, ApplicationProperties applicationProperties,
+            MongoCommandMetricsListener mongoCommandMetricsListener, MongoPoolMetricsListener mongoPoolMetricsListener) {
+        MongoClientOptions.Builder options = DatabaseConfiguration.mongoClientOptions(
+            applicationProperties.getMongoPool(), mongoCommandMetricsListener, mongoPoolMetricsListener);
+        MongoClientURI uri = new MongoClientURI(mongoServiceInfo(cloud).getUri(), options);
+        return new SimpleMongoDbFactory(new MongoClient(uri), uri.getDatabase());
     }
 
     @Bean
@@ -58,14 +93,7 @@ public class CloudDatabaseConfiguration extends AbstractCloudConfig {
     @Bean
     public Mongobee mongobee(MongoDbFactory mongoDbFactory, MongoTemplate mongoTemplate, Cloud cloud) {
         log.debug("Configuring Cloud Mongobee");
-        List<ServiceInfo> matchingServiceInfos = cloud.getServiceInfos(MongoDbFactory.class);
-
-        if (matchingServiceInfos.size() != 1) {
-            throw new CloudException("No unique service matching MongoDbFactory found. Expected 1, found "
-                + matchingServiceInfos.size());
-        }
-        MongoServiceInfo info = (MongoServiceInfo) matchingServiceInfos.get(0);
-        Mongobee mongobee = new Mongobee(info.getUri());
+        Mongobee mongobee = new Mongobee(mongoServiceInfo(cloud).getUri());
         mongobee.setDbName(mongoDbFactory.getDb().getName());
         mongobee.setMongoTemplate(mongoTemplate);
         // package to scan for migrations
@@ -73,4 +101,14 @@ public class CloudDatabaseConfiguration extends AbstractCloudConfig {
         mongobee.setEnabled(true);
         return mongobee;
     }
+
+    private static MongoServiceInfo mongoServiceInfo(Cloud cloud) {
+        List<ServiceInfo> matchingServiceInfos = cloud.getServiceInfos(MongoDbFactory.class);
+
+        if (matchingServiceInfos.size() != 1) {
+            throw new CloudException("No unique service matching MongoDbFactory found. Expected 1, found "
+                + matchingServiceInfos.size());
+        }
+        return (MongoServiceInfo) matchingServiceInfos.get(0);
+    }
 }
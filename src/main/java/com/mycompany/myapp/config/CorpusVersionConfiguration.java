@@ -0,0 +1,26 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.web.rest.util.CorpusVersionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Configuration of the intent corpus version header of the intent endpoints.
+ */
+@Configuration
+public class CorpusVersionConfiguration extends WebMvcConfigurerAdapter {
+
+    private final IntentService intentService;
+
+    public CorpusVersionConfiguration(IntentService intentService) {
+        this.intentService = intentService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CorpusVersionInterceptor(intentService))
+            .addPathPatterns("/api/intents", "/api/intents/**");
+    }
+}
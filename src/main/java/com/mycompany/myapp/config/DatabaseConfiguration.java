@@ -1,7 +1,14 @@
 package com.mycompany.myapp.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.github.mongobee.Mongobee;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mycompany.myapp.config.metrics.MongoCommandMetricsListener;
+import com.mycompany.myapp.config.metrics.MongoPoolHealthIndicator;
+import com.mycompany.myapp.config.metrics.MongoPoolMetricsListener;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.domain.util.JSR310DateConverters.DateToZonedDateTimeConverter;
 import io.github.jhipster.domain.util.JSR310DateConverters.ZonedDateTimeToDateConverter;
@@ -30,6 +37,54 @@ public class DatabaseConfiguration {
 
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
+    @Bean
+    public MongoCommandMetricsListener mongoCommandMetricsListener(MetricRegistry metricRegistry,
+            ApplicationProperties applicationProperties) {
+        return new MongoCommandMetricsListener(metricRegistry, applicationProperties.getMongoMetrics());
+    }
+
+    @Bean
+    public MongoPoolMetricsListener mongoPoolMetricsListener(MetricRegistry metricRegistry,
+            ApplicationProperties applicationProperties) {
+        return new MongoPoolMetricsListener(metricRegistry, applicationProperties.getMongoMetrics());
+    }
+
+    @Bean
+    public MongoPoolHealthIndicator mongoPoolHealthIndicator(MongoPoolMetricsListener mongoPoolMetricsListener,
+            ApplicationProperties applicationProperties) {
+        return new MongoPoolHealthIndicator(mongoPoolMetricsListener,
+            applicationProperties.getMongoPool().getSaturationThreshold());
+    }
+
+    /**
+     * Options of the client built by the MongoAutoConfiguration, on top of the spring.data.mongodb properties.
+     */
+    @Bean
+    public MongoClientOptions mongoClientOptions(ApplicationProperties applicationProperties,
+            MongoCommandMetricsListener mongoCommandMetricsListener, MongoPoolMetricsListener mongoPoolMetricsListener) {
+        return mongoClientOptions(applicationProperties.getMongoPool(), mongoCommandMetricsListener,
+            mongoPoolMetricsListener).build();
+    }
+
+    /**
+     * Get the options of the client, with the connection pool of the application properties and the listeners.
+     * The cloud configuration builds its client from the same options.
+     */
+    static MongoClientOptions.Builder mongoClientOptions(ApplicationProperties.MongoPool pool,
+            CommandListener commandListener, ConnectionPoolListener connectionPoolListener) {
+        return MongoClientOptions.builder()
+            .minConnectionsPerHost(pool.getMinConnectionsPerHost())
+            .connectionsPerHost(pool.getConnectionsPerHost())
+            .threadsAllowedToBlockForConnectionMultiplier(pool.getThreadsAllowedToBlockForConnectionMultiplier())
+            .maxWaitTime(pool.getMaxWaitTimeMillis())
+            .connectTimeout(pool.getConnectTimeoutMillis())
+            .socketTimeout(pool.getSocketTimeoutMillis())
+            .maxConnectionIdleTime(pool.getMaxConnectionIdleTimeMillis())
+            .socketKeepAlive(pool.isSocketKeepAlive())
+            .addCommandListener(commandListener)
+            .addConnectionPoolListener(connectionPoolListener);
+    }
+
     @Bean
     public ValidatingMongoEventListener validatingMongoEventListener() {
         return new ValidatingMongoEventListener(validator());
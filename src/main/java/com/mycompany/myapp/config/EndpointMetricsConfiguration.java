@@ -0,0 +1,31 @@
+package com.mycompany.myapp.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.mycompany.myapp.config.metrics.EndpointLatencyInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Configuration of the latency timers of the REST endpoints, per endpoint and status class.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.endpoint-metrics", name = "enabled", matchIfMissing = true)
+public class EndpointMetricsConfiguration extends WebMvcConfigurerAdapter {
+
+    private final MetricRegistry metricRegistry;
+
+    private final ApplicationProperties applicationProperties;
+
+    public EndpointMetricsConfiguration(MetricRegistry metricRegistry, ApplicationProperties applicationProperties) {
+        this.metricRegistry = metricRegistry;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointLatencyInterceptor(metricRegistry, applicationProperties.getEndpointMetrics()))
+            .addPathPatterns("/api/**", "/management/**");
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.myapp.config;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mycompany.myapp.domain.Intent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Explains the queries of the main Intent access paths once the application has started, and warns
+ * when one of them would fall back to a collection scan, typically because a migration did not run.
+ */
+@Component
+public class IntentQueryPlanVerifier {
+
+    private static final String COLLECTION_SCAN_STAGE = "COLLSCAN";
+
+    private static final String LEGACY_COLLECTION_SCAN_CURSOR = "BasicCursor";
+
+    private final Logger log = LoggerFactory.getLogger(IntentQueryPlanVerifier.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public IntentQueryPlanVerifier(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyQueryPlans() {
+        DBCollection collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Intent.class));
+        Map<String, DBObject> queryPaths = new LinkedHashMap<>();
+        queryPaths.put("findByTag/deleteByTag", new BasicDBObject("tag", ""));
+        queryPaths.put("context_filter", new BasicDBObject("context_filter", ""));
+        for (Map.Entry<String, DBObject> queryPath : queryPaths.entrySet()) {
+            try {
+                if (usesCollectionScan(collection.find(queryPath.getValue()).explain())) {
+                    log.warn("Query path {} on collection '{}' falls back to a collection scan, " +
+                        "check the indexes created by the Mongobee change logs", queryPath.getKey(), collection.getName());
+                } else {
+                    log.debug("Query path {} on collection '{}' is served by an index", queryPath.getKey(), collection.getName());
+                }
+            } catch (MongoException e) {
+                log.warn("Could not explain query path {} on collection '{}' : {}", queryPath.getKey(),
+                    collection.getName(), e.getMessage());
+            }
+        }
+    }
+
+    static boolean usesCollectionScan(DBObject explanation) {
+        Object cursor = explanation.get("cursor");
+        if (cursor instanceof String) {
+            return ((String) cursor).startsWith(LEGACY_COLLECTION_SCAN_CURSOR);
+        }
+        Object queryPlanner = explanation.get("queryPlanner");
+        if (queryPlanner instanceof DBObject) {
+            return containsStage(((DBObject) queryPlanner).get("winningPlan"), COLLECTION_SCAN_STAGE);
+        }
+        return false;
+    }
+
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Iterable) {
+            for (Object child : (Iterable<?>) plan) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (!(plan instanceof DBObject)) {
+            return false;
+        }
+        DBObject node = (DBObject) plan;
+        return stage.equals(node.get("stage"))
+            || containsStage(node.get("inputStage"), stage)
+            || containsStage(node.get("inputStages"), stage);
+    }
+}
@@ -1,7 +1,10 @@
 package com.mycompany.myapp.config;
 
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.web.rest.util.FieldsUtil;
 
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,4 +18,14 @@ public class JacksonConfiguration {
     public AfterburnerModule afterburnerModule() {
         return new AfterburnerModule();
     }
+
+    /**
+     * Filter of the intents for the "fields" parameter, serializing all the fields by default.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsFilterCustomizer() {
+        return builder -> builder
+            .mixIn(IntentDTO.class, FieldsUtil.FieldsFilterMixin.class)
+            .filters(FieldsUtil.ALL_FIELDS);
+    }
 }
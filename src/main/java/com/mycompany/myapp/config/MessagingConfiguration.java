@@ -1,6 +1,7 @@
 package com.mycompany.myapp.config;
 
 import org.springframework.cloud.stream.annotation.EnableBinding;
+import org.springframework.cloud.stream.messaging.Sink;
 import org.springframework.cloud.stream.messaging.Source;
 
 /**
@@ -9,7 +10,7 @@ import org.springframework.cloud.stream.messaging.Source;
  * See http://docs.spring.io/spring-cloud-stream/docs/current/reference/htmlsingle/
  * for more information.
  */
-@EnableBinding(value = {Source.class})
+@EnableBinding(value = {Source.class, Sink.class})
 public class MessagingConfiguration {
 
 }
@@ -0,0 +1,73 @@
+package com.mycompany.myapp.config.dbmigrations;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import com.mongodb.DBObject;
+import com.mycompany.myapp.domain.Intent;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Creates the indexes backing the access paths of the Intent collection.
+ *
+ * <p>
+ * The indexes are built in the background, so that the collection stays writable while they are built. The
+ * unique index on the tag is only created once no tag is duplicated: otherwise the change set fails with the
+ * duplicated tags, which must be renamed or merged before starting the application again.
+ * </p>
+ */
+@ChangeLog(order = "001")
+public class IntentIndexesMigration {
+
+    public static final String TAG_INDEX = "tag_unique";
+
+    public static final String CONTEXT_FILTER_INDEX = "context_filter_tag";
+
+    /**
+     * Maximum number of duplicated tags listed by the error.
+     */
+    private static final int MAX_DUPLICATES_REPORTED = 100;
+
+    @ChangeSet(order = "01", author = "initiator", id = "01-addIntentTagIndex")
+    public void addIntentTagIndex(MongoTemplate mongoTemplate) {
+        List<String> duplicates = findDuplicateTags(mongoTemplate);
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Cannot create the unique index " + TAG_INDEX
+                + ", these Intent tags are duplicated: " + String.join(", ", duplicates));
+        }
+        mongoTemplate.indexOps(Intent.class).ensureIndex(new Index()
+            .on("tag", Sort.Direction.ASC)
+            .named(TAG_INDEX)
+            .unique()
+            .background());
+    }
+
+    @ChangeSet(order = "02", author = "initiator", id = "02-addIntentContextFilterIndex")
+    public void addIntentContextFilterIndex(MongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps(Intent.class).ensureIndex(new Index()
+            .on("context_filter", Sort.Direction.ASC)
+            .on("tag", Sort.Direction.ASC)
+            .named(CONTEXT_FILTER_INDEX)
+            .background());
+    }
+
+    /**
+     * Find the tags of more than one intent, with their number of intents.
+     */
+    private static List<String> findDuplicateTags(MongoTemplate mongoTemplate) {
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Intent.class,
+            Aggregation.group("tag").count().as("count"),
+            Aggregation.match(where("count").gt(1)),
+            Aggregation.limit(MAX_DUPLICATES_REPORTED)), DBObject.class)
+            .getMappedResults().stream()
+            .map(duplicate -> duplicate.get("_id") + " (" + duplicate.get("count") + ")")
+            .collect(Collectors.toList());
+    }
+}
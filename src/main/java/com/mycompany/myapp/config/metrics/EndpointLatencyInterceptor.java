@@ -0,0 +1,71 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.mycompany.myapp.config.ApplicationProperties;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor timing every REST endpoint, with one timer per endpoint and HTTP status class.
+ *
+ * <p>
+ * Timers are named after the controller method, like the {@code @Timed} ones, followed by "responses" and
+ * the status class, for example {@code com.mycompany.myapp.web.rest.IntentResource.getIntent.responses.2xx}.
+ * They are backed by a {@link HdrHistogramReservoir}, and are exposed with the other metrics on
+ * /management/metrics.
+ * </p>
+ */
+public class EndpointLatencyInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String START_ATTRIBUTE = EndpointLatencyInterceptor.class.getName() + ".start";
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MetricRegistry metricRegistry;
+
+    private final ApplicationProperties.EndpointMetrics properties;
+
+    public EndpointLatencyInterceptor(MetricRegistry metricRegistry, ApplicationProperties.EndpointMetrics properties) {
+        this.metricRegistry = metricRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        long duration = System.nanoTime() - (Long) start;
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        // An exception which was not resolved by the ExceptionTranslator ends up as a server error
+        String statusClass = ex != null ? "5xx" : statusClass(response.getStatus());
+        String name = MetricRegistry.name(handlerMethod.getBeanType(), handlerMethod.getMethod().getName(),
+            "responses", statusClass);
+        metricRegistry.timer(name, this::newTimer).update(duration, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer newTimer() {
+        return new Timer(new HdrHistogramReservoir(properties.getTimeWindowSeconds(), TimeUnit.SECONDS,
+            properties.getTimeWindowChunks(), properties.getSignificantDigits()));
+    }
+
+    private static String statusClass(int status) {
+        int family = status / 100;
+        return family >= 1 && family <= 5 ? STATUS_CLASSES[family - 1] : "other";
+    }
+}
@@ -0,0 +1,217 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics reservoir recording every value in HdrHistograms, over a sliding time window.
+ *
+ * <p>
+ * Unlike the default exponentially decaying reservoir, no value is sampled out, so the tail percentiles
+ * (p99, p999) are accurate to the configured number of significant digits. The window is split in chunks:
+ * each snapshot covers the current chunk and the previous ones, and the oldest chunk is reset when the
+ * window slides.
+ * </p>
+ *
+ * <p>
+ * Updates are lock-free: values go to an HdrHistogram {@link Recorder}, which is drained into the current
+ * chunk when a snapshot is taken or when the first update after the end of the chunk slides the window.
+ * </p>
+ *
+ * <p>
+ * A snapshot answers the quantiles, mean, min and max straight from the histogram of the window, whose size
+ * depends on the range and precision of the values, not on their number. It is reused until new values are
+ * recorded or the window slides, so scraping the metrics of idle timers allocates nothing.
+ * </p>
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private final Recorder recorder;
+
+    private final Histogram[] chunks;
+
+    private final long chunkNanos;
+
+    private final int significantDigits;
+
+    private final Clock clock;
+
+    private Histogram intervalHistogram;
+
+    private int currentChunk;
+
+    private volatile long currentChunkStart;
+
+    private HistogramSnapshot snapshot;
+
+    /**
+     * Whether the chunks changed since the last snapshot.
+     */
+    private boolean windowChanged = true;
+
+    public HdrHistogramReservoir(long timeWindow, TimeUnit unit, int chunkCount, int significantDigits) {
+        this(timeWindow, unit, chunkCount, significantDigits, Clock.defaultClock());
+    }
+
+    public HdrHistogramReservoir(long timeWindow, TimeUnit unit, int chunkCount, int significantDigits, Clock clock) {
+        if (chunkCount < 1) {
+            throw new IllegalArgumentException("The time window needs at least one chunk");
+        }
+        this.recorder = new Recorder(significantDigits);
+        this.chunks = new Histogram[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i] = new Histogram(significantDigits);
+        }
+        this.chunkNanos = Math.max(1, unit.toNanos(timeWindow) / chunkCount);
+        this.significantDigits = significantDigits;
+        this.clock = clock;
+        this.currentChunkStart = clock.getTick();
+    }
+
+    @Override
+    public synchronized int size() {
+        slide();
+        long count = 0;
+        for (Histogram chunk : chunks) {
+            count += chunk.getTotalCount();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+
+    @Override
+    public void update(long value) {
+        if (clock.getTick() - currentChunkStart >= chunkNanos) {
+            slide();
+        }
+        recorder.recordValue(Math.max(0, value));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        slide();
+        if (snapshot == null || windowChanged) {
+            Histogram window = new Histogram(significantDigits);
+            for (Histogram chunk : chunks) {
+                window.add(chunk);
+            }
+            snapshot = new HistogramSnapshot(window);
+            windowChanged = false;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drain the recorder into the current chunk, then reset the chunks which are now out of the window.
+     */
+    private synchronized void slide() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        if (intervalHistogram.getTotalCount() > 0) {
+            chunks[currentChunk].add(intervalHistogram);
+            windowChanged = true;
+        }
+        long elapsedChunks = (clock.getTick() - currentChunkStart) / chunkNanos;
+        if (elapsedChunks > 0) {
+            for (long i = 0; i < Math.min(elapsedChunks, chunks.length); i++) {
+                currentChunk = (currentChunk + 1) % chunks.length;
+                chunks[currentChunk].reset();
+            }
+            currentChunkStart += elapsedChunks * chunkNanos;
+            windowChanged = true;
+        }
+    }
+
+    /**
+     * Snapshot backed by an HdrHistogram, so that quantiles are computed from all the values of the window.
+     *
+     * <p>
+     * Only {@link #getValues()} expands the values into an array, as long as their number: it is computed on
+     * the first call and kept, and neither the statistics nor {@link #dump(OutputStream)} use it.
+     * </p>
+     */
+    static class HistogramSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        private long[] values;
+
+        HistogramSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        /**
+         * Get all the values of the window, each one repeated as many times as it was recorded.
+         */
+        @Override
+        public synchronized long[] getValues() {
+            if (values == null) {
+                values = expandValues();
+            }
+            return values.clone();
+        }
+
+        private long[] expandValues() {
+            long[] expanded = new long[size()];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                for (long count = 0; count < value.getCountAtValueIteratedTo() && i < expanded.length; count++) {
+                    expanded[i++] = value.getValueIteratedTo();
+                }
+            }
+            return expanded;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (HistogramIterationValue value : histogram.recordedValues()) {
+                    for (long count = 0; count < value.getCountAtValueIteratedTo(); count++) {
+                        out.printf("%d%n", value.getValueIteratedTo());
+                    }
+                }
+            }
+        }
+    }
+}
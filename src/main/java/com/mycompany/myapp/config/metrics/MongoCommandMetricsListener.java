@@ -0,0 +1,191 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mycompany.myapp.config.ApplicationProperties;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo driver listener recording the latency, payload sizes and failures of every database command, per
+ * command and collection, and logging the slow commands.
+ *
+ * <p>
+ * The metrics are named after this class, the command and the collection, for example
+ * {@code com.mycompany.myapp.config.metrics.MongoCommandMetricsListener.find.intent.latency}, with
+ * "request-bytes" and "response-bytes" histograms and a "failures" counter next to the timer. The timers and
+ * histograms are backed by a {@link HdrHistogramReservoir}.
+ * </p>
+ * <p>
+ * The metrics of a command and collection are created once, and then found through two map lookups on
+ * strings the driver already has: the fast path neither formats nor concatenates any string. Measuring the size
+ * of a document means encoding it again, so it is only done for one command in {@code payloadSampling}.
+ * Commands without collection, such as "isMaster", are recorded under "-".
+ * </p>
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    private static final String NO_COLLECTION = "-";
+
+    private static final String GET_MORE = "getMore";
+
+    private static final ThreadLocal<BasicOutputBuffer> BUFFER = ThreadLocal.withInitial(BasicOutputBuffer::new);
+
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private final Logger log = LoggerFactory.getLogger(MongoCommandMetricsListener.class);
+
+    private final MetricRegistry metricRegistry;
+
+    private final ApplicationProperties.MongoMetrics properties;
+
+    private final long slowCommandThresholdNanos;
+
+    private final Map<String, Map<String, CommandMetrics>> metricsByCommand = new ConcurrentHashMap<>();
+
+    /**
+     * Metrics of the commands sent and not answered yet, by request id.
+     */
+    private final Map<Integer, CommandMetrics> pending = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MetricRegistry metricRegistry, ApplicationProperties.MongoMetrics properties) {
+        this.metricRegistry = metricRegistry;
+        this.properties = properties;
+        this.slowCommandThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowCommandThresholdMillis());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        CommandMetrics metrics = metrics(event.getCommandName(), collectionOf(event.getCommandName(), command));
+        pending.put(event.getRequestId(), metrics);
+        if (isSampled()) {
+            metrics.requestBytes.update(sizeOf(command));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        CommandMetrics metrics = pending.remove(event.getRequestId());
+        if (metrics == null) {
+            return;
+        }
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        metrics.latency.update(elapsed, TimeUnit.NANOSECONDS);
+        if (event.getResponse() != null && isSampled()) {
+            metrics.responseBytes.update(sizeOf(event.getResponse()));
+        }
+        if (elapsed >= slowCommandThresholdNanos) {
+            log.warn("Slow Mongo command {} on collection {} of {}: {} ms", metrics.command, metrics.collection,
+                event.getConnectionDescription().getServerAddress(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        CommandMetrics metrics = pending.remove(event.getRequestId());
+        if (metrics == null) {
+            return;
+        }
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        metrics.latency.update(elapsed, TimeUnit.NANOSECONDS);
+        metrics.failures.inc();
+        if (elapsed >= slowCommandThresholdNanos) {
+            log.warn("Slow Mongo command {} on collection {} of {} failed after {} ms: {}", metrics.command,
+                metrics.collection, event.getConnectionDescription().getServerAddress(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), event.getThrowable().getMessage());
+        }
+    }
+
+    private CommandMetrics metrics(String command, String collection) {
+        Map<String, CommandMetrics> byCollection = metricsByCommand.get(command);
+        if (byCollection == null) {
+            byCollection = metricsByCommand.computeIfAbsent(command, key -> new ConcurrentHashMap<>());
+        }
+        CommandMetrics metrics = byCollection.get(collection);
+        if (metrics == null) {
+            metrics = byCollection.computeIfAbsent(collection, key -> new CommandMetrics(command, collection));
+        }
+        return metrics;
+    }
+
+    /**
+     * Get the collection of a command: the value of its first key, named after the command, for the CRUD commands.
+     */
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue target = command.get(GET_MORE.equals(commandName) ? "collection" : commandName);
+        return target != null && target.isString() ? target.asString().getValue() : NO_COLLECTION;
+    }
+
+    private boolean isSampled() {
+        int sampling = properties.getPayloadSampling();
+        return sampling > 0 && (sampling == 1 || ThreadLocalRandom.current().nextInt(sampling) == 0);
+    }
+
+    private static int sizeOf(BsonDocument document) {
+        BasicOutputBuffer buffer = BUFFER.get();
+        try {
+            CODEC.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+            return buffer.getPosition();
+        } finally {
+            buffer.truncateToPosition(0);
+        }
+    }
+
+    private Timer newTimer() {
+        return new Timer(new HdrHistogramReservoir(properties.getTimeWindowSeconds(), TimeUnit.SECONDS,
+            properties.getTimeWindowChunks(), properties.getSignificantDigits()));
+    }
+
+    private Histogram newHistogram() {
+        return new Histogram(new HdrHistogramReservoir(properties.getTimeWindowSeconds(), TimeUnit.SECONDS,
+            properties.getTimeWindowChunks(), properties.getSignificantDigits()));
+    }
+
+    /**
+     * The metrics of one command on one collection.
+     */
+    private final class CommandMetrics {
+
+        final String command;
+
+        final String collection;
+
+        final Timer latency;
+
+        final Histogram requestBytes;
+
+        final Histogram responseBytes;
+
+        final Counter failures;
+
+        CommandMetrics(String command, String collection) {
+            this.command = command;
+            this.collection = collection;
+            String name = MetricRegistry.name(MongoCommandMetricsListener.class, command, collection);
+            this.latency = metricRegistry.timer(MetricRegistry.name(name, "latency"), MongoCommandMetricsListener.this::newTimer);
+            this.requestBytes = metricRegistry.histogram(MetricRegistry.name(name, "request-bytes"),
+                MongoCommandMetricsListener.this::newHistogram);
+            this.responseBytes = metricRegistry.histogram(MetricRegistry.name(name, "response-bytes"),
+                MongoCommandMetricsListener.this::newHistogram);
+            this.failures = metricRegistry.counter(MetricRegistry.name(name, "failures"));
+        }
+    }
+}
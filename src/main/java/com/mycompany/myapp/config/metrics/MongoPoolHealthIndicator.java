@@ -0,0 +1,55 @@
+package com.mycompany.myapp.config.metrics;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Health of the Mongo connection pools, DEGRADED when a pool is saturated.
+ *
+ * <p>
+ * A pool is saturated when the share of its connections checked out reaches the threshold, or when threads are
+ * waiting for a connection while all of them are checked out. The service still answers, but the requests queue
+ * up behind the database: the status is ordered between OUT_OF_SERVICE and UP by
+ * {@code management.health.status.order}, so that it shows in the aggregated health without failing it.
+ * The check only reads the counters of the pools: the wait times are left to the "wait" timer of the
+ * {@link MongoPoolMetricsListener}, whose snapshot is too costly for every health request.
+ * </p>
+ */
+public class MongoPoolHealthIndicator extends AbstractHealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "The Mongo connection pool is saturated");
+
+    private final MongoPoolMetricsListener listener;
+
+    private final double saturationThreshold;
+
+    public MongoPoolHealthIndicator(MongoPoolMetricsListener listener, double saturationThreshold) {
+        this.listener = listener;
+        this.saturationThreshold = saturationThreshold;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        boolean saturated = false;
+        for (MongoPoolMetricsListener.PoolState pool : listener.getPools()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("size", pool.getSize());
+            details.put("checkedOut", pool.getCheckedOut());
+            details.put("maxSize", pool.getMaxSize());
+            details.put("waitQueue", pool.getWaitQueue());
+            details.put("maxWaitQueueSize", pool.getMaxWaitQueueSize());
+            builder.withDetail(pool.getAddress().toString(), details);
+            saturated |= isSaturated(pool);
+        }
+        builder.status(saturated ? DEGRADED : Status.UP);
+    }
+
+    private boolean isSaturated(MongoPoolMetricsListener.PoolState pool) {
+        return pool.getSaturation() >= saturationThreshold
+            || (pool.getWaitQueue() > 0 && pool.getMaxSize() > 0 && pool.getCheckedOut() >= pool.getMaxSize());
+    }
+}
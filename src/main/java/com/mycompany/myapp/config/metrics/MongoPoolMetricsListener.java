@@ -0,0 +1,189 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+import com.mycompany.myapp.config.ApplicationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Mongo driver listener following the connection pools of the client, one per server.
+ *
+ * <p>
+ * The metrics are named after this class, and summed over all the servers: "size" and "checked-out" gauges for
+ * the open and the used connections, a "wait-queue" gauge for the threads waiting for a connection, and a
+ * "saturation" gauge for the highest share of checked out connections of a pool. The "wait" timer, backed by a
+ * {@link HdrHistogramReservoir}, records how long the threads waited in the queue to get a connection.
+ * </p>
+ * <p>
+ * The driver calls the listener on the threads checking out the connections: a thread entering the wait queue
+ * keeps the time in a thread local, and records the wait when it leaves the queue.
+ * </p>
+ */
+public class MongoPoolMetricsListener implements ConnectionPoolListener {
+
+    private static final ThreadLocal<long[]> WAIT_START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Map<ServerId, PoolState> pools = new ConcurrentHashMap<>();
+
+    private final Timer wait;
+
+    public MongoPoolMetricsListener(MetricRegistry metricRegistry, ApplicationProperties.MongoMetrics properties) {
+        this.wait = metricRegistry.timer(MetricRegistry.name(MongoPoolMetricsListener.class, "wait"),
+            () -> new Timer(new HdrHistogramReservoir(properties.getTimeWindowSeconds(), TimeUnit.SECONDS,
+                properties.getTimeWindowChunks(), properties.getSignificantDigits())));
+        metricRegistry.register(MetricRegistry.name(MongoPoolMetricsListener.class, "size"),
+            (Gauge<Integer>) () -> sum(pool -> pool.size.get()));
+        metricRegistry.register(MetricRegistry.name(MongoPoolMetricsListener.class, "checked-out"),
+            (Gauge<Integer>) () -> sum(pool -> pool.checkedOut.get()));
+        metricRegistry.register(MetricRegistry.name(MongoPoolMetricsListener.class, "wait-queue"),
+            (Gauge<Integer>) () -> sum(pool -> pool.waitQueue.get()));
+        metricRegistry.register(MetricRegistry.name(MongoPoolMetricsListener.class, "saturation"),
+            (Gauge<Double>) () -> pools.values().stream().mapToDouble(PoolState::getSaturation).max().orElse(0));
+    }
+
+    /**
+     * Get the state of the pools of all the servers, at the time of the call.
+     */
+    public List<PoolState> getPools() {
+        return new ArrayList<>(pools.values());
+    }
+
+    @Override
+    public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+        pools.put(event.getServerId(), new PoolState(event.getServerId().getAddress(), event.getSettings()));
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        pools.remove(event.getServerId());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        pool(event.getConnectionId().getServerId()).checkedOut.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        pool(event.getConnectionId().getServerId()).checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+        pool(event.getServerId()).waitQueue.incrementAndGet();
+        WAIT_START.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+        pool(event.getServerId()).waitQueue.decrementAndGet();
+        long[] start = WAIT_START.get();
+        if (start[0] != 0) {
+            wait.update(System.nanoTime() - start[0], TimeUnit.NANOSECONDS);
+            start[0] = 0;
+        }
+    }
+
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.decrementAndGet();
+    }
+
+    /**
+     * Get the state of a pool, created without settings if the pool was opened before the listener was added.
+     */
+    private PoolState pool(ServerId serverId) {
+        PoolState pool = pools.get(serverId);
+        if (pool == null) {
+            pool = pools.computeIfAbsent(serverId, key -> new PoolState(key.getAddress(), null));
+        }
+        return pool;
+    }
+
+    private int sum(ToIntFunction<PoolState> counter) {
+        return pools.values().stream().mapToInt(counter).sum();
+    }
+
+    /**
+     * The connection pool of one server.
+     */
+    public static final class PoolState {
+
+        private final ServerAddress address;
+
+        private final int maxSize;
+
+        private final int maxWaitQueueSize;
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicInteger checkedOut = new AtomicInteger();
+
+        private final AtomicInteger waitQueue = new AtomicInteger();
+
+        PoolState(ServerAddress address, ConnectionPoolSettings settings) {
+            this.address = address;
+            this.maxSize = settings != null ? settings.getMaxSize() : 0;
+            this.maxWaitQueueSize = settings != null ? settings.getMaxWaitQueueSize() : 0;
+        }
+
+        public ServerAddress getAddress() {
+            return address;
+        }
+
+        /**
+         * Get the maximum number of connections, or 0 if it is unknown.
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getMaxWaitQueueSize() {
+            return maxWaitQueueSize;
+        }
+
+        public int getSize() {
+            return size.get();
+        }
+
+        public int getCheckedOut() {
+            return checkedOut.get();
+        }
+
+        public int getWaitQueue() {
+            return waitQueue.get();
+        }
+
+        /**
+         * Get the share of the connections checked out, between 0 and 1, or 0 if the maximum is unknown.
+         */
+        public double getSaturation() {
+            return maxSize > 0 ? Math.min(1.0, (double) checkedOut.get() / maxSize) : 0;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Metrics of the REST endpoints.
+ */
+package com.mycompany.myapp.config.metrics;
@@ -0,0 +1,110 @@
+package com.mycompany.myapp.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.service.dto.ConversationContextDTO;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.util.SessionContextStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service keeping the conversation context of every chatbot session, and evaluating the context_set and
+ * context_filter of the intents against it.
+ *
+ * <p>
+ * An intent is usable in a session if it has no context filter, or if its filter is the context of the
+ * session. Applying an intent with a context_set to a session makes it the context of the session.
+ * </p>
+ */
+@Service
+public class ConversationContextService {
+
+    private final Logger log = LoggerFactory.getLogger(ConversationContextService.class);
+
+    private final IntentService intentService;
+
+    private final SessionContextStore sessionContextStore;
+
+    public ConversationContextService(IntentService intentService, ApplicationProperties applicationProperties,
+            MetricRegistry metricRegistry) {
+        this.intentService = intentService;
+        ApplicationProperties.ConversationContext properties = applicationProperties.getConversationContext();
+        this.sessionContextStore = new SessionContextStore(properties.getStripes(),
+            properties.getTimeToLiveSeconds(), TimeUnit.SECONDS);
+        metricRegistry.register(MetricRegistry.name(ConversationContextService.class, "sessions"),
+            (Gauge<Integer>) sessionContextStore::size);
+    }
+
+    /**
+     * Get the conversation context of a session.
+     *
+     * @param sessionId the id of the session
+     * @return the context of the session, which is null if the session has none
+     */
+    public ConversationContextDTO getContext(String sessionId) {
+        return new ConversationContextDTO(sessionId, sessionContextStore.get(sessionId));
+    }
+
+    /**
+     * Get the intents usable in the current context of a session.
+     *
+     * @param sessionId the id of the session
+     * @return the list of intents
+     */
+    public List<IntentDTO> findEligibleIntents(String sessionId) {
+        log.debug("Request to get the Intents usable in session : {}", sessionId);
+        String context = sessionContextStore.get(sessionId);
+        return intentService.findAllByContexts(context == null ? Collections.emptyList() : Collections.singletonList(context));
+    }
+
+    /**
+     * Apply the context_set of an intent to a session.
+     *
+     * @param sessionId the id of the session
+     * @param tag the tag of the intent
+     * @return the new context of the session, or empty if there is no such intent
+     */
+    public Optional<ConversationContextDTO> applyIntent(String sessionId, String tag) {
+        log.debug("Request to apply Intent {} to session : {}", tag, sessionId);
+        IntentDTO intent = intentService.findOne(tag);
+        if (intent == null) {
+            return Optional.empty();
+        }
+        String context = sessionContextStore.get(sessionId);
+        if (intent.getContext_set() != null && !intent.getContext_set().isEmpty()) {
+            context = intent.getContext_set();
+        }
+        sessionContextStore.put(sessionId, context);
+        return Optional.of(new ConversationContextDTO(sessionId, context));
+    }
+
+    /**
+     * Forget the context of a session.
+     *
+     * @param sessionId the id of the session
+     */
+    public void clearContext(String sessionId) {
+        log.debug("Request to clear the context of session : {}", sessionId);
+        sessionContextStore.remove(sessionId);
+    }
+
+    /**
+     * Remove the expired sessions from memory.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpiredSessions() {
+        int evicted = sessionContextStore.evictExpired();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired conversation sessions", evicted);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.dto.IntentChangeDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.annotation.StreamListener;
+import org.springframework.cloud.stream.messaging.Sink;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Service consuming the intent changes published by the other instances, and refreshing only
+ * the affected intents in the local in-memory views.
+ */
+@Service
+public class IntentChangeConsumer {
+
+    private final Logger log = LoggerFactory.getLogger(IntentChangeConsumer.class);
+
+    private final IntentService intentService;
+
+    private final IntentChangePublisher intentChangePublisher;
+
+    /**
+     * Last change applied for every existing tag, used to skip redelivered messages. The entry of a tag is removed
+     * once its deletion is applied, so that the map does not grow with every tag ever changed: a change of a
+     * deleted tag redelivered afterwards only refreshes it again from the database, which is harmless.
+     */
+    private final ConcurrentMap<String, IntentChangeDTO> lastChanges = new ConcurrentHashMap<>();
+
+    public IntentChangeConsumer(IntentService intentService, IntentChangePublisher intentChangePublisher) {
+        this.intentService = intentService;
+        this.intentChangePublisher = intentChangePublisher;
+    }
+
+    @StreamListener(Sink.INPUT)
+    public void consume(IntentChangeDTO change) {
+        if (intentChangePublisher.getOrigin().equals(change.getOrigin())) {
+            // this instance made the change, and has already applied it
+            return;
+        }
+        IntentChangeDTO last = lastChanges.get(change.getTag());
+        if (last != null && Objects.equals(last.getOrigin(), change.getOrigin()) && last.getVersion() >= change.getVersion()) {
+            log.debug("Skipping already applied Intent change : {}", change);
+            return;
+        }
+        log.debug("Applying Intent change : {}", change);
+        lastChanges.put(change.getTag(), change);
+        intentService.refresh(change.getTag());
+        if (change.getOp() == IntentChangeDTO.Operation.DELETE) {
+            lastChanges.remove(change.getTag(), change);
+        }
+    }
+}
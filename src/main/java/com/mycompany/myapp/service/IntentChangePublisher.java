@@ -0,0 +1,54 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.dto.IntentChangeDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.messaging.Source;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service publishing a compact message on the output channel every time this instance changes an intent,
+ * so that the other instances can refresh their in-memory views of it.
+ */
+@Service
+public class IntentChangePublisher {
+
+    private final Logger log = LoggerFactory.getLogger(IntentChangePublisher.class);
+
+    private final Source source;
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final AtomicLong version = new AtomicLong();
+
+    public IntentChangePublisher(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * @return the identifier of this instance, carried by every change it publishes
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Publish a change of the "tag" intent. A failure to publish is logged, but does not fail the change.
+     *
+     * @param tag the tag of the changed intent
+     * @param op the kind of change
+     */
+    public void publish(String tag, IntentChangeDTO.Operation op) {
+        IntentChangeDTO change = new IntentChangeDTO(tag, version.incrementAndGet(), op, origin);
+        log.debug("Publishing Intent change : {}", change);
+        try {
+            source.output().send(MessageBuilder.withPayload(change).build());
+        } catch (RuntimeException e) {
+            log.warn("Could not publish Intent change {} : {}", change, e.getMessage());
+        }
+    }
+}
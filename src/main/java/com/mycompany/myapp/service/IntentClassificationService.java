@@ -0,0 +1,106 @@
+package com.mycompany.myapp.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.service.dto.IntentClassificationDTO;
+import com.mycompany.myapp.service.dto.IntentMatchDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+
+/**
+ * Service classifying batches of utterances against the intents, in parallel.
+ *
+ * <p>
+ * Batches are split into chunks of utterances, each matched by one task of a dedicated {@link ForkJoinPool},
+ * apart from the servlet threads and from the "taskExecutor" of the AsyncConfiguration, so that a large batch
+ * neither starves the other requests nor the background jobs. The results of a chunk are handed over as soon
+ * as it and all the chunks before it are done, which keeps them in the order of the batch.
+ * </p>
+ */
+@Service
+public class IntentClassificationService {
+
+    private final Logger log = LoggerFactory.getLogger(IntentClassificationService.class);
+
+    private final IntentMatchingService intentMatchingService;
+
+    private final ApplicationProperties.Classification properties;
+
+    private final ForkJoinPool pool;
+
+    public IntentClassificationService(IntentMatchingService intentMatchingService,
+            ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.intentMatchingService = intentMatchingService;
+        this.properties = applicationProperties.getClassification();
+        int parallelism = properties.getParallelism() > 0
+            ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("intent-classification-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        metricRegistry.register(MetricRegistry.name(IntentClassificationService.class, "pool", "active"),
+            (Gauge<Integer>) pool::getActiveThreadCount);
+        metricRegistry.register(MetricRegistry.name(IntentClassificationService.class, "pool", "queued"),
+            (Gauge<Long>) () -> pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Get the largest number of utterances in a batch.
+     */
+    public int getMaxUtterances() {
+        return properties.getMaxUtterances();
+    }
+
+    /**
+     * Classify a batch of utterances.
+     *
+     * @param utterances the utterances, a null one matching no intent
+     * @param limit the maximum number of intents per utterance
+     * @param results the consumer of the results, called on the calling thread in the order of the utterances
+     */
+    public void classify(List<String> utterances, int limit, Consumer<IntentClassificationDTO> results) {
+        log.debug("Request to classify {} utterances", utterances.size());
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<ForkJoinTask<List<IntentClassificationDTO>>> chunks = new ArrayList<>();
+        try {
+            for (int start = 0; start < utterances.size(); start += chunkSize) {
+                int from = start;
+                int to = Math.min(utterances.size(), start + chunkSize);
+                chunks.add(pool.submit(() -> classifyChunk(utterances, from, to, limit)));
+            }
+            for (ForkJoinTask<List<IntentClassificationDTO>> chunk : chunks) {
+                chunk.join().forEach(results);
+            }
+        } finally {
+            // the chunks left when the consumer fails, for instance when the client went away
+            for (ForkJoinTask<List<IntentClassificationDTO>> chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+    }
+
+    private List<IntentClassificationDTO> classifyChunk(List<String> utterances, int from, int to, int limit) {
+        List<List<IntentMatchDTO>> matches = intentMatchingService.matchAll(utterances.subList(from, to), limit);
+        List<IntentClassificationDTO> classifications = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            classifications.add(new IntentClassificationDTO(from + i, matches.get(i)));
+        }
+        return classifications;
+    }
+}
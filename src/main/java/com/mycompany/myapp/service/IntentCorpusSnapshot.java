@@ -0,0 +1,159 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.util.PersistentHashMap;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable, versioned snapshot of all the intents.
+ *
+ * <p>
+ * A change gives a new snapshot with the next version, built copy-on-write over {@link PersistentHashMap}s
+ * which share everything but the changed paths with the previous snapshot. A reader holding a snapshot
+ * therefore sees all the intents of one version, whatever the writes happening meanwhile, without any lock.
+ * The intents of a snapshot must not be modified.
+ * </p>
+ */
+public final class IntentCorpusSnapshot {
+
+    public static final IntentCorpusSnapshot EMPTY =
+        new IntentCorpusSnapshot(0, PersistentHashMap.empty(), PersistentHashMap.empty());
+
+    private final long version;
+
+    private final PersistentHashMap<String, Intent> intentsByTag;
+
+    /**
+     * Tag of every intent, by id, to find the previous tag of a renamed intent.
+     */
+    private final PersistentHashMap<String, String> tagsById;
+
+    private IntentCorpusSnapshot(long version, PersistentHashMap<String, Intent> intentsByTag,
+            PersistentHashMap<String, String> tagsById) {
+        this.version = version;
+        this.intentsByTag = intentsByTag;
+        this.tagsById = tagsById;
+    }
+
+    /**
+     * Get the version of the snapshot, incremented by every change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return intentsByTag.size();
+    }
+
+    /**
+     * Get an intent by tag.
+     *
+     * @param tag the tag of the intent
+     * @return the intent, or null if there is none with this tag
+     */
+    public Intent get(String tag) {
+        return intentsByTag.get(tag);
+    }
+
+    /**
+     * Get the tag of an intent by id.
+     *
+     * @param id the id of the intent
+     * @return the tag, or null if there is no intent with this id
+     */
+    public String getTag(String id) {
+        return id != null ? tagsById.get(id) : null;
+    }
+
+    /**
+     * Get all the intents, in no particular order.
+     */
+    public List<Intent> getIntents() {
+        return intentsByTag.values();
+    }
+
+    /**
+     * Call an action for every intent, in no particular order.
+     */
+    public void forEach(Consumer<Intent> action) {
+        intentsByTag.forEach((tag, intent) -> action.accept(intent));
+    }
+
+    /**
+     * Get the next version, with all the intents replaced.
+     *
+     * @param intents all the intents
+     * @return the new snapshot
+     */
+    public IntentCorpusSnapshot withAll(Iterable<Intent> intents) {
+        IntentCorpusSnapshot snapshot = new IntentCorpusSnapshot(version + 1, PersistentHashMap.empty(),
+            PersistentHashMap.empty());
+        for (Intent intent : intents) {
+            snapshot = snapshot.with(intent);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the next version, with a batch of intents added or replacing their previous version.
+     *
+     * @param saved the saved intents
+     * @return the new snapshot
+     */
+    public IntentCorpusSnapshot withSaved(Collection<Intent> saved) {
+        IntentCorpusSnapshot snapshot = new IntentCorpusSnapshot(version + 1, intentsByTag, tagsById);
+        for (Intent intent : saved) {
+            snapshot = snapshot.with(intent);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the next version, without the intent having a tag.
+     *
+     * @param tag the tag of the deleted intent
+     * @return the new snapshot, or this one if it has no intent with this tag
+     */
+    public IntentCorpusSnapshot withDeleted(String tag) {
+        Intent deleted = intentsByTag.get(tag);
+        if (deleted == null) {
+            return this;
+        }
+        return new IntentCorpusSnapshot(version + 1, intentsByTag.minus(tag), tagsById.minus(keyOf(deleted)));
+    }
+
+    /**
+     * Add an intent, in the same version.
+     */
+    private IntentCorpusSnapshot with(Intent intent) {
+        String key = keyOf(intent);
+        PersistentHashMap<String, Intent> intents = intentsByTag;
+        PersistentHashMap<String, String> tags = tagsById;
+        String previousTag = tags.get(key);
+        if (previousTag != null) {
+            intents = intents.minus(previousTag);
+        }
+        // tags are unique: another intent with the same tag is a stale version which was deleted
+        Intent stale = intents.get(intent.getTag());
+        if (stale != null) {
+            tags = tags.minus(keyOf(stale));
+        }
+        return new IntentCorpusSnapshot(version, intents.plus(intent.getTag(), intent), tags.plus(key, intent.getTag()));
+    }
+
+    private static String keyOf(Intent intent) {
+        return intent.getId() != null ? intent.getId() : intent.getTag();
+    }
+
+    @Override
+    public String toString() {
+        return "IntentCorpusSnapshot{" +
+            "version=" + version +
+            ", size=" + size() +
+            "}";
+    }
+}
@@ -0,0 +1,267 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentFuzzyMatchDTO;
+import com.mycompany.myapp.service.dto.IntentIndexStatsDTO;
+import com.mycompany.myapp.service.dto.IntentMatchDTO;
+import com.mycompany.myapp.service.dto.IntentPhraseDTO;
+import com.mycompany.myapp.service.dto.IntentRankDTO;
+import com.mycompany.myapp.service.dto.IntentTokenDTO;
+import com.mycompany.myapp.service.matching.FuzzyPatternIndex;
+import com.mycompany.myapp.service.matching.IntentContextPartitions;
+import com.mycompany.myapp.service.matching.IntentMatchIndex;
+import com.mycompany.myapp.service.matching.IntentRankIndex;
+import com.mycompany.myapp.service.matching.PhraseAutomaton;
+import com.mycompany.myapp.service.matching.TextNormalizer;
+import com.mycompany.myapp.service.matching.TokenVocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service matching utterances against the patterns of the intents, and selecting the intents usable in
+ * a conversation context, without any database access: the intents are those of the snapshots given by the
+ * IntentService.
+ *
+ * <p>
+ * The indexes are updated in place when intents change. The {@link PhraseAutomaton} is immutable instead:
+ * a new one is compiled from the latest {@link IntentCorpusSnapshot} on the "taskExecutor" of the
+ * AsyncConfiguration, and replaces the current one at once, changes received while a rebuild is pending being
+ * coalesced into it.
+ * </p>
+ */
+@Service
+public class IntentMatchingService {
+
+    public static final int DEFAULT_LIMIT = 5;
+
+    public static final int DEFAULT_FUZZY_DISTANCE = 2;
+
+    public static final int MAX_FUZZY_DISTANCE = 3;
+
+    private final Logger log = LoggerFactory.getLogger(IntentMatchingService.class);
+
+    private final Executor taskExecutor;
+
+    private final IntentMatchIndex intentMatchIndex = new IntentMatchIndex();
+
+    private final IntentRankIndex intentRankIndex = new IntentRankIndex();
+
+    private final FuzzyPatternIndex fuzzyPatternIndex = new FuzzyPatternIndex();
+
+    private final IntentContextPartitions intentContextPartitions = new IntentContextPartitions();
+
+    private final AtomicBoolean phraseRebuildPending = new AtomicBoolean();
+
+    private final AtomicReference<IntentCorpusSnapshot> corpus = new AtomicReference<>(IntentCorpusSnapshot.EMPTY);
+
+    private volatile PhraseAutomaton phraseAutomaton = PhraseAutomaton.build(Collections.emptyList());
+
+    public IntentMatchingService(@Qualifier("taskExecutor") Executor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Rebuild the match, rank and fuzzy indexes, the context partitions and the phrase automaton from a snapshot
+     * of all the intents, loaded by the IntentService.
+     *
+     * <p>
+     * The phrase automaton is compiled in the calling thread, after any rebuild in progress, so that a rebuild
+     * from an older snapshot cannot replace it.
+     * </p>
+     *
+     * @param snapshot all the intents
+     */
+    public void reload(IntentCorpusSnapshot snapshot) {
+        log.debug("Loading all Intents into the match index");
+        updateCorpus(snapshot);
+        List<Intent> intents = snapshot.getIntents();
+        intentMatchIndex.reload(intents);
+        intentRankIndex.reload(intents);
+        fuzzyPatternIndex.reload(intents);
+        intentContextPartitions.reload(intents);
+        rebuildPhraseAutomaton();
+        log.info("Intent match index loaded: {}", intentMatchIndex.stats());
+    }
+
+    /**
+     * Get the size and estimated memory footprint of the match index.
+     *
+     * @return the statistics of the index
+     */
+    public IntentIndexStatsDTO getIndexStats() {
+        return intentMatchIndex.stats();
+    }
+
+    /**
+     * Get the intents best matching an utterance.
+     *
+     * @param utterance the text to match
+     * @param limit the maximum number of intents to return
+     * @return the matching intents with their scores, best first
+     */
+    public List<IntentMatchDTO> match(String utterance, int limit) {
+        log.debug("Request to match utterance : {}", utterance);
+        return intentMatchIndex.match(utterance, limit);
+    }
+
+    /**
+     * Get the intents best matching every utterance of a batch, without logging each of them.
+     *
+     * @param utterances the texts to match
+     * @param limit the maximum number of intents to return per utterance
+     * @return the matching intents with their scores, best first, for every utterance
+     */
+    public List<List<IntentMatchDTO>> matchAll(List<String> utterances, int limit) {
+        List<List<IntentMatchDTO>> matches = new ArrayList<>(utterances.size());
+        for (String utterance : utterances) {
+            matches.add(intentMatchIndex.match(utterance, limit));
+        }
+        return matches;
+    }
+
+    /**
+     * Rank the intents by BM25 relevance of their patterns to an utterance.
+     *
+     * @param utterance the text to rank the intents against
+     * @param limit the maximum number of intents to return
+     * @param explain true to detail the contribution of every utterance term to the scores
+     * @return the intents with their scores, best first
+     */
+    public List<IntentRankDTO> rank(String utterance, int limit, boolean explain) {
+        log.debug("Request to rank Intents against utterance : {}", utterance);
+        return intentRankIndex.rank(utterance, limit, explain);
+    }
+
+    /**
+     * Find the patterns within a small edit distance of a query, to tolerate typos.
+     *
+     * @param query the text to look up
+     * @param maxDistance the maximum Levenshtein distance between the normalized query and a normalized pattern
+     * @param limit the maximum number of patterns to return
+     * @return the normalized patterns with their distance and the tags of the intents having them, closest first
+     */
+    public List<IntentFuzzyMatchDTO> findFuzzy(String query, int maxDistance, int limit) {
+        log.debug("Request to find the patterns close to : {}", query);
+        return fuzzyPatternIndex.find(query, maxDistance, limit);
+    }
+
+    /**
+     * Find the intents having a pattern which occurs as a phrase in a text, in a single pass over the text.
+     *
+     * @param text the text to scan
+     * @return the first phrase found of every intent, in the order of the text
+     */
+    public List<IntentPhraseDTO> detect(String text) {
+        log.debug("Request to detect the Intent phrases in : {}", text);
+        return phraseAutomaton.detect(text);
+    }
+
+    /**
+     * Rebuild the phrase automaton from the latest snapshot of the intents, and swap it in.
+     */
+    public synchronized void rebuildPhraseAutomaton() {
+        PhraseAutomaton rebuilt = PhraseAutomaton.build(corpus.get().getIntents());
+        phraseAutomaton = rebuilt;
+        log.debug("Phrase automaton rebuilt with {} phrases, {} states", rebuilt.phraseCount(), rebuilt.size());
+    }
+
+    /**
+     * Normalize and tokenize a text like the intent patterns are.
+     *
+     * @param text the text to tokenize
+     * @return the distinct tokens of the text, sorted, with their id in the vocabulary of the patterns
+     */
+    public List<IntentTokenDTO> tokenize(String text) {
+        TokenVocabulary vocabulary = intentMatchIndex.vocabulary();
+        List<String> tokens = TextNormalizer.tokens(text);
+        List<IntentTokenDTO> result = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            int id = vocabulary.lookup(token);
+            result.add(new IntentTokenDTO(token, id >= 0 ? id : null));
+        }
+        return result;
+    }
+
+    /**
+     * Get the intents usable in any of the given conversation contexts: the intents without context filter,
+     * and the intents whose filter is one of the contexts.
+     *
+     * @param contexts the contexts, may be empty
+     * @return the usable intents
+     */
+    public List<Intent> findUsable(Collection<String> contexts) {
+        return intentContextPartitions.findUsable(contexts);
+    }
+
+    /**
+     * Update the match, rank and fuzzy indexes and the context partitions after a batch of intents has been saved,
+     * and schedule the rebuild of the phrase automaton.
+     *
+     * @param intents the saved entities
+     * @param snapshot the intents after the change
+     */
+    public void intentsSaved(Collection<Intent> intents, IntentCorpusSnapshot snapshot) {
+        intentMatchIndex.indexAll(intents);
+        intentRankIndex.putAll(intents);
+        fuzzyPatternIndex.putAll(intents);
+        intentContextPartitions.putAll(intents);
+        schedulePhraseRebuild(snapshot);
+    }
+
+    /**
+     * Update the match, rank and fuzzy indexes and the context partitions after an intent has been deleted, and
+     * schedule the rebuild of the phrase automaton.
+     *
+     * @param tag the tag of the deleted entity
+     * @param snapshot the intents after the change
+     */
+    public void intentDeleted(String tag, IntentCorpusSnapshot snapshot) {
+        intentMatchIndex.remove(tag);
+        intentRankIndex.remove(tag);
+        fuzzyPatternIndex.remove(tag);
+        intentContextPartitions.remove(tag);
+        schedulePhraseRebuild(snapshot);
+    }
+
+    /**
+     * Rebuild the phrase automaton from a snapshot of the intents in the background, unless a rebuild is already
+     * pending. Snapshots older than the latest one received are ignored.
+     *
+     * @param snapshot the intents after a change
+     */
+    private void schedulePhraseRebuild(IntentCorpusSnapshot snapshot) {
+        updateCorpus(snapshot);
+        if (!phraseRebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                // changes from now on need another rebuild
+                phraseRebuildPending.set(false);
+                rebuildPhraseAutomaton();
+            });
+        } catch (RejectedExecutionException e) {
+            phraseRebuildPending.set(false);
+            log.warn("Could not schedule the rebuild of the phrase automaton: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keep the latest snapshot, ignoring the snapshots older than the one already received.
+     */
+    private void updateCorpus(IntentCorpusSnapshot snapshot) {
+        corpus.accumulateAndGet(snapshot,
+            (current, next) -> next.getVersion() > current.getVersion() ? next : current);
+    }
+}
@@ -1,8 +1,16 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.service.dto.IntentBulkItemDTO;
 import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.dto.IntentSummaryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service Interface for managing Intent.
@@ -17,6 +25,14 @@ public interface IntentService {
      */
     IntentDTO save(IntentDTO intentDTO);
 
+    /**
+     * Save a chunk of intents with a single unordered bulk write.
+     *
+     * @param intentDTOs the entities to save, already validated
+     * @return the result for every entity, in the same order
+     */
+    List<IntentBulkItemDTO> saveAll(List<IntentDTO> intentDTOs);
+
     /**
      *  Get all the intents.
      *
@@ -25,6 +41,61 @@ public interface IntentService {
      */
     Page<IntentDTO> findAll(Pageable pageable);
 
+    /**
+     *  Get all the intents, reading only some of their fields.
+     *
+     *  @param pageable the pagination information
+     *  @param fields the fields to read, or null for all of them; the id is always read
+     *  @return the list of entities
+     */
+    Page<IntentDTO> findAll(Pageable pageable, Set<String> fields);
+
+    /**
+     *  Get a page of intent summaries: the patterns and responses are counted by the database and never sent.
+     *
+     *  @param pageable the pagination information
+     *  @return the list of summaries
+     */
+    Page<IntentSummaryDTO> findAllSummaries(Pageable pageable);
+
+    /**
+     *  Get a slice of the intents ordered by id, starting right after a given id.
+     *
+     *  Unlike findAll(Pageable), no count is run and the database seeks on the _id index instead of skipping
+     *  over the previous pages, so walking the whole collection is linear.
+     *
+     *  @param afterId the id of the last intent of the previous slice, or null for the first slice
+     *  @param size the maximum number of intents in the slice
+     *  @return the slice of entities
+     */
+    Slice<IntentDTO> findAllAfter(String afterId, int size);
+
+    /**
+     *  Get a slice of the intents ordered by id, starting right after a given id, reading only some of their fields.
+     *
+     *  @param afterId the id of the last intent of the previous slice, or null for the first slice
+     *  @param size the maximum number of intents in the slice
+     *  @param fields the fields to read, or null for all of them; the id is always read
+     *  @return the slice of entities
+     */
+    Slice<IntentDTO> findAllAfter(String afterId, int size, Set<String> fields);
+
+    /**
+     *  Stream all the intents from a database cursor, without loading the collection into memory.
+     *
+     *  @param consumer the consumer of every intent
+     */
+    void streamAll(Consumer<IntentDTO> consumer);
+
+    /**
+     *  Get the intents usable in any of the given conversation contexts: the ones without context filter,
+     *  and the ones whose context filter is one of the contexts.
+     *
+     *  @param contexts the conversation contexts, may be empty
+     *  @return the list of entities
+     */
+    List<IntentDTO> findAllByContexts(Collection<String> contexts);
+
     /**
      *  Get the "tag" intent.
      *
@@ -33,10 +104,74 @@ public interface IntentService {
      */
     IntentDTO findOne(String tag);
 
+    /**
+     *  Get the "tag" intent, reading only some of its fields.
+     *
+     *  @param tag the id of the entity
+     *  @param fields the fields to read, or null for all of them; the id is always read
+     *  @return the entity
+     */
+    IntentDTO findOne(String tag, Set<String> fields);
+
+    /**
+     *  Add a pattern to the "tag" intent, unless it already has it, without rewriting the other fields.
+     *
+     *  @param tag the tag of the entity
+     *  @param pattern the pattern to add
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    IntentDTO addPattern(String tag, String pattern);
+
+    /**
+     *  Remove a pattern from the "tag" intent, without rewriting the other fields.
+     *
+     *  @param tag the tag of the entity
+     *  @param pattern the pattern to remove
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    IntentDTO removePattern(String tag, String pattern);
+
+    /**
+     *  Append a response to the "tag" intent, without rewriting the other fields.
+     *
+     *  @param tag the tag of the entity
+     *  @param response the response to append
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    IntentDTO addResponse(String tag, String response);
+
+    /**
+     *  Remove a response of the "tag" intent by index, without rewriting the other fields.
+     *
+     *  @param tag the tag of the entity
+     *  @param index the index of the response
+     *  @return the updated entity, or null if there is no intent with this tag or no response at this index
+     */
+    IntentDTO removeResponse(String tag, int index);
+
     /**
      *  Delete the "tag" intent.
      *
      *  @param tag the tag of the entity
      */
     void delete(String tag);
+
+    /**
+     *  Refresh the in-memory views of the "tag" intent from the database, after another instance changed it.
+     *
+     *  @param tag the tag of the entity
+     */
+    void refresh(String tag);
+
+    /**
+     *  Get the current snapshot of all the intents, without any lock or database access.
+     *
+     *  @return the snapshot, whose version is incremented by every change
+     */
+    IntentCorpusSnapshot getCorpus();
+
+    /**
+     *  Replace the snapshot of all the intents by a new version loaded from the database.
+     */
+    void reloadCorpus();
 }
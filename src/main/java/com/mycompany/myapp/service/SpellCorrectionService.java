@@ -0,0 +1,167 @@
+package com.mycompany.myapp.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.service.dto.SpellCorrectionDTO;
+import com.mycompany.myapp.service.dto.SpellSuggestionDTO;
+import com.mycompany.myapp.service.matching.SymSpellDictionary;
+import com.mycompany.myapp.service.matching.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service correcting the spelling of user text against the words of the intent patterns and responses.
+ *
+ * <p>
+ * The {@link SymSpellDictionary} is immutable: when intents change, a new one is built from the latest
+ * {@link IntentCorpusSnapshot} on the "taskExecutor" of the AsyncConfiguration, and replaces the current one
+ * at once, without reading the database. Changes received while a rebuild is pending are coalesced into it.
+ * Until the first dictionary is built, texts are left uncorrected.
+ * </p>
+ */
+@Service
+public class SpellCorrectionService {
+
+    private final Logger log = LoggerFactory.getLogger(SpellCorrectionService.class);
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.SpellCorrection properties;
+
+    private final Timer rebuildTimer;
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private final AtomicReference<IntentCorpusSnapshot> corpus = new AtomicReference<>(IntentCorpusSnapshot.EMPTY);
+
+    private volatile SymSpellDictionary dictionary;
+
+    public SpellCorrectionService(@Qualifier("taskExecutor") Executor taskExecutor,
+            ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.taskExecutor = taskExecutor;
+        this.properties = applicationProperties.getSpellCorrection();
+        this.dictionary = SymSpellDictionary.build(Collections.emptyMap(), properties.getMaxEditDistance(),
+            properties.getPrefixLength(), properties.getMaxWords());
+        this.rebuildTimer = metricRegistry.timer(MetricRegistry.name(SpellCorrectionService.class, "rebuild"));
+        metricRegistry.register(MetricRegistry.name(SpellCorrectionService.class, "dictionary", "words"),
+            (Gauge<Integer>) () -> dictionary.size());
+        metricRegistry.register(MetricRegistry.name(SpellCorrectionService.class, "dictionary", "deletes"),
+            (Gauge<Integer>) () -> dictionary.deleteCount());
+        metricRegistry.register(MetricRegistry.name(SpellCorrectionService.class, "dictionary", "bytes"),
+            (Gauge<Long>) () -> dictionary.estimatedBytes());
+    }
+
+    /**
+     * Rebuild the dictionary from a snapshot of the intents in the background, unless a rebuild is already pending.
+     *
+     * <p>
+     * Snapshots older than the latest one received are ignored, so that the dictionary never goes back to
+     * a previous version of the intents when changes are notified out of order.
+     * </p>
+     *
+     * @param snapshot the intents after a change
+     */
+    public void scheduleRebuild(IntentCorpusSnapshot snapshot) {
+        corpus.accumulateAndGet(snapshot,
+            (current, next) -> next.getVersion() > current.getVersion() ? next : current);
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                // changes from now on need another rebuild
+                rebuildPending.set(false);
+                rebuild();
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildPending.set(false);
+            log.warn("Could not schedule the rebuild of the spelling dictionary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the dictionary from the latest snapshot of the intents, and swap it in.
+     */
+    public synchronized void rebuild() {
+        try (Timer.Context ignored = rebuildTimer.time()) {
+            Map<String, Integer> wordCounts = new HashMap<>();
+            corpus.get().forEach(intent -> {
+                countWords(intent.getPatterns(), wordCounts);
+                countWords(intent.getResponses(), wordCounts);
+            });
+            SymSpellDictionary rebuilt = SymSpellDictionary.build(wordCounts, properties.getMaxEditDistance(),
+                properties.getPrefixLength(), properties.getMaxWords());
+            dictionary = rebuilt;
+            log.debug("Spelling dictionary rebuilt with {} words, {} deletes, about {} bytes",
+                rebuilt.size(), rebuilt.deleteCount(), rebuilt.estimatedBytes());
+        }
+    }
+
+    /**
+     * Correct the spelling of a text.
+     *
+     * <p>
+     * The text is normalized like the intent patterns. Tokens with digits are left as they are, and the
+     * edit distance allowed for a token is a third of its length, so that short tokens are not corrected into
+     * unrelated words.
+     * </p>
+     *
+     * @param text the text to correct
+     * @return the normalized, corrected text, and the correction of every misspelled token
+     */
+    public SpellCorrectionDTO correct(String text) {
+        log.debug("Request to correct : {}", text);
+        SymSpellDictionary current = dictionary;
+        String normalized = TextNormalizer.normalize(text);
+        List<SpellSuggestionDTO> corrections = new ArrayList<>();
+        StringBuilder corrected = new StringBuilder(normalized.length());
+        for (String token : normalized.split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            SpellSuggestionDTO suggestion = hasDigit(token) ? null : current.lookup(token, token.length() / 3);
+            if (corrected.length() > 0) {
+                corrected.append(' ');
+            }
+            if (suggestion != null && suggestion.getDistance() > 0) {
+                corrections.add(suggestion);
+                corrected.append(suggestion.getSuggestion());
+            } else {
+                corrected.append(token);
+            }
+        }
+        return new SpellCorrectionDTO(text, corrected.toString(), corrections);
+    }
+
+    private static void countWords(List<String> texts, Map<String, Integer> wordCounts) {
+        if (texts == null) {
+            return;
+        }
+        for (String text : texts) {
+            for (String word : TextNormalizer.normalize(text).split(" ")) {
+                if (!word.isEmpty()) {
+                    wordCounts.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private static boolean hasDigit(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
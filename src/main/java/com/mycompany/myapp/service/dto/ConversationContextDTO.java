@@ -0,0 +1,63 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the conversation context of a session.
+ */
+public class ConversationContextDTO implements Serializable {
+
+    private String sessionId;
+
+    private String context;
+
+    public ConversationContextDTO() {
+    }
+
+    public ConversationContextDTO(String sessionId, String context) {
+        this.sessionId = sessionId;
+        this.context = context;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public void setContext(String context) {
+        this.context = context;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConversationContextDTO that = (ConversationContextDTO) o;
+        return Objects.equals(sessionId, that.sessionId) && Objects.equals(context, that.context);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sessionId, context);
+    }
+
+    @Override
+    public String toString() {
+        return "ConversationContextDTO{" +
+            "sessionId='" + sessionId + "'" +
+            ", context='" + context + "'" +
+            '}';
+    }
+}
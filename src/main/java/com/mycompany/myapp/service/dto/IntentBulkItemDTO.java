@@ -0,0 +1,88 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the result of one intent of a bulk import.
+ */
+public class IntentBulkItemDTO implements Serializable {
+
+    public enum Status {
+        CREATED, UPDATED, INVALID, FAILED
+    }
+
+    private int index;
+
+    private String id;
+
+    private String tag;
+
+    private Status status;
+
+    private String error;
+
+    public IntentBulkItemDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentBulkItemDTO(String id, String tag, Status status) {
+        this.id = id;
+        this.tag = tag;
+        this.status = status;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public boolean isSuccessful() {
+        return status == Status.CREATED || status == Status.UPDATED;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentBulkItemDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", tag='" + tag + "'" +
+            ", status=" + status +
+            ", error='" + error + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the report of a bulk import of intents.
+ */
+public class IntentBulkReportDTO implements Serializable {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<IntentBulkItemDTO> items = new ArrayList<>();
+
+    public void add(IntentBulkItemDTO item) {
+        item.setIndex(total++);
+        if (item.isSuccessful()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+        items.add(item);
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<IntentBulkItemDTO> getItems() {
+        return items;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentBulkReportDTO{" +
+            "total=" + total +
+            ", succeeded=" + succeeded +
+            ", failed=" + failed +
+            "}";
+    }
+}
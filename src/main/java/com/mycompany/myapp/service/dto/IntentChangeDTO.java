@@ -0,0 +1,74 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the message published on the output channel when an intent changes.
+ */
+public class IntentChangeDTO implements Serializable {
+
+    public enum Operation {
+        SAVE, DELETE
+    }
+
+    private String tag;
+
+    private long version;
+
+    private Operation op;
+
+    private String origin;
+
+    public IntentChangeDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentChangeDTO(String tag, long version, Operation op, String origin) {
+        this.tag = tag;
+        this.version = version;
+        this.op = op;
+        this.origin = origin;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Operation getOp() {
+        return op;
+    }
+
+    public void setOp(Operation op) {
+        this.op = op;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentChangeDTO{" +
+            "tag='" + tag + "'" +
+            ", version=" + version +
+            ", op=" + op +
+            ", origin='" + origin + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for the intents best matching one utterance of a batch.
+ */
+public class IntentClassificationDTO implements Serializable {
+
+    private int index;
+
+    private List<IntentMatchDTO> matches;
+
+    public IntentClassificationDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentClassificationDTO(int index, List<IntentMatchDTO> matches) {
+        this.index = index;
+        this.matches = matches;
+    }
+
+    /**
+     * Get the index of the utterance in the batch.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public List<IntentMatchDTO> getMatches() {
+        return matches;
+    }
+
+    public void setMatches(List<IntentMatchDTO> matches) {
+        this.matches = matches;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentClassificationDTO{" +
+            "index=" + index +
+            ", matches=" + matches +
+            "}";
+    }
+}
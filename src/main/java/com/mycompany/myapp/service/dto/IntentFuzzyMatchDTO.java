@@ -0,0 +1,62 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for a normalized pattern close to a query, with the tags of the intents having it.
+ */
+public class IntentFuzzyMatchDTO implements Serializable {
+
+    private String pattern;
+
+    private int distance;
+
+    private List<String> tags;
+
+    public IntentFuzzyMatchDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentFuzzyMatchDTO(String pattern, int distance, List<String> tags) {
+        this.pattern = pattern;
+        this.distance = distance;
+        this.tags = tags;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Get the Levenshtein distance between the normalized query and the pattern.
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    public void setDistance(int distance) {
+        this.distance = distance;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentFuzzyMatchDTO{" +
+            "pattern='" + pattern + "'" +
+            ", distance=" + distance +
+            ", tags=" + tags +
+            "}";
+    }
+}
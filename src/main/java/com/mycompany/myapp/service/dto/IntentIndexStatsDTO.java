@@ -0,0 +1,81 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO reporting the size and estimated memory footprint of the intent match index.
+ */
+public class IntentIndexStatsDTO implements Serializable {
+
+    private int intents;
+
+    private int patterns;
+
+    private int deadPatterns;
+
+    private int tokens;
+
+    private long postings;
+
+    private long estimatedBytes;
+
+    public int getIntents() {
+        return intents;
+    }
+
+    public void setIntents(int intents) {
+        this.intents = intents;
+    }
+
+    public int getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(int patterns) {
+        this.patterns = patterns;
+    }
+
+    public int getDeadPatterns() {
+        return deadPatterns;
+    }
+
+    public void setDeadPatterns(int deadPatterns) {
+        this.deadPatterns = deadPatterns;
+    }
+
+    public int getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(int tokens) {
+        this.tokens = tokens;
+    }
+
+    public long getPostings() {
+        return postings;
+    }
+
+    public void setPostings(long postings) {
+        this.postings = postings;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentIndexStatsDTO{" +
+            "intents=" + intents +
+            ", patterns=" + patterns +
+            ", deadPatterns=" + deadPatterns +
+            ", tokens=" + tokens +
+            ", postings=" + postings +
+            ", estimatedBytes=" + estimatedBytes +
+            "}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for an intent matched against an utterance.
+ */
+public class IntentMatchDTO implements Serializable {
+
+    private String tag;
+
+    private double score;
+
+    public IntentMatchDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentMatchDTO(String tag, double score) {
+        this.tag = tag;
+        this.score = score;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentMatchDTO{" +
+            "tag='" + tag + "'" +
+            ", score=" + score +
+            "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for an intent pattern found as a phrase in a text.
+ */
+public class IntentPhraseDTO implements Serializable {
+
+    private String tag;
+
+    private String phrase;
+
+    private int position;
+
+    public IntentPhraseDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentPhraseDTO(String tag, String phrase, int position) {
+        this.tag = tag;
+        this.phrase = phrase;
+        this.position = position;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Get the normalized pattern found in the text.
+     */
+    public String getPhrase() {
+        return phrase;
+    }
+
+    public void setPhrase(String phrase) {
+        this.phrase = phrase;
+    }
+
+    /**
+     * Get the index of the first token of the phrase among the tokens of the normalized text.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentPhraseDTO{" +
+            "tag='" + tag + "'" +
+            ", phrase='" + phrase + "'" +
+            ", position=" + position +
+            "}";
+    }
+}
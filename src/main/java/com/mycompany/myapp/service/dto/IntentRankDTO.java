@@ -0,0 +1,64 @@
+package com.mycompany.myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for an intent ranked by BM25 relevance to an utterance.
+ */
+public class IntentRankDTO implements Serializable {
+
+    private String tag;
+
+    private double score;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<IntentRankTermDTO> terms;
+
+    public IntentRankDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentRankDTO(String tag, double score) {
+        this.tag = tag;
+        this.score = score;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    /**
+     * Get the contribution of every term of the utterance found in the intent, only given on request.
+     */
+    public List<IntentRankTermDTO> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(List<IntentRankTermDTO> terms) {
+        this.terms = terms;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentRankDTO{" +
+            "tag='" + tag + "'" +
+            ", score=" + score +
+            ", terms=" + terms +
+            "}";
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the contribution of one utterance term to the BM25 score of an intent.
+ */
+public class IntentRankTermDTO implements Serializable {
+
+    private String token;
+
+    private int termFrequency;
+
+    private int documentFrequency;
+
+    private double idf;
+
+    private double score;
+
+    public IntentRankTermDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public IntentRankTermDTO(String token, int termFrequency, int documentFrequency, double idf, double score) {
+        this.token = token;
+        this.termFrequency = termFrequency;
+        this.documentFrequency = documentFrequency;
+        this.idf = idf;
+        this.score = score;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Get the number of patterns of the intent containing the term.
+     */
+    public int getTermFrequency() {
+        return termFrequency;
+    }
+
+    public void setTermFrequency(int termFrequency) {
+        this.termFrequency = termFrequency;
+    }
+
+    /**
+     * Get the number of intents containing the term.
+     */
+    public int getDocumentFrequency() {
+        return documentFrequency;
+    }
+
+    public void setDocumentFrequency(int documentFrequency) {
+        this.documentFrequency = documentFrequency;
+    }
+
+    public double getIdf() {
+        return idf;
+    }
+
+    public void setIdf(double idf) {
+        this.idf = idf;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentRankTermDTO{" +
+            "token='" + token + "'" +
+            ", termFrequency=" + termFrequency +
+            ", documentFrequency=" + documentFrequency +
+            ", idf=" + idf +
+            ", score=" + score +
+            "}";
+    }
+}
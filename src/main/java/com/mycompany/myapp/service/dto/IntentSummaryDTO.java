@@ -0,0 +1,81 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A lightweight DTO for listing the intents: the patterns and responses are only counted.
+ */
+public class IntentSummaryDTO implements Serializable {
+
+    private String id;
+
+    private String tag;
+
+    private String context_set;
+
+    private String context_filter;
+
+    private int patternCount;
+
+    private int responseCount;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public String getContext_set() {
+        return context_set;
+    }
+
+    public void setContext_set(String context_set) {
+        this.context_set = context_set;
+    }
+
+    public String getContext_filter() {
+        return context_filter;
+    }
+
+    public void setContext_filter(String context_filter) {
+        this.context_filter = context_filter;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public void setPatternCount(int patternCount) {
+        this.patternCount = patternCount;
+    }
+
+    public int getResponseCount() {
+        return responseCount;
+    }
+
+    public void setResponseCount(int responseCount) {
+        this.responseCount = responseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentSummaryDTO{" +
+            "id=" + id +
+            ", tag='" + tag + "'" +
+            ", context_set='" + context_set + "'" +
+            ", context_filter='" + context_filter + "'" +
+            ", patternCount=" + patternCount +
+            ", responseCount=" + responseCount +
+            "}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for a normalized token, with its id in the vocabulary of the intent patterns.
+ */
+public class IntentTokenDTO implements Serializable {
+
+    private String token;
+
+    private Integer id;
+
+    public IntentTokenDTO() {
+    }
+
+    public IntentTokenDTO(String token, Integer id) {
+        this.token = token;
+        this.id = id;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Get the id of the token, which is null if no intent pattern has this token.
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentTokenDTO{" +
+            "token='" + token + "'" +
+            ", id=" + id +
+            '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A DTO for a text corrected by the spelling dictionary of the intents.
+ */
+public class SpellCorrectionDTO implements Serializable {
+
+    private String text;
+
+    private String corrected;
+
+    private List<SpellSuggestionDTO> corrections;
+
+    public SpellCorrectionDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public SpellCorrectionDTO(String text, String corrected, List<SpellSuggestionDTO> corrections) {
+        this.text = text;
+        this.corrected = corrected;
+        this.corrections = corrections;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Get the normalized text, with every misspelled token replaced by its correction.
+     */
+    public String getCorrected() {
+        return corrected;
+    }
+
+    public void setCorrected(String corrected) {
+        this.corrected = corrected;
+    }
+
+    /**
+     * Get the corrections of the misspelled tokens, in the order of the text.
+     */
+    public List<SpellSuggestionDTO> getCorrections() {
+        return corrections;
+    }
+
+    public void setCorrections(List<SpellSuggestionDTO> corrections) {
+        this.corrections = corrections;
+    }
+
+    @Override
+    public String toString() {
+        return "SpellCorrectionDTO{" +
+            "text='" + text + "'" +
+            ", corrected='" + corrected + "'" +
+            ", corrections=" + corrections +
+            "}";
+    }
+}
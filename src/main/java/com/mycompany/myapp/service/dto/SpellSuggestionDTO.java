@@ -0,0 +1,76 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the correction of one token by the spelling dictionary of the intents.
+ */
+public class SpellSuggestionDTO implements Serializable {
+
+    private String token;
+
+    private String suggestion;
+
+    private int distance;
+
+    private int count;
+
+    public SpellSuggestionDTO() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public SpellSuggestionDTO(String token, String suggestion, int distance, int count) {
+        this.token = token;
+        this.suggestion = suggestion;
+        this.distance = distance;
+        this.count = count;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getSuggestion() {
+        return suggestion;
+    }
+
+    public void setSuggestion(String suggestion) {
+        this.suggestion = suggestion;
+    }
+
+    /**
+     * Get the Levenshtein distance between the token and the suggestion.
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    public void setDistance(int distance) {
+        this.distance = distance;
+    }
+
+    /**
+     * Get the number of occurrences of the suggestion in the patterns and responses of the intents.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "SpellSuggestionDTO{" +
+            "token='" + token + "'" +
+            ", suggestion='" + suggestion + "'" +
+            ", distance=" + distance +
+            ", count=" + count +
+            "}";
+    }
+}
@@ -1,32 +1,114 @@
 package com.mycompany.myapp.service.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.service.IntentChangePublisher;
+import com.mycompany.myapp.service.IntentCorpusSnapshot;
+import com.mycompany.myapp.service.IntentMatchingService;
 import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.service.SpellCorrectionService;
 import com.mycompany.myapp.domain.Intent;
 import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.dto.IntentBulkItemDTO;
+import com.mycompany.myapp.service.dto.IntentChangeDTO;
 import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.dto.IntentSummaryDTO;
 import com.mycompany.myapp.service.mapper.IntentMapper;
+import com.mycompany.myapp.service.util.ExpiringCache;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 
 /**
  * Service Implementation for managing Intent.
+ *
+ * <p>
+ * Besides the database, the service maintains an {@link IntentCorpusSnapshot} of all the intents. Every change
+ * publishes a new version through a volatile field, so readers get a consistent snapshot with a single volatile
+ * read; writers build the next version one at a time. A writer holds the lock from its database write to the
+ * new version, so that the snapshot sees the writes of this instance in the order of the database.
+ * </p>
  */
 @Service
 public class IntentServiceImpl implements IntentService{
 
+    /**
+     * Number of attempts of a guarded update before giving up, when the intent keeps changing.
+     */
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+
     private final Logger log = LoggerFactory.getLogger(IntentServiceImpl.class);
 
     private final IntentRepository intentRepository;
 
     private final IntentMapper intentMapper;
 
-    public IntentServiceImpl(IntentRepository intentRepository, IntentMapper intentMapper) {
+    private final MongoTemplate mongoTemplate;
+
+    private final IntentMatchingService intentMatchingService;
+
+    private final IntentChangePublisher intentChangePublisher;
+
+    private final SpellCorrectionService spellCorrectionService;
+
+    private final ExpiringCache<String, Intent> intentCache;
+
+    private final Object corpusLock = new Object();
+
+    private volatile IntentCorpusSnapshot corpus = IntentCorpusSnapshot.EMPTY;
+
+    public IntentServiceImpl(IntentRepository intentRepository, IntentMapper intentMapper, MongoTemplate mongoTemplate,
+            IntentMatchingService intentMatchingService, IntentChangePublisher intentChangePublisher,
+            SpellCorrectionService spellCorrectionService, ApplicationProperties applicationProperties,
+            MetricRegistry metricRegistry) {
         this.intentRepository = intentRepository;
         this.intentMapper = intentMapper;
+        this.mongoTemplate = mongoTemplate;
+        this.intentMatchingService = intentMatchingService;
+        this.intentChangePublisher = intentChangePublisher;
+        this.spellCorrectionService = spellCorrectionService;
+        ApplicationProperties.IntentCache cacheProperties = applicationProperties.getIntentCache();
+        this.intentCache = new ExpiringCache<>(cacheProperties.getMaxEntries(),
+            cacheProperties.getTimeToLiveSeconds(), TimeUnit.SECONDS,
+            metricRegistry, MetricRegistry.name(IntentService.class, "cache"));
+        metricRegistry.register(MetricRegistry.name(IntentService.class, "corpus", "version"),
+            (Gauge<Long>) () -> corpus.getVersion());
+        metricRegistry.register(MetricRegistry.name(IntentService.class, "corpus", "size"),
+            (Gauge<Integer>) () -> corpus.size());
     }
 
     /**
@@ -39,10 +121,76 @@ public class IntentServiceImpl implements IntentService{
     public IntentDTO save(IntentDTO intentDTO) {
         log.debug("Request to save Intent : {}", intentDTO);
         Intent intent = intentMapper.toEntity(intentDTO);
-        intent = intentRepository.save(intent);
+        synchronized (corpusLock) {
+            intent = intentRepository.save(intent);
+            intentSaved(intent);
+        }
+        intentChangePublisher.publish(intent.getTag(), IntentChangeDTO.Operation.SAVE);
         return intentMapper.toDto(intent);
     }
 
+    /**
+     * Save a chunk of intents with a single unordered bulk write.
+     *
+     * <p>
+     * Intents without id are inserted, the others fully replace the document with the same id, or create it.
+     * A failing write only fails its own intent.
+     * </p>
+     *
+     * @param intentDTOs the entities to save, already validated
+     * @return the result for every entity, in the same order
+     */
+    @Override
+    public List<IntentBulkItemDTO> saveAll(List<IntentDTO> intentDTOs) {
+        log.debug("Request to bulk save {} Intents", intentDTOs.size());
+        if (intentDTOs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Intent> intents = intentMapper.toEntity(intentDTOs);
+        List<IntentBulkItemDTO> results = new ArrayList<>(intents.size());
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Intent.class);
+        for (Intent intent : intents) {
+            if (intent.getId() == null) {
+                intent.setId(new ObjectId().toString());
+                bulkOperations.insert(intent);
+                results.add(new IntentBulkItemDTO(intent.getId(), intent.getTag(), IntentBulkItemDTO.Status.CREATED));
+            } else {
+                bulkOperations.upsert(query(where("_id").is(intent.getId())), replacementOf(intent));
+                results.add(new IntentBulkItemDTO(intent.getId(), intent.getTag(), IntentBulkItemDTO.Status.UPDATED));
+            }
+        }
+        List<Intent> saved = new ArrayList<>(intents.size());
+        synchronized (corpusLock) {
+            BulkWriteResult bulkWriteResult;
+            List<BulkWriteError> errors = Collections.emptyList();
+            try {
+                bulkWriteResult = bulkOperations.execute();
+            } catch (BulkOperationException e) {
+                bulkWriteResult = e.getResult();
+                errors = e.getErrors();
+            }
+            for (BulkWriteUpsert upsert : bulkWriteResult.getUpserts()) {
+                results.get(upsert.getIndex()).setStatus(IntentBulkItemDTO.Status.CREATED);
+            }
+            for (BulkWriteError error : errors) {
+                IntentBulkItemDTO result = results.get(error.getIndex());
+                result.setId(intentDTOs.get(error.getIndex()).getId());
+                result.setStatus(IntentBulkItemDTO.Status.FAILED);
+                result.setError(error.getMessage());
+            }
+            for (int i = 0; i < intents.size(); i++) {
+                if (results.get(i).isSuccessful()) {
+                    saved.add(intents.get(i));
+                }
+            }
+            intentsSaved(saved);
+        }
+        for (Intent intent : saved) {
+            intentChangePublisher.publish(intent.getTag(), IntentChangeDTO.Operation.SAVE);
+        }
+        return results;
+    }
+
     /**
      *  Get all the intents.
      *
@@ -57,7 +205,120 @@ public class IntentServiceImpl implements IntentService{
     }
 
     /**
-     *  Get one intent by tag.
+     *  Get all the intents, with a projection reading only some of their fields.
+     *
+     *  @param pageable the pagination information
+     *  @param fields the fields to read, or null for all of them; the id is always read
+     *  @return the list of entities
+     */
+    @Override
+    public Page<IntentDTO> findAll(Pageable pageable, Set<String> fields) {
+        if (fields == null) {
+            return findAll(pageable);
+        }
+        log.debug("Request to get all Intents with fields : {}", fields);
+        List<Intent> intents = mongoTemplate.find(project(new Query().with(pageable), fields), Intent.class);
+        return new PageImpl<>(intentMapper.toDto(intents), pageable, mongoTemplate.count(new Query(), Intent.class));
+    }
+
+    /**
+     *  Get a page of intent summaries, with an aggregation projecting the patterns and responses to their
+     *  $size: the arrays are counted by the database and never sent to the service.
+     *
+     *  @param pageable the pagination information
+     *  @return the list of summaries
+     */
+    @Override
+    public Page<IntentSummaryDTO> findAllSummaries(Pageable pageable) {
+        log.debug("Request to get all Intent summaries");
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (pageable.getSort() != null) {
+            operations.add(Aggregation.sort(pageable.getSort()));
+        }
+        operations.add(Aggregation.skip((long) pageable.getOffset()));
+        operations.add(Aggregation.limit(pageable.getPageSize()));
+        operations.add(Aggregation.project("tag", "context_set", "context_filter")
+            .and(sizeOf("patterns")).as("patternCount")
+            .and(sizeOf("responses")).as("responseCount"));
+        List<IntentSummaryDTO> summaries = mongoTemplate
+            .aggregate(Aggregation.newAggregation(Intent.class, operations), IntentSummaryDTO.class)
+            .getMappedResults();
+        return new PageImpl<>(summaries, pageable, mongoTemplate.count(new Query(), Intent.class));
+    }
+
+    /**
+     * Get the size of an array field, 0 when the field is missing.
+     */
+    private static AggregationExpression sizeOf(String field) {
+        return ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull(field).then(Collections.emptyList()));
+    }
+
+    /**
+     *  Get a slice of the intents ordered by id, starting right after a given id.
+     *
+     *  @param afterId the id of the last intent of the previous slice, or null for the first slice
+     *  @param size the maximum number of intents in the slice
+     *  @return the slice of entities
+     */
+    @Override
+    public Slice<IntentDTO> findAllAfter(String afterId, int size) {
+        return findAllAfter(afterId, size, null);
+    }
+
+    /**
+     *  Get a slice of the intents ordered by id, starting right after a given id, with a projection reading only
+     *  some of their fields.
+     *
+     *  @param afterId the id of the last intent of the previous slice, or null for the first slice
+     *  @param size the maximum number of intents in the slice
+     *  @param fields the fields to read, or null for all of them; the id is always read
+     *  @return the slice of entities
+     */
+    @Override
+    public Slice<IntentDTO> findAllAfter(String afterId, int size, Set<String> fields) {
+        log.debug("Request to get Intents after id : {}", afterId);
+        // Fetch one extra document to know if there is a next slice, without counting
+        Query query = project(new Query().with(new Sort(Sort.Direction.ASC, "_id")).limit(size + 1), fields);
+        if (afterId != null) {
+            query.addCriteria(where("_id").gt(new ObjectId(afterId)));
+        }
+        List<Intent> intents = mongoTemplate.find(query, Intent.class);
+        boolean hasNext = intents.size() > size;
+        if (hasNext) {
+            intents = intents.subList(0, size);
+        }
+        return new SliceImpl<>(intentMapper.toDto(intents), new PageRequest(0, size), hasNext);
+    }
+
+    /**
+     *  Stream all the intents from a database cursor, without loading the collection into memory.
+     *
+     *  @param consumer the consumer of every intent
+     */
+    @Override
+    public void streamAll(Consumer<IntentDTO> consumer) {
+        log.debug("Request to stream all Intents");
+        try (CloseableIterator<Intent> intents = mongoTemplate.stream(new Query(), Intent.class)) {
+            while (intents.hasNext()) {
+                consumer.accept(intentMapper.toDto(intents.next()));
+            }
+        }
+    }
+
+    /**
+     *  Get the intents usable in any of the given conversation contexts, from the in-memory context partitions.
+     *
+     *  @param contexts the conversation contexts, may be empty
+     *  @return the list of entities
+     */
+    @Override
+    public List<IntentDTO> findAllByContexts(Collection<String> contexts) {
+        log.debug("Request to get Intents usable in contexts : {}", contexts);
+        return intentMapper.toDto(intentMatchingService.findUsable(contexts));
+    }
+
+    /**
+     *  Get one intent by tag, through a bounded cache invalidated by every save and delete.
      *
      *  @param tag the id of the entity
      *  @return the entity
@@ -65,10 +326,38 @@ public class IntentServiceImpl implements IntentService{
     @Override
     public IntentDTO findOne(String tag) {
         log.debug("Request to get Intent : {}", tag);
-        Intent intent = intentRepository.findByTag(tag);
+        Intent intent = intentCache.get(tag, intentRepository::findByTag);
+        return intentMapper.toDto(intent);
+    }
+
+    /**
+     *  Get one intent by tag, with a projection reading only some of its fields. The cache, holding whole
+     *  intents, is not used.
+     *
+     *  @param tag the id of the entity
+     *  @param fields the fields to read, or null for all of them; the id is always read
+     *  @return the entity
+     */
+    @Override
+    public IntentDTO findOne(String tag, Set<String> fields) {
+        if (fields == null) {
+            return findOne(tag);
+        }
+        log.debug("Request to get Intent : {} with fields : {}", tag, fields);
+        Intent intent = mongoTemplate.findOne(project(query(where("tag").is(tag)), fields), Intent.class);
         return intentMapper.toDto(intent);
     }
 
+    /**
+     * Restrict the fields read by a query, the id being always read.
+     */
+    private static Query project(Query query, Set<String> fields) {
+        if (fields != null) {
+            fields.forEach(query.fields()::include);
+        }
+        return query;
+    }
+
     /**
      *  Delete the  intent by id.
      *
@@ -77,6 +366,230 @@ public class IntentServiceImpl implements IntentService{
     @Override
     public void delete(String tag) {
         log.debug("Request to delete Intent : {}", tag);
-        intentRepository.deleteByTag(tag);
+        synchronized (corpusLock) {
+            intentRepository.deleteByTag(tag);
+            intentDeleted(tag);
+        }
+        intentChangePublisher.publish(tag, IntentChangeDTO.Operation.DELETE);
+    }
+
+    /**
+     *  Add a pattern to an intent with an $addToSet update, which only sends the pattern to the database.
+     *
+     *  @param tag the tag of the entity
+     *  @param pattern the pattern to add
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    @Override
+    public IntentDTO addPattern(String tag, String pattern) {
+        log.debug("Request to add a pattern to Intent : {}", tag);
+        return updateElements(tag, new Update().addToSet("patterns", pattern));
+    }
+
+    /**
+     *  Remove a pattern from an intent with a $pull update.
+     *
+     *  @param tag the tag of the entity
+     *  @param pattern the pattern to remove
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    @Override
+    public IntentDTO removePattern(String tag, String pattern) {
+        log.debug("Request to remove a pattern from Intent : {}", tag);
+        return updateElements(tag, new Update().pull("patterns", pattern));
+    }
+
+    /**
+     *  Append a response to an intent with a $push update, which only sends the response to the database.
+     *
+     *  @param tag the tag of the entity
+     *  @param response the response to append
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    @Override
+    public IntentDTO addResponse(String tag, String response) {
+        log.debug("Request to add a response to Intent : {}", tag);
+        return updateElements(tag, new Update().push("responses", response));
+    }
+
+    /**
+     *  Remove a response of an intent by index.
+     *
+     *  <p>
+     *  Mongo has no operator removing an array element by index, and a $pull of the value would also remove its
+     *  duplicates. The responses are read, and written back without the element in a single update guarded by
+     *  the responses read, which is retried if they changed meanwhile, so that concurrent removals of the same
+     *  index remove a single element.
+     *  </p>
+     *
+     *  @param tag the tag of the entity
+     *  @param index the index of the response
+     *  @return the updated entity, or null if there is no intent with this tag or no response at this index
+     *  @throws OptimisticLockingFailureException if the responses kept changing during the removal
+     */
+    @Override
+    public IntentDTO removeResponse(String tag, int index) {
+        log.debug("Request to remove response {} from Intent : {}", index, tag);
+        synchronized (corpusLock) {
+            for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+                Query read = query(where("tag").is(tag));
+                read.fields().include("responses");
+                Intent current = mongoTemplate.findOne(read, Intent.class);
+                if (current == null || current.getResponses() == null || index < 0
+                        || index >= current.getResponses().size()) {
+                    return null;
+                }
+                List<String> responses = new ArrayList<>(current.getResponses());
+                responses.remove(index);
+                IntentDTO updated = updateElements(tag,
+                    query(where("tag").is(tag).and("responses").is(current.getResponses())),
+                    new Update().set("responses", responses));
+                if (updated != null) {
+                    return updated;
+                }
+            }
+            throw new OptimisticLockingFailureException("The responses of Intent " + tag + " kept changing");
+        }
+    }
+
+    /**
+     *  Apply an update of array elements to an intent, in the database and in the in-memory views.
+     *
+     *  <p>
+     *  The update only carries the changed elements, and is applied atomically by a findAndModify, so that
+     *  concurrent edits of other elements are not lost. The in-memory views are updated with the document it
+     *  returns, as modified by the database, rather than by replaying the change on the corpus snapshot, which
+     *  may not have received the changes of other instances yet.
+     *  </p>
+     *
+     *  @param tag the tag of the entity
+     *  @param update the update of the array elements
+     *  @return the updated entity, or null if there is no intent with this tag
+     */
+    private IntentDTO updateElements(String tag, Update update) {
+        return updateElements(tag, query(where("tag").is(tag)), update);
+    }
+
+    /**
+     *  Apply an update of array elements to the intent matching a query, which may guard the update.
+     *
+     *  @param tag the tag of the entity
+     *  @param query the query of the entity, on its tag
+     *  @param update the update of the array elements
+     *  @return the updated entity, or null if no intent matches the query
+     */
+    private IntentDTO updateElements(String tag, Query query, Update update) {
+        synchronized (corpusLock) {
+            Intent intent = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Intent.class);
+            if (intent == null) {
+                return null;
+            }
+            intentSaved(intent);
+            intentChangePublisher.publish(tag, IntentChangeDTO.Operation.SAVE);
+            return intentMapper.toDto(intent);
+        }
+    }
+
+    /**
+     *  Refresh the in-memory views of the "tag" intent from the database.
+     *
+     *  <p>
+     *  The current state of the database is applied whatever the kind of change, so that
+     *  changes received out of order still converge. It is read under the lock of the writes of this instance,
+     *  so that it cannot overwrite a newer local write.
+     *  </p>
+     *
+     *  @param tag the tag of the entity
+     */
+    @Override
+    public void refresh(String tag) {
+        log.debug("Request to refresh Intent : {}", tag);
+        synchronized (corpusLock) {
+            Intent intent = intentRepository.findByTag(tag);
+            if (intent == null) {
+                intentDeleted(tag);
+            } else {
+                intentSaved(intent);
+            }
+        }
+    }
+
+    /**
+     *  Get the current snapshot of all the intents, without any lock or database access.
+     *
+     *  @return the snapshot, whose version is incremented by every change
+     */
+    @Override
+    public IntentCorpusSnapshot getCorpus() {
+        return corpus;
+    }
+
+    /**
+     *  Replace the snapshot of all the intents by a new version loaded from the database, and empty the cache,
+     *  which may hold intents changed in the database without going through this service.
+     *
+     *  <p>
+     *  This is the only full read of the collection: the indexes of the IntentMatchingService are reloaded from
+     *  the new snapshot.
+     *  </p>
+     */
+    @Override
+    @PostConstruct
+    public void reloadCorpus() {
+        log.debug("Request to reload the Intent corpus");
+        synchronized (corpusLock) {
+            intentCache.invalidateAll();
+            corpus = corpus.withAll(intentRepository.findAll());
+            intentMatchingService.reload(corpus);
+        }
+        spellCorrectionService.scheduleRebuild(corpus);
+    }
+
+    private void intentSaved(Intent intent) {
+        intentsSaved(Collections.singletonList(intent));
+    }
+
+    private void intentsSaved(Collection<Intent> intents) {
+        synchronized (corpusLock) {
+            for (Intent intent : intents) {
+                intentCache.invalidate(intent.getTag());
+                // an intent may have been cached under its previous tag
+                String previousTag = corpus.getTag(intent.getId());
+                if (previousTag != null && !previousTag.equals(intent.getTag())) {
+                    intentCache.invalidate(previousTag);
+                }
+            }
+            corpus = corpus.withSaved(intents);
+        }
+        intentMatchingService.intentsSaved(intents, corpus);
+        spellCorrectionService.scheduleRebuild(corpus);
+    }
+
+    private static Update replacementOf(Intent intent) {
+        Update update = new Update();
+        setOrUnset(update, "tag", intent.getTag());
+        setOrUnset(update, "patterns", intent.getPatterns());
+        setOrUnset(update, "responses", intent.getResponses());
+        setOrUnset(update, "context_set", intent.getContext_set());
+        setOrUnset(update, "context_filter", intent.getContext_filter());
+        return update;
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value == null) {
+            update.unset(field);
+        } else {
+            update.set(field, value);
+        }
+    }
+
+    private void intentDeleted(String tag) {
+        intentCache.invalidate(tag);
+        synchronized (corpusLock) {
+            corpus = corpus.withDeleted(tag);
+        }
+        intentMatchingService.intentDeleted(tag, corpus);
+        spellCorrectionService.scheduleRebuild(corpus);
     }
 }
@@ -0,0 +1,172 @@
+package com.mycompany.myapp.service.matching;
+
+/**
+ * Levenshtein distance between a fixed pattern and many texts, giving up as soon as the distance
+ * exceeds a bound.
+ *
+ * <p>
+ * Patterns of up to 64 characters use the bit-parallel algorithm of Myers, in the formulation of
+ * Hyyrö for the distance between whole strings: one column of the dynamic programming matrix is held
+ * in two {@code long} bit vectors, so every character of the text costs a handful of word operations.
+ * Longer patterns fall back to the classic dynamic programming, which stops once a whole row exceeds
+ * the bound.
+ * </p>
+ * <p>
+ * An instance is reused for many patterns and is not thread-safe; every thread should use its own.
+ * </p>
+ */
+public final class BoundedLevenshtein {
+
+    private static final int WORD_SIZE = 64;
+
+    private static final int DIRECT_CHARS = 256;
+
+    /**
+     * Match masks of the pattern characters below {@link #DIRECT_CHARS}, by character.
+     */
+    private final long[] directMasks = new long[DIRECT_CHARS];
+
+    /**
+     * Match masks of the other pattern characters, searched linearly: there are at most 64 of them.
+     */
+    private final char[] otherChars = new char[WORD_SIZE];
+
+    private final long[] otherMasks = new long[WORD_SIZE];
+
+    private int otherCount;
+
+    private CharSequence pattern = "";
+
+    private int[] previousRow = new int[64];
+
+    private int[] currentRow = new int[64];
+
+    /**
+     * Set the pattern the next texts are compared with.
+     */
+    public void setPattern(CharSequence pattern) {
+        for (int i = 0; i < Math.min(this.pattern.length(), WORD_SIZE); i++) {
+            char c = this.pattern.charAt(i);
+            if (c < DIRECT_CHARS) {
+                directMasks[c] = 0;
+            }
+        }
+        otherCount = 0;
+        this.pattern = pattern;
+        if (pattern.length() > WORD_SIZE) {
+            return;
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c < DIRECT_CHARS) {
+                directMasks[c] |= 1L << i;
+            } else {
+                int other = indexOfOther(c);
+                if (other < 0) {
+                    other = otherCount++;
+                    otherChars[other] = c;
+                    otherMasks[other] = 0;
+                }
+                otherMasks[other] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Compute the distance between the pattern and a text, if it does not exceed a bound.
+     *
+     * @param text the text to compare with the pattern
+     * @param maxDistance the bound
+     * @return the distance, or {@code maxDistance + 1} if the distance is greater than the bound
+     */
+    public int distance(CharSequence text, int maxDistance) {
+        int m = pattern.length();
+        int n = text.length();
+        if (Math.abs(m - n) > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (m == 0) {
+            return n;
+        }
+        return m <= WORD_SIZE ? bitParallel(text, maxDistance) : dynamic(text, maxDistance);
+    }
+
+    private int bitParallel(CharSequence text, int maxDistance) {
+        int n = text.length();
+        long last = 1L << (pattern.length() - 1);
+        // vertical deltas of the current column: all +1 for the first column
+        long positive = -1L;
+        long negative = 0L;
+        int score = pattern.length();
+        for (int j = 0; j < n; j++) {
+            long match = maskOf(text.charAt(j));
+            long vertical = match | negative;
+            long horizontal = (((match & positive) + positive) ^ positive) | match;
+            long horizontalPositive = negative | ~(horizontal | positive);
+            long horizontalNegative = positive & horizontal;
+            if ((horizontalPositive & last) != 0) {
+                score++;
+            } else if ((horizontalNegative & last) != 0) {
+                score--;
+            }
+            // the first row of the matrix grows by one at every column
+            horizontalPositive = (horizontalPositive << 1) | 1;
+            horizontalNegative <<= 1;
+            positive = horizontalNegative | ~(vertical | horizontalPositive);
+            negative = horizontalPositive & vertical;
+            // the distance decreases by at most one per remaining character of the text
+            if (score - (n - j - 1) > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return score <= maxDistance ? score : maxDistance + 1;
+    }
+
+    private int dynamic(CharSequence text, int maxDistance) {
+        int m = pattern.length();
+        int n = text.length();
+        if (n + 1 > previousRow.length) {
+            previousRow = new int[Math.max(n + 1, previousRow.length * 2)];
+            currentRow = new int[previousRow.length];
+        }
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            char c = pattern.charAt(i - 1);
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= n; j++) {
+                int substitution = previous[j - 1] + (c == text.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[n] <= maxDistance ? previous[n] : maxDistance + 1;
+    }
+
+    private long maskOf(char c) {
+        if (c < DIRECT_CHARS) {
+            return directMasks[c];
+        }
+        int other = indexOfOther(c);
+        return other >= 0 ? otherMasks[other] : 0;
+    }
+
+    private int indexOfOther(char c) {
+        for (int i = 0; i < otherCount; i++) {
+            if (otherChars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
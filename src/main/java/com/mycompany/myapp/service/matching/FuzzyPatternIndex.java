@@ -0,0 +1,461 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentFuzzyMatchDTO;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the normalized patterns of the intents, finding the patterns within a small edit
+ * distance of a query.
+ *
+ * <p>
+ * Every distinct normalized pattern is an entry, indexed by its character trigrams; the text is padded
+ * with two markers on both sides so that its first and last characters are in as many trigrams as the
+ * others. By the q-gram lemma, two texts of lengths m and n within an edit distance k share at least
+ * {@code max(m, n) + 2 - 3k} trigrams. Counting the trigrams shared with the query through the postings
+ * therefore only leaves a few candidates, whose distance is then verified by a {@link BoundedLevenshtein}.
+ * Queries too short for the lemma to exclude anything, up to 3k - 2 characters, are only compared with
+ * the entries whose length is within k of theirs, found in buckets of the entries by length.
+ * </p>
+ * <p>
+ * Saving or removing an intent only updates the postings of the patterns it adds or drops. Writers
+ * take the write lock, lookups take the read lock.
+ * </p>
+ */
+public class FuzzyPatternIndex {
+
+    private static final int GRAM = 3;
+
+    private static final char PADDING = '\u0000';
+
+    private static final Comparator<IntentFuzzyMatchDTO> CLOSEST_FIRST = Comparator
+        .comparingInt(IntentFuzzyMatchDTO::getDistance)
+        .thenComparing(IntentFuzzyMatchDTO::getPattern);
+
+    /**
+     * Buffers of the lookup threads.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Tag of every intent, by id.
+     */
+    private final Map<String, String> tags = new HashMap<>();
+
+    /**
+     * Id of every intent, by tag.
+     */
+    private final Map<String, String> keys = new HashMap<>();
+
+    /**
+     * Distinct normalized patterns of every intent, by tag.
+     */
+    private final Map<String, Set<String>> tagPatterns = new HashMap<>();
+
+    private final Map<String, Integer> entryIds = new HashMap<>();
+
+    private final BitSet freeEntries = new BitSet();
+
+    private int entryCount;
+
+    private String[] entries = new String[64];
+
+    /**
+     * Tags of the intents having every entry.
+     */
+    private String[][] entryTags = new String[64][];
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * The entries by length.
+     */
+    private EntryList[] lengthBuckets = new EntryList[0];
+
+    /**
+     * Replace the whole content of the index.
+     *
+     * @param corpus all the intents
+     */
+    public void reload(Iterable<Intent> corpus) {
+        lock.writeLock().lock();
+        try {
+            tags.clear();
+            keys.clear();
+            tagPatterns.clear();
+            entryIds.clear();
+            freeEntries.clear();
+            entryCount = 0;
+            Arrays.fill(entries, null);
+            Arrays.fill(entryTags, null);
+            postings.clear();
+            lengthBuckets = new EntryList[0];
+            for (Intent intent : corpus) {
+                put(intent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a batch of intents to the index, or replace their previous versions.
+     *
+     * @param saved the saved intents
+     */
+    public void putAll(Collection<Intent> saved) {
+        lock.writeLock().lock();
+        try {
+            for (Intent intent : saved) {
+                put(intent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the intent having the given tag.
+     *
+     * @param tag the tag of the deleted intent
+     */
+    public void remove(String tag) {
+        lock.writeLock().lock();
+        try {
+            removeTag(tag);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of distinct normalized patterns.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entryIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the patterns closest to a query.
+     *
+     * @param query the text to look up, which is normalized like the patterns
+     * @param maxDistance the maximum Levenshtein distance between the normalized query and a pattern
+     * @param limit the maximum number of patterns to return
+     * @return the patterns with their distance and tags, closest first
+     */
+    public List<IntentFuzzyMatchDTO> find(String query, int maxDistance, int limit) {
+        String normalized = TextNormalizer.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Scratch scratch = SCRATCH.get();
+        scratch.levenshtein.setPattern(normalized);
+        List<IntentFuzzyMatchDTO> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int length = normalized.length();
+            if (length + 2 - GRAM * maxDistance <= 0) {
+                int maxLength = Math.min(length + maxDistance, lengthBuckets.length - 1);
+                for (int entryLength = Math.max(1, length - maxDistance); entryLength <= maxLength; entryLength++) {
+                    EntryList bucket = lengthBuckets[entryLength];
+                    for (int i = 0; bucket != null && i < bucket.size; i++) {
+                        verify(scratch, bucket.entries[i], maxDistance, matches);
+                    }
+                }
+            } else {
+                int[] counts = scratch.counts(entryCount);
+                int[] touched = scratch.touched(entryCount);
+                int touchedCount = 0;
+                long[] grams = scratch.grams(length + GRAM - 1);
+                int gramCount = grams(normalized, grams);
+                Arrays.sort(grams, 0, gramCount);
+                for (int g = 0; g < gramCount; ) {
+                    long gram = grams[g];
+                    int occurrences = 0;
+                    for (; g < gramCount && grams[g] == gram; g++) {
+                        occurrences++;
+                    }
+                    Postings gramPostings = postings.get(gram);
+                    if (gramPostings == null) {
+                        continue;
+                    }
+                    for (int p = 0; p < gramPostings.size; p++) {
+                        int entry = gramPostings.entries[p];
+                        if (counts[entry] == 0) {
+                            touched[touchedCount++] = entry;
+                        }
+                        // the shared trigrams are counted as multisets
+                        counts[entry] += Math.min(occurrences, gramPostings.counts[p]);
+                    }
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    int entry = touched[i];
+                    int shared = counts[entry];
+                    counts[entry] = 0;
+                    if (shared >= Math.max(length, entries[entry].length()) + 2 - GRAM * maxDistance) {
+                        verify(scratch, entry, maxDistance, matches);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(CLOSEST_FIRST);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private void verify(Scratch scratch, int entry, int maxDistance, List<IntentFuzzyMatchDTO> matches) {
+        String text = entries[entry];
+        if (text == null) {
+            return;
+        }
+        int distance = scratch.levenshtein.distance(text, maxDistance);
+        if (distance <= maxDistance) {
+            matches.add(new IntentFuzzyMatchDTO(text, distance, Arrays.asList(entryTags[entry].clone())));
+        }
+    }
+
+    private void put(Intent intent) {
+        String key = intent.getId() != null ? intent.getId() : intent.getTag();
+        String previousTag = tags.get(key);
+        if (previousTag != null) {
+            removeTag(previousTag);
+        }
+        // tags are unique: another intent with the same tag is a stale version which was deleted
+        removeTag(intent.getTag());
+        tags.put(key, intent.getTag());
+        keys.put(intent.getTag(), key);
+        Set<String> patterns = new LinkedHashSet<>();
+        if (intent.getPatterns() != null) {
+            for (String pattern : intent.getPatterns()) {
+                String normalized = TextNormalizer.normalize(pattern);
+                if (!normalized.isEmpty()) {
+                    patterns.add(normalized);
+                }
+            }
+        }
+        tagPatterns.put(intent.getTag(), patterns);
+        for (String pattern : patterns) {
+            Integer entry = entryIds.get(pattern);
+            if (entry == null) {
+                entry = addEntry(pattern);
+            }
+            String[] entryTagArray = entryTags[entry];
+            entryTagArray = Arrays.copyOf(entryTagArray, entryTagArray.length + 1);
+            entryTagArray[entryTagArray.length - 1] = intent.getTag();
+            entryTags[entry] = entryTagArray;
+        }
+    }
+
+    private void removeTag(String tag) {
+        String key = keys.remove(tag);
+        if (key != null) {
+            tags.remove(key);
+        }
+        Set<String> patterns = tagPatterns.remove(tag);
+        if (patterns == null) {
+            return;
+        }
+        for (String pattern : patterns) {
+            int entry = entryIds.get(pattern);
+            String[] entryTagArray = entryTags[entry];
+            if (entryTagArray.length == 1) {
+                removeEntry(entry);
+            } else {
+                String[] remaining = new String[entryTagArray.length - 1];
+                int r = 0;
+                for (String entryTag : entryTagArray) {
+                    if (!entryTag.equals(tag)) {
+                        remaining[r++] = entryTag;
+                    }
+                }
+                entryTags[entry] = remaining;
+            }
+        }
+    }
+
+    private int addEntry(String pattern) {
+        int entry = freeEntries.nextSetBit(0);
+        if (entry >= 0) {
+            freeEntries.clear(entry);
+        } else {
+            if (entryCount == entries.length) {
+                entries = Arrays.copyOf(entries, entryCount * 2);
+                entryTags = Arrays.copyOf(entryTags, entryCount * 2);
+            }
+            entry = entryCount++;
+        }
+        entries[entry] = pattern;
+        entryTags[entry] = new String[0];
+        entryIds.put(pattern, entry);
+        if (pattern.length() >= lengthBuckets.length) {
+            lengthBuckets = Arrays.copyOf(lengthBuckets, pattern.length() + 1);
+        }
+        if (lengthBuckets[pattern.length()] == null) {
+            lengthBuckets[pattern.length()] = new EntryList();
+        }
+        lengthBuckets[pattern.length()].add(entry);
+        long[] grams = new long[pattern.length() + GRAM - 1];
+        int gramCount = grams(pattern, grams);
+        Arrays.sort(grams, 0, gramCount);
+        for (int g = 0; g < gramCount; ) {
+            long gram = grams[g];
+            int occurrences = 0;
+            for (; g < gramCount && grams[g] == gram; g++) {
+                occurrences++;
+            }
+            postings.computeIfAbsent(gram, key -> new Postings()).add(entry, occurrences);
+        }
+        return entry;
+    }
+
+    private void removeEntry(int entry) {
+        String pattern = entries[entry];
+        long[] grams = new long[pattern.length() + GRAM - 1];
+        int gramCount = grams(pattern, grams);
+        for (int g = 0; g < gramCount; g++) {
+            Postings gramPostings = postings.get(grams[g]);
+            if (gramPostings != null && gramPostings.remove(entry) && gramPostings.size == 0) {
+                postings.remove(grams[g]);
+            }
+        }
+        entryIds.remove(pattern);
+        lengthBuckets[pattern.length()].remove(entry);
+        entries[entry] = null;
+        entryTags[entry] = null;
+        freeEntries.set(entry);
+    }
+
+    /**
+     * Write the padded trigrams of a text, each packed into a long.
+     *
+     * @return the number of trigrams, which is the length of the text plus two
+     */
+    private static int grams(String text, long[] grams) {
+        int length = text.length();
+        int count = length + GRAM - 1;
+        for (int g = 0; g < count; g++) {
+            long gram = 0;
+            for (int c = g - (GRAM - 1); c <= g; c++) {
+                gram = (gram << 16) | (c >= 0 && c < length ? text.charAt(c) : PADDING);
+            }
+            grams[g] = gram;
+        }
+        return count;
+    }
+
+    /**
+     * The entries having a trigram, with the number of occurrences of the trigram in each of them.
+     */
+    private static final class Postings {
+
+        int[] entries = new int[4];
+
+        int[] counts = new int[4];
+
+        int size;
+
+        void add(int entry, int count) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            entries[size] = entry;
+            counts[size++] = count;
+        }
+
+        /**
+         * Remove an entry, moving the last one into its place.
+         *
+         * @return true if the entry was found
+         */
+        boolean remove(int entry) {
+            for (int p = 0; p < size; p++) {
+                if (entries[p] == entry) {
+                    size--;
+                    entries[p] = entries[size];
+                    counts[p] = counts[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A list of entries, in no particular order.
+     */
+    private static final class EntryList {
+
+        int[] entries = new int[4];
+
+        int size;
+
+        void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+
+        /**
+         * Remove an entry, moving the last one into its place.
+         */
+        void remove(int entry) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry) {
+                    entries[i] = entries[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The reusable buffers of one lookup thread.
+     */
+    private static final class Scratch {
+
+        final BoundedLevenshtein levenshtein = new BoundedLevenshtein();
+
+        /**
+         * Shared trigram counts by entry, all back to zero between two lookups.
+         */
+        private int[] counts = new int[64];
+
+        private int[] touched = new int[64];
+
+        private long[] grams = new long[64];
+
+        int[] counts(int capacity) {
+            if (capacity > counts.length) {
+                counts = new int[Math.max(capacity, counts.length * 2)];
+            }
+            return counts;
+        }
+
+        int[] touched(int capacity) {
+            if (capacity > touched.length) {
+                touched = new int[Math.max(capacity, touched.length * 2)];
+            }
+            return touched;
+        }
+
+        long[] grams(int capacity) {
+            if (capacity > grams.length) {
+                grams = new long[Math.max(capacity, grams.length * 2)];
+            }
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory partition of the intents by context filter.
+ *
+ * <p>
+ * Every intent gets an ordinal, and each distinct context_filter value maps to the {@link BitSet} of
+ * the ordinals of the intents having it; one more bit set holds the intents without filter. The
+ * intents usable in a set of contexts are then the union of a few bit sets.
+ * </p>
+ * <p>
+ * Ordinals of removed intents are reused, so the bit sets stay as small as the corpus. Writers take
+ * the write lock and only change the bits of the intents they save or remove.
+ * </p>
+ */
+public class IntentContextPartitions {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ordinal of every intent, by id.
+     */
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    /**
+     * Ordinal of every intent, by tag.
+     */
+    private final Map<String, Integer> tagOrdinals = new HashMap<>();
+
+    private Intent[] intents = new Intent[64];
+
+    private final BitSet freeOrdinals = new BitSet();
+
+    private int ordinalCount;
+
+    private final BitSet unfiltered = new BitSet();
+
+    private final Map<String, BitSet> partitions = new HashMap<>();
+
+    /**
+     * Replace the whole content of the partitions.
+     *
+     * @param corpus all the intents
+     */
+    public void reload(Iterable<Intent> corpus) {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            tagOrdinals.clear();
+            Arrays.fill(intents, null);
+            freeOrdinals.clear();
+            ordinalCount = 0;
+            unfiltered.clear();
+            partitions.clear();
+            for (Intent intent : corpus) {
+                put(intent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a batch of intents to the partitions, or move their previous versions to their new partition.
+     *
+     * @param saved the saved intents
+     */
+    public void putAll(Collection<Intent> saved) {
+        lock.writeLock().lock();
+        try {
+            for (Intent intent : saved) {
+                put(intent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the intent having the given tag.
+     *
+     * @param tag the tag of the deleted intent
+     */
+    public void remove(String tag) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = tagOrdinals.get(tag);
+            if (ordinal != null) {
+                release(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the intents usable in any of the given contexts: the intents without filter, and the intents
+     * whose filter is one of the contexts.
+     *
+     * @param contexts the contexts, may be empty
+     * @return the intents, by ordinal
+     */
+    public List<Intent> findUsable(Collection<String> contexts) {
+        lock.readLock().lock();
+        try {
+            BitSet usable = (BitSet) unfiltered.clone();
+            for (String context : contexts) {
+                BitSet partition = partitions.get(context);
+                if (partition != null) {
+                    usable.or(partition);
+                }
+            }
+            return collect(usable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Intent intent) {
+        String key = key(intent);
+        Integer ordinal = ordinals.get(key);
+        if (ordinal != null) {
+            unpartition(ordinal);
+            tagOrdinals.remove(intents[ordinal].getTag(), ordinal);
+        } else {
+            ordinal = nextOrdinal();
+            ordinals.put(key, ordinal);
+        }
+        // tags are unique: another intent with the same tag is a stale version which was deleted
+        Integer stale = tagOrdinals.put(intent.getTag(), ordinal);
+        if (stale != null && !stale.equals(ordinal)) {
+            release(stale);
+        }
+        intents[ordinal] = intent;
+        partitionOf(intent.getContext_filter(), true).set(ordinal);
+    }
+
+    private void release(int ordinal) {
+        Intent intent = intents[ordinal];
+        unpartition(ordinal);
+        ordinals.remove(key(intent));
+        tagOrdinals.remove(intent.getTag(), ordinal);
+        intents[ordinal] = null;
+        freeOrdinals.set(ordinal);
+    }
+
+    private void unpartition(int ordinal) {
+        String filter = intents[ordinal].getContext_filter();
+        BitSet partition = partitionOf(filter, false);
+        if (partition != null) {
+            partition.clear(ordinal);
+            if (partition != unfiltered && partition.isEmpty()) {
+                partitions.remove(filter);
+            }
+        }
+    }
+
+    private static String key(Intent intent) {
+        return intent.getId() != null ? intent.getId() : intent.getTag();
+    }
+
+    private int nextOrdinal() {
+        int ordinal = freeOrdinals.nextSetBit(0);
+        if (ordinal >= 0) {
+            freeOrdinals.clear(ordinal);
+            return ordinal;
+        }
+        if (ordinalCount == intents.length) {
+            intents = Arrays.copyOf(intents, intents.length * 2);
+        }
+        return ordinalCount++;
+    }
+
+    private BitSet partitionOf(String filter, boolean create) {
+        if (filter == null || filter.isEmpty()) {
+            return unfiltered;
+        }
+        return create ? partitions.computeIfAbsent(filter, f -> new BitSet(ordinalCount)) : partitions.get(filter);
+    }
+
+    private List<Intent> collect(BitSet ordinalSet) {
+        List<Intent> result = new ArrayList<>(ordinalSet.cardinality());
+        for (int ordinal = ordinalSet.nextSetBit(0); ordinal >= 0; ordinal = ordinalSet.nextSetBit(ordinal + 1)) {
+            result.add(intents[ordinal]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,505 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentIndexStatsDTO;
+import com.mycompany.myapp.service.dto.IntentMatchDTO;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory inverted index of the normalized patterns of every intent.
+ *
+ * <p>
+ * Tokens are given dense ids by a {@link TokenVocabulary} built from all the indexed patterns. Every
+ * pattern gets an ordinal, and the patterns of one intent get consecutive ordinals. Each token id
+ * maps to the sorted {@code int[]} of the ordinals of the patterns containing it, and two parallel
+ * {@code int[]} give the owning intent ordinal and the token count of every pattern. Matching an
+ * utterance merges the postings of its tokens, so only the patterns sharing a token with it are
+ * ever visited.
+ * </p>
+ * <p>
+ * Readers never lock. Writers are serialized; they only append new ordinals and never modify a
+ * postings array once it has been published, they replace it. Removed patterns are tombstoned with
+ * an intent ordinal of -1, and the whole index is compacted once tombstones outnumber live patterns.
+ * </p>
+ */
+public class IntentMatchIndex {
+
+    private static final Comparator<IntentMatchDTO> WORST_FIRST = Comparator
+        .comparingDouble(IntentMatchDTO::getScore)
+        .thenComparing(IntentMatchDTO::getTag, Comparator.reverseOrder());
+
+    private static final int MIN_DEAD_PATTERNS_BEFORE_COMPACTION = 1024;
+
+    /**
+     * Buffers of the matching threads, so that matching allocates nothing per token.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private volatile Table table = Table.build(new TokenVocabulary(), Collections.emptyList());
+
+    /**
+     * Writer-side view of the indexed intents, by id. Only accessed while holding the lock.
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Replace the whole content of the index.
+     *
+     * @param corpus all the intents to index
+     */
+    public synchronized void reload(Iterable<Intent> corpus) {
+        // a new vocabulary drops the tokens of the patterns which were removed since the last reload
+        TokenVocabulary vocabulary = new TokenVocabulary();
+        Tokenizer tokenizer = new Tokenizer();
+        entries.clear();
+        for (Intent intent : corpus) {
+            Entry entry = new Entry(intent, vocabulary, tokenizer);
+            entries.put(entry.key, entry);
+        }
+        table = Table.build(vocabulary, entries.values());
+    }
+
+    /**
+     * Add an intent to the index, or replace its previous version.
+     *
+     * @param intent the saved intent
+     */
+    public synchronized void index(Intent intent) {
+        indexAll(Collections.singletonList(intent));
+    }
+
+    /**
+     * Add a batch of intents to the index, or replace their previous versions.
+     *
+     * <p>
+     * The postings of a token are copied once for the whole batch, instead of once per intent.
+     * </p>
+     *
+     * @param intents the saved intents
+     */
+    public synchronized void indexAll(Collection<Intent> intents) {
+        Map<String, Entry> batch = new LinkedHashMap<>();
+        Tokenizer tokenizer = new Tokenizer();
+        for (Intent intent : intents) {
+            Entry entry = new Entry(intent, table.vocabulary, tokenizer);
+            Entry previous = entries.put(entry.key, entry);
+            // a previous version coming from this same batch is not in the table yet
+            if (batch.put(entry.key, entry) == null && previous != null) {
+                table.remove(previous);
+            }
+        }
+        table.addAll(batch.values());
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove every indexed intent having the given tag.
+     *
+     * @param tag the tag of the deleted intent
+     */
+    public synchronized void remove(String tag) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (tag.equals(entry.tag)) {
+                table.remove(entry);
+                iterator.remove();
+            }
+        }
+        compactIfNeeded();
+    }
+
+    public synchronized int size() {
+        return table.liveIntents;
+    }
+
+    /**
+     * Get the vocabulary giving the ids of the tokens of the indexed patterns.
+     */
+    public TokenVocabulary vocabulary() {
+        return table.vocabulary;
+    }
+
+    /**
+     * Find the intents whose patterns are the closest to an utterance.
+     *
+     * <p>
+     * An intent scores the cosine similarity between the utterance tokens and the tokens of
+     * its best pattern; intents sharing no token with the utterance are left out.
+     * </p>
+     *
+     * @param utterance the text to match
+     * @param limit the maximum number of matches to return
+     * @return the matches, best first
+     */
+    public List<IntentMatchDTO> match(String utterance, int limit) {
+        Table current = table;
+        Scratch scratch = SCRATCH.get();
+        int queryLength = scratch.tokenizer.tokenize(utterance, current.vocabulary, false);
+        if (queryLength == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Columns columns = current.columns;
+        AtomicReferenceArray<int[]> postings = current.postings;
+        int[] query = scratch.tokenizer.ids();
+        int[][] lists = scratch.lists(queryLength);
+        int listCount = 0;
+        for (int i = 0; i < queryLength; i++) {
+            // unknown tokens have negative ids, and ids added after this reader took the postings are skipped
+            int token = query[i];
+            int[] tokenPostings = token >= 0 && token < postings.length() ? postings.get(token) : null;
+            if (tokenPostings != null) {
+                lists[listCount++] = tokenPostings;
+            }
+        }
+        PriorityQueue<IntentMatchDTO> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        int[] cursors = scratch.cursors(listCount);
+        int currentIntent = -1;
+        double currentBest = 0;
+        while (true) {
+            int pattern = Integer.MAX_VALUE;
+            for (int i = 0; i < listCount; i++) {
+                if (cursors[i] < lists[i].length && lists[i][cursors[i]] < pattern) {
+                    pattern = lists[i][cursors[i]];
+                }
+            }
+            if (pattern == Integer.MAX_VALUE) {
+                break;
+            }
+            int common = 0;
+            for (int i = 0; i < listCount; i++) {
+                if (cursors[i] < lists[i].length && lists[i][cursors[i]] == pattern) {
+                    common++;
+                    cursors[i]++;
+                }
+            }
+            // postings may reference ordinals appended after this reader took its columns
+            if (pattern >= columns.patternIntent.length) {
+                continue;
+            }
+            int intent = columns.patternIntent[pattern];
+            if (intent < 0 || intent >= columns.intentTags.length) {
+                continue;
+            }
+            if (intent != currentIntent) {
+                offer(top, limit, columns.intentTags, currentIntent, currentBest);
+                currentIntent = intent;
+                currentBest = 0;
+            }
+            currentBest = Math.max(currentBest, common / Math.sqrt((double) queryLength * columns.patternLength[pattern]));
+        }
+        offer(top, limit, columns.intentTags, currentIntent, currentBest);
+        Arrays.fill(lists, 0, listCount, null);
+        List<IntentMatchDTO> matches = new ArrayList<>(top);
+        matches.sort(WORST_FIRST.reversed());
+        return matches;
+    }
+
+    /**
+     * Report the size of the index and an estimate of its heap footprint.
+     *
+     * @return the statistics of the index
+     */
+    public synchronized IntentIndexStatsDTO stats() {
+        Table current = table;
+        IntentIndexStatsDTO stats = new IntentIndexStatsDTO();
+        stats.setIntents(current.liveIntents);
+        stats.setPatterns(current.patternCount - current.deadPatterns);
+        stats.setDeadPatterns(current.deadPatterns);
+        int tokens = 0;
+        long postingsCount = 0;
+        long bytes = current.vocabulary.estimatedBytes() + MemoryEstimates.referenceArray(current.postings.length());
+        for (int token = 0; token < current.postings.length(); token++) {
+            int[] postings = current.postings.get(token);
+            if (postings != null) {
+                tokens++;
+                postingsCount += postings.length;
+                bytes += MemoryEstimates.intArray(postings.length);
+            }
+        }
+        stats.setTokens(tokens);
+        bytes += MemoryEstimates.intArray(current.columns.patternIntent.length);
+        bytes += MemoryEstimates.intArray(current.columns.patternLength.length);
+        bytes += MemoryEstimates.referenceArray(current.columns.intentTags.length);
+        for (Entry entry : entries.values()) {
+            bytes += MemoryEstimates.MAP_ENTRY + entry.estimatedBytes();
+        }
+        stats.setPostings(postingsCount);
+        stats.setEstimatedBytes(bytes);
+        return stats;
+    }
+
+    private void compactIfNeeded() {
+        Table current = table;
+        if (current.deadPatterns > MIN_DEAD_PATTERNS_BEFORE_COMPACTION
+            && current.deadPatterns > current.patternCount - current.deadPatterns) {
+            table = Table.build(current.vocabulary, entries.values());
+        }
+    }
+
+    private static void offer(PriorityQueue<IntentMatchDTO> top, int limit, String[] intentTags, int intent, double score) {
+        if (intent < 0 || score <= 0 || (top.size() == limit && score <= top.peek().getScore())) {
+            return;
+        }
+        String tag = intentTags[intent];
+        if (tag == null) {
+            return;
+        }
+        top.offer(new IntentMatchDTO(tag, score));
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    /**
+     * The per-ordinal columns of a table; replaced as a whole when they need to grow.
+     */
+    private static final class Columns {
+
+        final int[] patternIntent;
+
+        final int[] patternLength;
+
+        final String[] intentTags;
+
+        Columns(int patternCapacity, int intentCapacity) {
+            this.patternIntent = new int[patternCapacity];
+            this.patternLength = new int[patternCapacity];
+            this.intentTags = new String[intentCapacity];
+        }
+
+        Columns(Columns source, int patternCapacity, int intentCapacity) {
+            this.patternIntent = Arrays.copyOf(source.patternIntent, patternCapacity);
+            this.patternLength = Arrays.copyOf(source.patternLength, patternCapacity);
+            this.intentTags = Arrays.copyOf(source.intentTags, intentCapacity);
+        }
+    }
+
+    /**
+     * The published index. Counters are only read and written while holding the index lock.
+     */
+    private static final class Table {
+
+        final TokenVocabulary vocabulary;
+
+        /**
+         * Postings by token id, replaced as a whole when new token ids do not fit.
+         */
+        volatile AtomicReferenceArray<int[]> postings;
+
+        volatile Columns columns;
+
+        int patternCount;
+
+        int intentCount;
+
+        int deadPatterns;
+
+        int liveIntents;
+
+        private Table(TokenVocabulary vocabulary, int patternCapacity, int intentCapacity) {
+            this.vocabulary = vocabulary;
+            this.postings = new AtomicReferenceArray<>(Math.max(16, vocabulary.size()));
+            this.columns = new Columns(Math.max(16, patternCapacity), Math.max(16, intentCapacity));
+        }
+
+        /**
+         * Build a compact table in one pass, without the copy-on-write cost of {@link #addAll(Collection)}.
+         */
+        static Table build(TokenVocabulary vocabulary, Collection<Entry> entries) {
+            int patternTotal = 0;
+            for (Entry entry : entries) {
+                patternTotal += entry.patterns.length;
+            }
+            IntBuffer[] buffers = new IntBuffer[vocabulary.size()];
+            Table built = new Table(vocabulary, patternTotal, entries.size());
+            for (Entry entry : entries) {
+                int intent = built.intentCount++;
+                built.columns.intentTags[intent] = entry.tag;
+                entry.intentOrdinal = intent;
+                entry.firstPattern = built.patternCount;
+                for (int[] tokens : entry.patterns) {
+                    int pattern = built.patternCount++;
+                    built.columns.patternIntent[pattern] = intent;
+                    built.columns.patternLength[pattern] = tokens.length;
+                    for (int token : tokens) {
+                        if (buffers[token] == null) {
+                            buffers[token] = new IntBuffer();
+                        }
+                        buffers[token].add(pattern);
+                    }
+                }
+                built.liveIntents++;
+            }
+            for (int token = 0; token < buffers.length; token++) {
+                if (buffers[token] != null) {
+                    built.postings.set(token, buffers[token].toArray());
+                }
+            }
+            return built;
+        }
+
+        void addAll(Collection<Entry> added) {
+            int patternTotal = 0;
+            for (Entry entry : added) {
+                patternTotal += entry.patterns.length;
+            }
+            ensureCapacity(patternCount + patternTotal, intentCount + added.size());
+            Columns target = columns;
+            Map<Integer, IntBuffer> buffers = new HashMap<>();
+            for (Entry entry : added) {
+                int intent = intentCount++;
+                target.intentTags[intent] = entry.tag;
+                entry.intentOrdinal = intent;
+                entry.firstPattern = patternCount;
+                for (int[] tokens : entry.patterns) {
+                    int pattern = patternCount++;
+                    target.patternIntent[pattern] = intent;
+                    target.patternLength[pattern] = tokens.length;
+                    for (int token : tokens) {
+                        buffers.computeIfAbsent(token, key -> new IntBuffer()).add(pattern);
+                    }
+                }
+                liveIntents++;
+            }
+            AtomicReferenceArray<int[]> targetPostings = ensurePostingsCapacity(vocabulary.size());
+            // publishing the postings makes the column writes above visible to readers
+            for (Map.Entry<Integer, IntBuffer> buffer : buffers.entrySet()) {
+                int token = buffer.getKey();
+                targetPostings.set(token, buffer.getValue().appendTo(targetPostings.get(token)));
+            }
+        }
+
+        void remove(Entry entry) {
+            Columns target = columns;
+            target.intentTags[entry.intentOrdinal] = null;
+            for (int pattern = entry.firstPattern; pattern < entry.firstPattern + entry.patterns.length; pattern++) {
+                target.patternIntent[pattern] = -1;
+            }
+            deadPatterns += entry.patterns.length;
+            liveIntents--;
+        }
+
+        private AtomicReferenceArray<int[]> ensurePostingsCapacity(int tokenCapacity) {
+            AtomicReferenceArray<int[]> current = postings;
+            if (tokenCapacity <= current.length()) {
+                return current;
+            }
+            AtomicReferenceArray<int[]> grown = new AtomicReferenceArray<>(Math.max(tokenCapacity, current.length() * 2));
+            for (int token = 0; token < current.length(); token++) {
+                grown.set(token, current.get(token));
+            }
+            postings = grown;
+            return grown;
+        }
+
+        private void ensureCapacity(int patternCapacity, int intentCapacity) {
+            Columns current = columns;
+            if (patternCapacity > current.patternIntent.length || intentCapacity > current.intentTags.length) {
+                columns = new Columns(current,
+                    Math.max(patternCapacity, current.patternIntent.length * 2),
+                    Math.max(intentCapacity, current.intentTags.length * 2));
+            }
+        }
+    }
+
+    /**
+     * An indexed intent, as known by the writers.
+     */
+    private static final class Entry {
+
+        final String key;
+
+        final String tag;
+
+        /**
+         * The sorted, distinct token ids of every pattern.
+         */
+        final int[][] patterns;
+
+        int intentOrdinal;
+
+        int firstPattern;
+
+        Entry(Intent intent, TokenVocabulary vocabulary, Tokenizer tokenizer) {
+            this.key = intent.getId() != null ? intent.getId() : intent.getTag();
+            this.tag = intent.getTag();
+            List<String> source = intent.getPatterns() != null ? intent.getPatterns() : Collections.emptyList();
+            List<int[]> normalized = new ArrayList<>(source.size());
+            for (String pattern : source) {
+                int count = tokenizer.tokenize(pattern, vocabulary, true);
+                if (count > 0) {
+                    normalized.add(Arrays.copyOf(tokenizer.ids(), count));
+                }
+            }
+            this.patterns = normalized.toArray(new int[normalized.size()][]);
+        }
+
+        long estimatedBytes() {
+            long bytes = MemoryEstimates.OBJECT + MemoryEstimates.string(key) + MemoryEstimates.referenceArray(patterns.length);
+            for (int[] tokens : patterns) {
+                bytes += MemoryEstimates.intArray(tokens.length);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * The reusable buffers of one matching thread.
+     */
+    private static final class Scratch {
+
+        final Tokenizer tokenizer = new Tokenizer();
+
+        private int[][] lists = new int[16][];
+
+        private int[] cursors = new int[16];
+
+        int[][] lists(int capacity) {
+            if (capacity > lists.length) {
+                lists = new int[Math.max(capacity, lists.length * 2)][];
+            }
+            return lists;
+        }
+
+        int[] cursors(int capacity) {
+            if (capacity > cursors.length) {
+                cursors = new int[Math.max(capacity, cursors.length * 2)];
+            }
+            Arrays.fill(cursors, 0, capacity, 0);
+            return cursors;
+        }
+    }
+
+    /**
+     * A growable list of ints, only used while building a table.
+     */
+    private static final class IntBuffer {
+
+        private int[] values = new int[4];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        int[] appendTo(int[] postings) {
+            if (postings == null) {
+                return toArray();
+            }
+            int[] appended = Arrays.copyOf(postings, postings.length + size);
+            System.arraycopy(values, 0, appended, postings.length, size);
+            return appended;
+        }
+    }
+}
@@ -0,0 +1,663 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentRankDTO;
+import com.mycompany.myapp.service.dto.IntentRankTermDTO;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory BM25 ranking of the intents against an utterance.
+ *
+ * <p>
+ * Every intent is one document, made of the normalized tokens of all its patterns: the frequency of a
+ * term in an intent is the number of its patterns containing it, and the length of an intent is the sum
+ * of the distinct token counts of its patterns. Terms are the ids of a {@link TokenVocabulary}.
+ * </p>
+ * <p>
+ * All the statistics are held in primitive arrays indexed by term id or by intent ordinal: the postings
+ * of a term are two parallel {@code int[]} of intent ordinals and term frequencies, sorted by ordinal,
+ * whose length is the document frequency of the term. Saving or removing an intent only updates the postings of its own
+ * terms, and the total length from which the average length is derived; ordinals of removed intents
+ * are reused. Writers take the write lock, rankings take the read lock.
+ * </p>
+ */
+public class IntentRankIndex {
+
+    /**
+     * Saturation of the term frequency.
+     */
+    static final double K1 = 1.2;
+
+    /**
+     * Weight of the length normalization.
+     */
+    static final double B = 0.75;
+
+    /**
+     * Relative margin added to the score upper bounds of the pruned ranking, so that rounding errors
+     * never make a bound lower than a score.
+     */
+    private static final double BOUND_MARGIN = 1 + 1e-9;
+
+    private static final Comparator<IntentRankDTO> BEST_FIRST = Comparator
+        .comparingDouble(IntentRankDTO::getScore).reversed()
+        .thenComparing(IntentRankDTO::getTag);
+
+    /**
+     * Buffers of the ranking threads, so that ranking allocates nothing per posting.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    private TokenVocabulary vocabulary = new TokenVocabulary();
+
+    /**
+     * Ordinal of every intent, by id.
+     */
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    /**
+     * Ordinal of every intent, by tag.
+     */
+    private final Map<String, Integer> tagOrdinals = new HashMap<>();
+
+    private final BitSet freeOrdinals = new BitSet();
+
+    private int ordinalCount;
+
+    private int documentCount;
+
+    private long totalLength;
+
+    private String[] documentKeys = new String[64];
+
+    private String[] documentTags = new String[64];
+
+    private int[] documentLengths = new int[64];
+
+    /**
+     * Sorted term ids of every intent.
+     */
+    private int[][] documentTerms = new int[64][];
+
+    /**
+     * Frequency of every term of {@link #documentTerms}, in the same order.
+     */
+    private int[][] documentFrequencies = new int[64][];
+
+    /**
+     * Number of intents having every term, which is the used length of its postings.
+     */
+    private int[] postingSizes = new int[64];
+
+    /**
+     * Ordinals of the intents having every term, sorted.
+     */
+    private int[][] postingDocuments = new int[64][];
+
+    private int[][] postingFrequencies = new int[64][];
+
+    /**
+     * Highest frequency of every term, from which the upper bound of its contribution is computed.
+     */
+    private int[] postingMaxFrequencies = new int[64];
+
+    /**
+     * Length of the shortest intent having every term, from which the upper bound of its contribution is computed.
+     */
+    private int[] postingMinLengths = new int[64];
+
+    /**
+     * Replace the whole content of the index.
+     *
+     * @param corpus all the intents
+     */
+    public void reload(Iterable<Intent> corpus) {
+        lock.writeLock().lock();
+        try {
+            // a new vocabulary drops the terms of the patterns which were removed since the last reload
+            vocabulary = new TokenVocabulary();
+            ordinals.clear();
+            tagOrdinals.clear();
+            freeOrdinals.clear();
+            ordinalCount = 0;
+            documentCount = 0;
+            totalLength = 0;
+            Arrays.fill(documentKeys, null);
+            Arrays.fill(documentTags, null);
+            Arrays.fill(documentTerms, null);
+            Arrays.fill(documentFrequencies, null);
+            Arrays.fill(postingSizes, 0);
+            Arrays.fill(postingDocuments, null);
+            Arrays.fill(postingFrequencies, null);
+            Arrays.fill(postingMaxFrequencies, 0);
+            Arrays.fill(postingMinLengths, 0);
+            for (Intent intent : corpus) {
+                put(intent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a batch of intents to the index, or replace their previous versions.
+     *
+     * @param saved the saved intents
+     */
+    public void putAll(Collection<Intent> saved) {
+        lock.writeLock().lock();
+        try {
+            for (Intent intent : saved) {
+                put(intent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the intent having the given tag.
+     *
+     * @param tag the tag of the deleted intent
+     */
+    public void remove(String tag) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = tagOrdinals.get(tag);
+            if (ordinal != null) {
+                release(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed intents.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank the intents by BM25 relevance to an utterance, only fully scoring the intents which can still
+     * make the top ones.
+     *
+     * <p>
+     * Every distinct term of the utterance is counted once. The inverse document frequency is
+     * {@code ln(1 + (N - df + 0.5) / (df + 0.5))}, which is never negative, so that a term shared by most
+     * intents still adds a little to their score. Intents sharing no term with the utterance are left out.
+     * </p>
+     * <p>
+     * The postings are traversed intent by intent with MaxScore pruning. Every term has an upper bound of
+     * its contribution, computed from its highest frequency and the shortest intent having it. Once the
+     * top intents are found, the terms whose bounds add up to less than the worst of them are
+     * non-essential: an intent only having such terms cannot enter the top, so only the postings of the
+     * essential terms produce candidates, and a candidate whose bound cannot beat the worst top intent is
+     * skipped without looking at the other postings. Scores are summed in the same order as
+     * {@link #rankExhaustively(String, int, boolean)}, and bounds are inflated by a margin far above the
+     * rounding errors, so that both return exactly the same intents and scores.
+     * </p>
+     *
+     * @param utterance the text to rank the intents against
+     * @param limit the maximum number of intents to return
+     * @param explain true to detail the contribution of every term to the score of the returned intents
+     * @return the intents with their scores, best first
+     */
+    public List<IntentRankDTO> rank(String utterance, int limit, boolean explain) {
+        return rank(utterance, limit, explain, true);
+    }
+
+    /**
+     * Rank the intents by BM25 relevance to an utterance, scoring every intent sharing a term with it.
+     *
+     * @param utterance the text to rank the intents against
+     * @param limit the maximum number of intents to return
+     * @param explain true to detail the contribution of every term to the score of the returned intents
+     * @return the intents with their scores, best first
+     * @see #rank(String, int, boolean)
+     */
+    public List<IntentRankDTO> rankExhaustively(String utterance, int limit, boolean explain) {
+        return rank(utterance, limit, explain, false);
+    }
+
+    private List<IntentRankDTO> rank(String utterance, int limit, boolean explain, boolean pruned) {
+        Scratch scratch = SCRATCH.get();
+        lock.readLock().lock();
+        try {
+            int queryLength = scratch.tokenizer.tokenize(utterance, vocabulary, false);
+            if (queryLength == 0 || limit <= 0 || documentCount == 0) {
+                return Collections.emptyList();
+            }
+            Query query = scratch.query(queryLength);
+            query.averageLength = Math.max(1, (double) totalLength / documentCount);
+            int[] ids = scratch.tokenizer.ids();
+            for (int i = 0; i < queryLength; i++) {
+                int term = ids[i];
+                // unknown terms have negative ids
+                if (term >= 0 && term < postingSizes.length && postingSizes[term] > 0) {
+                    int n = query.termCount++;
+                    query.terms[n] = term;
+                    query.idfs[n] = idf(postingSizes[term]);
+                }
+            }
+            PriorityQueue<IntentRankDTO> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+            if (pruned) {
+                collectWithMaxScore(query, limit, explain, scratch, top);
+            } else {
+                collectExhaustively(query, limit, explain, scratch, top);
+            }
+            List<IntentRankDTO> ranks = new ArrayList<>(top);
+            ranks.sort(BEST_FIRST);
+            return ranks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score every intent term by term, accumulating the scores by intent ordinal.
+     */
+    private void collectExhaustively(Query query, int limit, boolean explain, Scratch scratch,
+            PriorityQueue<IntentRankDTO> top) {
+        double[] scores = scratch.scores(ordinalCount);
+        int[] touched = scratch.touched(ordinalCount);
+        int touchedCount = 0;
+        for (int i = 0; i < query.termCount; i++) {
+            int term = query.terms[i];
+            int size = postingSizes[term];
+            int[] documents = postingDocuments[term];
+            int[] frequencies = postingFrequencies[term];
+            for (int p = 0; p < size; p++) {
+                int document = documents[p];
+                if (scores[document] == 0) {
+                    touched[touchedCount++] = document;
+                }
+                scores[document] += contribution(query, i, frequencies[p], document);
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int document = touched[i];
+            offer(top, limit, explain, scratch, query, document, scores[document]);
+            scores[document] = 0;
+        }
+    }
+
+    /**
+     * Score the intents one by one in ordinal order, merging the sorted postings with MaxScore pruning.
+     */
+    private void collectWithMaxScore(Query query, int limit, boolean explain, Scratch scratch,
+            PriorityQueue<IntentRankDTO> top) {
+        int n = query.termCount;
+        int[] cursors = query.cursors;
+        int[] order = query.order;
+        double[] bounds = query.bounds;
+        for (int i = 0; i < n; i++) {
+            int term = query.terms[i];
+            bounds[i] = query.idfs[i] * saturation(postingMaxFrequencies[term], postingMinLengths[term], query.averageLength)
+                * BOUND_MARGIN;
+            cursors[i] = 0;
+            // insertion sort of the terms by increasing bound, there are only a few of them
+            int o = i;
+            for (; o > 0 && bounds[order[o - 1]] > bounds[i]; o--) {
+                order[o] = order[o - 1];
+            }
+            order[o] = i;
+        }
+        double[] prefixBounds = query.prefixBounds;
+        for (int o = 0; o < n; o++) {
+            prefixBounds[o + 1] = prefixBounds[o] + bounds[order[o]];
+        }
+        // the terms order[0 .. essential) are non-essential
+        int essential = 0;
+        while (essential < n) {
+            int document = Integer.MAX_VALUE;
+            for (int o = essential; o < n; o++) {
+                int i = order[o];
+                int term = query.terms[i];
+                if (cursors[i] < postingSizes[term]) {
+                    document = Math.min(document, postingDocuments[term][cursors[i]]);
+                }
+            }
+            if (document == Integer.MAX_VALUE) {
+                break;
+            }
+            double bound = prefixBounds[essential];
+            for (int o = essential; o < n; o++) {
+                int i = order[o];
+                int term = query.terms[i];
+                if (cursors[i] < postingSizes[term] && postingDocuments[term][cursors[i]] == document) {
+                    bound += contribution(query, i, postingFrequencies[term][cursors[i]], document) * BOUND_MARGIN;
+                }
+            }
+            if (top.size() < limit || bound >= top.peek().getScore()) {
+                double score = 0;
+                for (int i = 0; i < n; i++) {
+                    int term = query.terms[i];
+                    int size = postingSizes[term];
+                    int[] documents = postingDocuments[term];
+                    if (cursors[i] < size && documents[cursors[i]] < document) {
+                        int found = Arrays.binarySearch(documents, cursors[i], size, document);
+                        cursors[i] = found >= 0 ? found : -1 - found;
+                    }
+                    if (cursors[i] < size && documents[cursors[i]] == document) {
+                        score += contribution(query, i, postingFrequencies[term][cursors[i]], document);
+                    }
+                }
+                offer(top, limit, explain, scratch, query, document, score);
+                if (top.size() == limit) {
+                    double threshold = top.peek().getScore();
+                    while (essential < n && prefixBounds[essential + 1] < threshold) {
+                        essential++;
+                    }
+                }
+            }
+            for (int o = essential; o < n; o++) {
+                int i = order[o];
+                int term = query.terms[i];
+                if (cursors[i] < postingSizes[term] && postingDocuments[term][cursors[i]] == document) {
+                    cursors[i]++;
+                }
+            }
+        }
+    }
+
+    private void offer(PriorityQueue<IntentRankDTO> top, int limit, boolean explain, Scratch scratch, Query query,
+            int document, double score) {
+        if (top.size() < limit || isBetter(scratch.candidate, document, score, top.peek())) {
+            IntentRankDTO rank = new IntentRankDTO(documentTags[document], score);
+            if (explain) {
+                rank.setTerms(explain(query, document));
+            }
+            top.offer(rank);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+    }
+
+    /**
+     * Compare an intent with the worst one kept so far, through a reused DTO so that losers allocate nothing.
+     */
+    private boolean isBetter(IntentRankDTO candidate, int document, double score, IntentRankDTO worst) {
+        candidate.setTag(documentTags[document]);
+        candidate.setScore(score);
+        return BEST_FIRST.compare(candidate, worst) < 0;
+    }
+
+    private List<IntentRankTermDTO> explain(Query query, int document) {
+        List<IntentRankTermDTO> terms = new ArrayList<>();
+        int[] ids = documentTerms[document];
+        for (int i = 0; i < query.termCount; i++) {
+            int term = query.terms[i];
+            int index = Arrays.binarySearch(ids, term);
+            if (index >= 0) {
+                int frequency = documentFrequencies[document][index];
+                terms.add(new IntentRankTermDTO(vocabulary.token(term), frequency, postingSizes[term], query.idfs[i],
+                    contribution(query, i, frequency, document)));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Compute the contribution of the i-th term of a query to the score of an intent. Both rankings sum
+     * the contributions in the order of the terms, so that they get the very same scores.
+     */
+    private double contribution(Query query, int i, int frequency, int document) {
+        return query.idfs[i] * saturation(frequency, documentLengths[document], query.averageLength);
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double saturation(int frequency, int length, double averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void put(Intent intent) {
+        String key = intent.getId() != null ? intent.getId() : intent.getTag();
+        Integer ordinal = ordinals.get(key);
+        if (ordinal != null) {
+            unindex(ordinal);
+            tagOrdinals.remove(documentTags[ordinal], ordinal);
+        } else {
+            ordinal = nextOrdinal();
+            ordinals.put(key, ordinal);
+        }
+        // tags are unique: another intent with the same tag is a stale version which was deleted
+        Integer stale = tagOrdinals.put(intent.getTag(), ordinal);
+        if (stale != null && !stale.equals(ordinal)) {
+            release(stale);
+        }
+        documentKeys[ordinal] = key;
+        documentTags[ordinal] = intent.getTag();
+        index(ordinal, intent.getPatterns());
+    }
+
+    private void index(int document, List<String> patterns) {
+        int[] terms = new int[16];
+        int termCount = 0;
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                int count = tokenizer.tokenize(pattern, vocabulary, true);
+                if (termCount + count > terms.length) {
+                    terms = Arrays.copyOf(terms, Math.max(termCount + count, terms.length * 2));
+                }
+                System.arraycopy(tokenizer.ids(), 0, terms, termCount, count);
+                termCount += count;
+            }
+        }
+        Arrays.sort(terms, 0, termCount);
+        int[] ids = new int[termCount];
+        int[] frequencies = new int[termCount];
+        int distinct = 0;
+        for (int i = 0; i < termCount; i++) {
+            if (distinct > 0 && ids[distinct - 1] == terms[i]) {
+                frequencies[distinct - 1]++;
+            } else {
+                ids[distinct] = terms[i];
+                frequencies[distinct++] = 1;
+            }
+        }
+        documentTerms[document] = Arrays.copyOf(ids, distinct);
+        documentFrequencies[document] = Arrays.copyOf(frequencies, distinct);
+        documentLengths[document] = termCount;
+        totalLength += termCount;
+        documentCount++;
+        ensureTermCapacity(vocabulary.size());
+        for (int i = 0; i < distinct; i++) {
+            addPosting(ids[i], document, frequencies[i]);
+        }
+    }
+
+    private void unindex(int document) {
+        int[] terms = documentTerms[document];
+        for (int term : terms) {
+            removePosting(term, document);
+        }
+        totalLength -= documentLengths[document];
+        documentCount--;
+        documentTerms[document] = null;
+        documentFrequencies[document] = null;
+        documentLengths[document] = 0;
+    }
+
+    private void release(int ordinal) {
+        unindex(ordinal);
+        ordinals.remove(documentKeys[ordinal]);
+        tagOrdinals.remove(documentTags[ordinal], ordinal);
+        documentKeys[ordinal] = null;
+        documentTags[ordinal] = null;
+        freeOrdinals.set(ordinal);
+    }
+
+    private void addPosting(int term, int document, int frequency) {
+        int size = postingSizes[term];
+        if (postingDocuments[term] == null) {
+            postingDocuments[term] = new int[4];
+            postingFrequencies[term] = new int[4];
+        } else if (size == postingDocuments[term].length) {
+            postingDocuments[term] = Arrays.copyOf(postingDocuments[term], size * 2);
+            postingFrequencies[term] = Arrays.copyOf(postingFrequencies[term], size * 2);
+        }
+        int[] documents = postingDocuments[term];
+        // ordinals are reused, so a posting is not always appended at the end
+        int position = -1 - Arrays.binarySearch(documents, 0, size, document);
+        System.arraycopy(documents, position, documents, position + 1, size - position);
+        System.arraycopy(postingFrequencies[term], position, postingFrequencies[term], position + 1, size - position);
+        documents[position] = document;
+        postingFrequencies[term][position] = frequency;
+        postingSizes[term] = size + 1;
+        int length = documentLengths[document];
+        if (size == 0 || frequency > postingMaxFrequencies[term]) {
+            postingMaxFrequencies[term] = frequency;
+        }
+        if (size == 0 || length < postingMinLengths[term]) {
+            postingMinLengths[term] = length;
+        }
+    }
+
+    /**
+     * Remove the posting of an intent, and recompute the bounds of the term from the remaining postings.
+     */
+    private void removePosting(int term, int document) {
+        int size = postingSizes[term];
+        int[] documents = postingDocuments[term];
+        int position = Arrays.binarySearch(documents, 0, size, document);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+        System.arraycopy(postingFrequencies[term], position + 1, postingFrequencies[term], position, size - position - 1);
+        size--;
+        postingSizes[term] = size;
+        int maxFrequency = 0;
+        int minLength = Integer.MAX_VALUE;
+        for (int p = 0; p < size; p++) {
+            maxFrequency = Math.max(maxFrequency, postingFrequencies[term][p]);
+            minLength = Math.min(minLength, documentLengths[documents[p]]);
+        }
+        postingMaxFrequencies[term] = maxFrequency;
+        postingMinLengths[term] = size > 0 ? minLength : 0;
+    }
+
+    private int nextOrdinal() {
+        int ordinal = freeOrdinals.nextSetBit(0);
+        if (ordinal >= 0) {
+            freeOrdinals.clear(ordinal);
+            return ordinal;
+        }
+        if (ordinalCount == documentTags.length) {
+            int capacity = ordinalCount * 2;
+            documentKeys = Arrays.copyOf(documentKeys, capacity);
+            documentTags = Arrays.copyOf(documentTags, capacity);
+            documentLengths = Arrays.copyOf(documentLengths, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+            documentFrequencies = Arrays.copyOf(documentFrequencies, capacity);
+        }
+        return ordinalCount++;
+    }
+
+    private void ensureTermCapacity(int termCount) {
+        if (termCount > postingSizes.length) {
+            int capacity = Math.max(termCount, postingSizes.length * 2);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+            postingDocuments = Arrays.copyOf(postingDocuments, capacity);
+            postingFrequencies = Arrays.copyOf(postingFrequencies, capacity);
+            postingMaxFrequencies = Arrays.copyOf(postingMaxFrequencies, capacity);
+            postingMinLengths = Arrays.copyOf(postingMinLengths, capacity);
+        }
+    }
+
+    /**
+     * The reusable buffers of one ranking thread.
+     */
+    private static final class Scratch {
+
+        final Tokenizer tokenizer = new Tokenizer();
+
+        final IntentRankDTO candidate = new IntentRankDTO();
+
+        /**
+         * Score accumulators by intent ordinal, all back to zero between two rankings.
+         */
+        private double[] scores = new double[64];
+
+        private int[] touched = new int[64];
+
+        private Query query = new Query(16);
+
+        Query query(int capacity) {
+            if (capacity > query.terms.length) {
+                query = new Query(Math.max(capacity, query.terms.length * 2));
+            }
+            query.termCount = 0;
+            return query;
+        }
+
+        double[] scores(int capacity) {
+            if (capacity > scores.length) {
+                scores = new double[Math.max(capacity, scores.length * 2)];
+            }
+            return scores;
+        }
+
+        int[] touched(int capacity) {
+            if (capacity > touched.length) {
+                touched = new int[Math.max(capacity, touched.length * 2)];
+            }
+            return touched;
+        }
+    }
+
+    /**
+     * The known terms of an utterance, by increasing id, with the per-term state of a ranking.
+     */
+    private static final class Query {
+
+        final int[] terms;
+
+        final double[] idfs;
+
+        final double[] bounds;
+
+        /**
+         * Indexes of the terms, by increasing bound.
+         */
+        final int[] order;
+
+        /**
+         * Sums of the first bounds in {@link #order}: prefixBounds[j] is the sum of the j lowest bounds.
+         */
+        final double[] prefixBounds;
+
+        final int[] cursors;
+
+        int termCount;
+
+        double averageLength;
+
+        Query(int capacity) {
+            this.terms = new int[capacity];
+            this.idfs = new double[capacity];
+            this.bounds = new double[capacity];
+            this.order = new int[capacity];
+            this.prefixBounds = new double[capacity + 1];
+            this.cursors = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mycompany.myapp.service.matching;
+
+/**
+ * Rough heap sizes of the structures held by the matching indexes, assuming a 64-bit JVM
+ * with compressed references.
+ */
+final class MemoryEstimates {
+
+    static final long OBJECT = 16;
+
+    static final long MAP_ENTRY = 32;
+
+    private MemoryEstimates() {
+    }
+
+    static long intArray(int length) {
+        return align(16 + 4L * length);
+    }
+
+    static long charArray(int length) {
+        return align(16 + 2L * length);
+    }
+
+    static long referenceArray(int length) {
+        return align(16 + 4L * length);
+    }
+
+    static long string(String value) {
+        return 24 + align(16 + 2L * value.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,260 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentPhraseDTO;
+
+import java.util.*;
+
+/**
+ * Immutable Aho-Corasick automaton detecting the intent patterns which occur as phrases anywhere in a text.
+ *
+ * <p>
+ * The alphabet of the automaton is the normalized tokens, given dense ids by its own {@link TokenVocabulary}:
+ * phrases only match on token boundaries, and a text is scanned in a single pass over its tokens whatever
+ * the number of patterns. States are numbered in breadth-first order, and the transitions are stored in
+ * compressed sparse rows: the outgoing edges of a state are a range of two parallel {@code int[]} of token
+ * ids, sorted, and target states. Every state has its failure link, and a dictionary link to the closest
+ * state of its failure chain ending a phrase, so that reporting the phrases ending at a position only
+ * visits states which have some.
+ * </p>
+ */
+public final class PhraseAutomaton {
+
+    private static final int ROOT = 0;
+
+    /**
+     * Buffers of the detecting threads.
+     */
+    private static final ThreadLocal<Tokenizer> TOKENIZER = ThreadLocal.withInitial(Tokenizer::new);
+
+    private final TokenVocabulary vocabulary;
+
+    /**
+     * Start of the edges of every state; the edges of the state s end where the edges of s + 1 start.
+     */
+    private final int[] edgeStarts;
+
+    private final int[] edgeTokens;
+
+    private final int[] edgeTargets;
+
+    private final int[] failures;
+
+    private final int[] dictionaryLinks;
+
+    /**
+     * Start of the phrases ending at every state, in {@link #outputs}.
+     */
+    private final int[] outputStarts;
+
+    private final int[] outputs;
+
+    private final String[] phraseTexts;
+
+    private final int[] phraseLengths;
+
+    private final String[] phraseTags;
+
+    private PhraseAutomaton(TokenVocabulary vocabulary, int[] edgeStarts, int[] edgeTokens, int[] edgeTargets,
+            int[] failures, int[] dictionaryLinks, int[] outputStarts, int[] outputs,
+            String[] phraseTexts, int[] phraseLengths, String[] phraseTags) {
+        this.vocabulary = vocabulary;
+        this.edgeStarts = edgeStarts;
+        this.edgeTokens = edgeTokens;
+        this.edgeTargets = edgeTargets;
+        this.failures = failures;
+        this.dictionaryLinks = dictionaryLinks;
+        this.outputStarts = outputStarts;
+        this.outputs = outputs;
+        this.phraseTexts = phraseTexts;
+        this.phraseLengths = phraseLengths;
+        this.phraseTags = phraseTags;
+    }
+
+    /**
+     * Compile the patterns of intents into an automaton.
+     *
+     * @param corpus all the intents
+     * @return the automaton
+     */
+    public static PhraseAutomaton build(Iterable<Intent> corpus) {
+        TokenVocabulary vocabulary = new TokenVocabulary();
+        Tokenizer tokenizer = new Tokenizer();
+        // the trie, with states numbered in creation order
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> trieOutputs = new ArrayList<>();
+        children.add(new HashMap<>());
+        trieOutputs.add(new ArrayList<>());
+        List<String> phraseTexts = new ArrayList<>();
+        List<Integer> phraseLengths = new ArrayList<>();
+        List<String> phraseTags = new ArrayList<>();
+        Set<String> phraseKeys = new HashSet<>();
+        for (Intent intent : corpus) {
+            if (intent.getPatterns() == null) {
+                continue;
+            }
+            for (String pattern : intent.getPatterns()) {
+                String phrase = TextNormalizer.normalize(pattern);
+                if (phrase.isEmpty() || !phraseKeys.add(intent.getTag() + '\u0000' + phrase)) {
+                    continue;
+                }
+                int length = tokenizer.tokenizeSequence(phrase, vocabulary, true);
+                int state = ROOT;
+                for (int i = 0; i < length; i++) {
+                    Integer next = children.get(state).get(tokenizer.ids()[i]);
+                    if (next == null) {
+                        next = children.size();
+                        children.get(state).put(tokenizer.ids()[i], next);
+                        children.add(new HashMap<>());
+                        trieOutputs.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                trieOutputs.get(state).add(phraseTexts.size());
+                phraseTexts.add(phrase);
+                phraseLengths.add(length);
+                phraseTags.add(intent.getTag());
+            }
+        }
+        return compile(vocabulary, children, trieOutputs, phraseTexts, phraseLengths, phraseTags);
+    }
+
+    private static PhraseAutomaton compile(TokenVocabulary vocabulary, List<Map<Integer, Integer>> children,
+            List<List<Integer>> trieOutputs, List<String> phraseTexts, List<Integer> phraseLengths,
+            List<String> phraseTags) {
+        int stateCount = children.size();
+        // renumber the states in breadth-first order, which is also the order failure links are computed in
+        int[] order = new int[stateCount];
+        int[] numbers = new int[stateCount];
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int state = order[head];
+            numbers[state] = head;
+            for (int child : new TreeMap<>(children.get(state)).values()) {
+                order[tail++] = child;
+            }
+        }
+        int edgeCount = stateCount - 1;
+        int[] edgeStarts = new int[stateCount + 1];
+        int[] edgeTokens = new int[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        int edge = 0;
+        for (int number = 0; number < stateCount; number++) {
+            edgeStarts[number] = edge;
+            for (Map.Entry<Integer, Integer> child : new TreeMap<>(children.get(order[number])).entrySet()) {
+                edgeTokens[edge] = child.getKey();
+                edgeTargets[edge++] = numbers[child.getValue()];
+            }
+        }
+        edgeStarts[stateCount] = edge;
+        int[] outputStarts = new int[stateCount + 1];
+        int[] outputs = new int[phraseTexts.size()];
+        int output = 0;
+        for (int number = 0; number < stateCount; number++) {
+            outputStarts[number] = output;
+            for (int phrase : trieOutputs.get(order[number])) {
+                outputs[output++] = phrase;
+            }
+        }
+        outputStarts[stateCount] = output;
+        int[] failures = new int[stateCount];
+        int[] dictionaryLinks = new int[stateCount];
+        for (int number = 0; number < stateCount; number++) {
+            for (int e = edgeStarts[number]; e < edgeStarts[number + 1]; e++) {
+                int child = edgeTargets[e];
+                int failure = ROOT;
+                if (number != ROOT) {
+                    int candidate = failures[number];
+                    while (true) {
+                        int next = next(edgeStarts, edgeTokens, edgeTargets, candidate, edgeTokens[e]);
+                        if (next >= 0) {
+                            failure = next;
+                            break;
+                        }
+                        if (candidate == ROOT) {
+                            break;
+                        }
+                        candidate = failures[candidate];
+                    }
+                }
+                failures[child] = failure;
+                dictionaryLinks[child] = outputStarts[failure] < outputStarts[failure + 1] ? failure : dictionaryLinks[failure];
+            }
+        }
+        return new PhraseAutomaton(vocabulary, edgeStarts, edgeTokens, edgeTargets, failures, dictionaryLinks,
+            outputStarts, outputs, phraseTexts.toArray(new String[phraseTexts.size()]),
+            phraseLengths.stream().mapToInt(Integer::intValue).toArray(),
+            phraseTags.toArray(new String[phraseTags.size()]));
+    }
+
+    /**
+     * Find the intents having a pattern which occurs as a phrase in a text.
+     *
+     * @param text the text to scan
+     * @return the first phrase found of every intent, in the order of the text
+     */
+    public List<IntentPhraseDTO> detect(String text) {
+        Tokenizer tokenizer = TOKENIZER.get();
+        int length = tokenizer.tokenizeSequence(text, vocabulary, false);
+        int[] ids = tokenizer.ids();
+        List<IntentPhraseDTO> detected = new ArrayList<>();
+        Set<String> detectedTags = new HashSet<>();
+        int state = ROOT;
+        for (int i = 0; i < length; i++) {
+            int token = ids[i];
+            int next = next(edgeStarts, edgeTokens, edgeTargets, state, token);
+            while (next < 0 && state != ROOT) {
+                state = failures[state];
+                next = next(edgeStarts, edgeTokens, edgeTargets, state, token);
+            }
+            state = next >= 0 ? next : ROOT;
+            int reporting = outputStarts[state] < outputStarts[state + 1] ? state : dictionaryLinks[state];
+            for (; reporting != ROOT; reporting = dictionaryLinks[reporting]) {
+                for (int o = outputStarts[reporting]; o < outputStarts[reporting + 1]; o++) {
+                    int phrase = outputs[o];
+                    if (detectedTags.add(phraseTags[phrase])) {
+                        detected.add(new IntentPhraseDTO(phraseTags[phrase], phraseTexts[phrase],
+                            i - phraseLengths[phrase] + 1));
+                    }
+                }
+            }
+        }
+        return detected;
+    }
+
+    /**
+     * Get the number of states of the automaton.
+     */
+    public int size() {
+        return failures.length;
+    }
+
+    /**
+     * Get the number of distinct phrases of the automaton.
+     */
+    public int phraseCount() {
+        return phraseTexts.length;
+    }
+
+    /**
+     * Follow the edge of a state labelled with a token.
+     *
+     * @return the target state, or -1 if the state has no such edge
+     */
+    private static int next(int[] edgeStarts, int[] edgeTokens, int[] edgeTargets, int state, int token) {
+        int low = edgeStarts[state];
+        int high = edgeStarts[state + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleToken = edgeTokens[middle];
+            if (middleToken < token) {
+                low = middle + 1;
+            } else if (middleToken > token) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+}
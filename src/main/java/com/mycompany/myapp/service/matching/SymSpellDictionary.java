@@ -0,0 +1,246 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.service.dto.SpellSuggestionDTO;
+
+import java.util.*;
+
+/**
+ * Immutable spelling correction dictionary, using the symmetric delete algorithm of SymSpell.
+ *
+ * <p>
+ * Every string obtained by deleting up to {@code maxEditDistance} characters from the prefix of a word
+ * is precomputed. The deletes of a misspelled token are then looked up among them: a word within the
+ * edit distance shares at least one delete with it, so a handful of hash lookups give all the candidate
+ * words, whose real distance is verified by a {@link BoundedLevenshtein}.
+ * </p>
+ * <p>
+ * Deletes are not stored as strings: only their hash is kept, in an open addressing table of primitive
+ * arrays pointing to the ids of the words having it. Hash collisions only add candidates, which the
+ * verification rejects. Only the deletes of the first {@code prefixLength} characters of a word are
+ * stored, and only the {@code maxWords} most frequent words are kept, which bounds the memory used.
+ * </p>
+ */
+public final class SymSpellDictionary {
+
+    /**
+     * Buffers of the correcting threads.
+     */
+    private static final ThreadLocal<BoundedLevenshtein> LEVENSHTEIN = ThreadLocal.withInitial(BoundedLevenshtein::new);
+
+    private final int maxEditDistance;
+
+    private final int prefixLength;
+
+    private final String[] words;
+
+    private final int[] counts;
+
+    private final int longestWord;
+
+    /**
+     * Hash of the delete of every slot.
+     */
+    private final int[] slotHashes;
+
+    /**
+     * Start in {@link #candidates} of the word ids of every slot.
+     */
+    private final int[] slotStarts;
+
+    /**
+     * Number of word ids of every slot, 0 marking a free slot.
+     */
+    private final int[] slotLengths;
+
+    private final int[] candidates;
+
+    private final int deleteCount;
+
+    private SymSpellDictionary(int maxEditDistance, int prefixLength, String[] words, int[] counts,
+            int[] slotHashes, int[] slotStarts, int[] slotLengths, int[] candidates, int deleteCount) {
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+        this.words = words;
+        this.counts = counts;
+        this.slotHashes = slotHashes;
+        this.slotStarts = slotStarts;
+        this.slotLengths = slotLengths;
+        this.candidates = candidates;
+        this.deleteCount = deleteCount;
+        int longest = 0;
+        for (String word : words) {
+            longest = Math.max(longest, word.length());
+        }
+        this.longestWord = longest;
+    }
+
+    /**
+     * Build a dictionary.
+     *
+     * @param wordCounts the number of occurrences of every word in the corpus
+     * @param maxEditDistance the maximum edit distance of a correction
+     * @param prefixLength the number of leading characters of a word whose deletes are precomputed
+     * @param maxWords the maximum number of words, the most frequent ones being kept
+     * @return the dictionary
+     */
+    public static SymSpellDictionary build(Map<String, Integer> wordCounts, int maxEditDistance, int prefixLength,
+            int maxWords) {
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(wordCounts.entrySet());
+        sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        int wordCount = Math.min(maxWords, sorted.size());
+        String[] words = new String[wordCount];
+        int[] counts = new int[wordCount];
+        // pairs of a delete hash and a word id, sorted to group the word ids by hash
+        long[] pairs = new long[Math.max(16, wordCount * 8)];
+        int pairCount = 0;
+        Set<String> deletes = new HashSet<>();
+        for (int id = 0; id < wordCount; id++) {
+            words[id] = sorted.get(id).getKey();
+            counts[id] = sorted.get(id).getValue();
+            deletes.clear();
+            addDeletes(prefix(words[id], prefixLength), maxEditDistance, deletes);
+            if (pairCount + deletes.size() > pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(pairCount + deletes.size(), pairs.length * 2));
+            }
+            for (String delete : deletes) {
+                pairs[pairCount++] = ((long) delete.hashCode() << 32) | id;
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+        int distinct = 0;
+        for (int p = 0; p < pairCount; p++) {
+            if (p == 0 || hashOf(pairs[p]) != hashOf(pairs[p - 1])) {
+                distinct++;
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(8, distinct * 2 - 1)) << 1;
+        int[] slotHashes = new int[capacity];
+        int[] slotStarts = new int[capacity];
+        int[] slotLengths = new int[capacity];
+        int[] candidates = new int[pairCount];
+        int candidateCount = 0;
+        for (int p = 0; p < pairCount; ) {
+            int hash = hashOf(pairs[p]);
+            int start = candidateCount;
+            for (; p < pairCount && hashOf(pairs[p]) == hash; p++) {
+                int id = (int) pairs[p];
+                // the same hash may come from different deletes of the same word
+                if (candidateCount == start || candidates[candidateCount - 1] != id) {
+                    candidates[candidateCount++] = id;
+                }
+            }
+            int slot = mix(hash) & (capacity - 1);
+            while (slotLengths[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slotHashes[slot] = hash;
+            slotStarts[slot] = start;
+            slotLengths[slot] = candidateCount - start;
+        }
+        return new SymSpellDictionary(maxEditDistance, prefixLength, words, counts, slotHashes, slotStarts,
+            slotLengths, Arrays.copyOf(candidates, candidateCount), distinct);
+    }
+
+    /**
+     * Find the best correction of a normalized token: the closest word, then the most frequent one.
+     *
+     * @param token the token to correct
+     * @param maxDistance the maximum edit distance of the correction, at most the one of the dictionary
+     * @return the correction, with a distance of 0 if the token is a known word, or null if no word is close enough
+     */
+    public SpellSuggestionDTO lookup(String token, int maxDistance) {
+        int distanceBound = Math.min(maxDistance, maxEditDistance);
+        if (words.length == 0 || token.length() - distanceBound > longestWord) {
+            return null;
+        }
+        BoundedLevenshtein levenshtein = LEVENSHTEIN.get();
+        levenshtein.setPattern(token);
+        Set<String> deletes = new HashSet<>();
+        addDeletes(prefix(token, prefixLength), distanceBound, deletes);
+        Set<Integer> seen = new HashSet<>();
+        int best = -1;
+        int bestDistance = distanceBound + 1;
+        for (String delete : deletes) {
+            int hash = delete.hashCode();
+            int mask = slotHashes.length - 1;
+            int slot = mix(hash) & mask;
+            while (slotLengths[slot] != 0 && slotHashes[slot] != hash) {
+                slot = (slot + 1) & mask;
+            }
+            for (int c = slotStarts[slot]; c < slotStarts[slot] + slotLengths[slot]; c++) {
+                int id = candidates[c];
+                if (!seen.add(id)) {
+                    continue;
+                }
+                // an equally close word can still win by frequency
+                int distance = levenshtein.distance(words[id], Math.min(bestDistance, distanceBound));
+                if (distance < bestDistance || (distance == bestDistance && distance <= distanceBound && isPreferred(id, best))) {
+                    best = id;
+                    bestDistance = distance;
+                }
+            }
+            if (bestDistance == 0) {
+                break;
+            }
+        }
+        return best < 0 ? null : new SpellSuggestionDTO(token, words[best], bestDistance, counts[best]);
+    }
+
+    /**
+     * Get the number of words of the dictionary.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Get the number of distinct delete hashes of the dictionary.
+     */
+    public int deleteCount() {
+        return deleteCount;
+    }
+
+    /**
+     * Estimate the heap footprint of the dictionary.
+     */
+    public long estimatedBytes() {
+        long bytes = MemoryEstimates.OBJECT
+            + MemoryEstimates.referenceArray(words.length)
+            + MemoryEstimates.intArray(counts.length)
+            + 3 * MemoryEstimates.intArray(slotHashes.length)
+            + MemoryEstimates.intArray(candidates.length);
+        for (String word : words) {
+            bytes += MemoryEstimates.string(word);
+        }
+        return bytes;
+    }
+
+    private boolean isPreferred(int id, int best) {
+        return best < 0 || counts[id] > counts[best] || (counts[id] == counts[best] && words[id].compareTo(words[best]) < 0);
+    }
+
+    private static String prefix(String word, int prefixLength) {
+        return word.length() > prefixLength ? word.substring(0, prefixLength) : word;
+    }
+
+    /**
+     * Add a string and all the strings obtained by deleting up to a number of its characters.
+     */
+    private static void addDeletes(String word, int distance, Set<String> deletes) {
+        if (!deletes.add(word) || distance == 0 || word.length() <= 1) {
+            return;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            addDeletes(word.substring(0, i) + word.substring(i + 1), distance - 1, deletes);
+        }
+    }
+
+    private static int hashOf(long pair) {
+        return (int) (pair >> 32);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
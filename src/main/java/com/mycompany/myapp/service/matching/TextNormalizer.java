@@ -0,0 +1,172 @@
+package com.mycompany.myapp.service.matching;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Character folding rules shared by everything that turns free text into intent matching tokens.
+ *
+ * <p>
+ * Text is accent-folded, lower-cased and split on anything that is not a letter or a digit. The
+ * folding of every character up to the end of the combining diacritical marks block, which covers
+ * French and the other Latin languages, is computed once into a table: {@link #fold(char)} is a
+ * single array access for them. Ligatures such as "œ" fold to several characters, given by
+ * {@link #expansion(char)}.
+ * </p>
+ */
+public final class TextNormalizer {
+
+    /**
+     * Folding of a character which separates tokens.
+     */
+    public static final char SEPARATOR = '\u0000';
+
+    /**
+     * Folding of a character which is dropped, such as a combining accent.
+     */
+    public static final char IGNORED = '\uFFFF';
+
+    /**
+     * Folding of a character which folds to several characters.
+     */
+    public static final char EXPANDED = '\uFFFE';
+
+    private static final int TABLE_SIZE = 0x370;
+
+    private static final char[] FOLDING = new char[TABLE_SIZE];
+
+    private static final char[][] EXPANSIONS = new char[TABLE_SIZE][];
+
+    static {
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                FOLDING[c] = IGNORED;
+            } else if (!Character.isLetterOrDigit(c)) {
+                FOLDING[c] = SEPARATOR;
+            } else {
+                String folded = foldSlowly(String.valueOf(c));
+                if (folded.length() == 1) {
+                    FOLDING[c] = folded.charAt(0);
+                } else if (folded.isEmpty()) {
+                    FOLDING[c] = IGNORED;
+                } else {
+                    FOLDING[c] = EXPANDED;
+                    EXPANSIONS[c] = folded.toCharArray();
+                }
+            }
+        }
+        // Ligatures are not decomposed by Unicode normalization: œ, Œ, æ, Æ and ß
+        expand('\u0153', "oe");
+        expand('\u0152', "oe");
+        expand('\u00E6', "ae");
+        expand('\u00C6', "ae");
+        expand('\u00DF', "ss");
+    }
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Fold a character.
+     *
+     * @return the folded character, or one of {@link #SEPARATOR}, {@link #IGNORED} or {@link #EXPANDED}
+     */
+    public static char fold(char c) {
+        if (c < TABLE_SIZE) {
+            return FOLDING[c];
+        }
+        if (Character.isLetterOrDigit(c)) {
+            return Character.toLowerCase(c);
+        }
+        return Character.getType(c) == Character.NON_SPACING_MARK ? IGNORED : SEPARATOR;
+    }
+
+    /**
+     * Get the characters an {@link #EXPANDED} character folds to. The returned array must not be modified.
+     */
+    public static char[] expansion(char c) {
+        return EXPANSIONS[c];
+    }
+
+    /**
+     * Split a text into its distinct normalized tokens, as strings.
+     *
+     * <p>
+     * This allocates every token; the matching hot paths use a {@link Tokenizer} instead.
+     * </p>
+     *
+     * @param text the text to split
+     * @return the tokens, sorted
+     */
+    public static List<String> tokens(String text) {
+        TreeSet<String> tokens = new TreeSet<>();
+        if (text != null) {
+            StringBuilder token = new StringBuilder();
+            for (int i = 0; i <= text.length(); i++) {
+                char folded = i < text.length() ? fold(text.charAt(i)) : SEPARATOR;
+                if (folded == SEPARATOR) {
+                    if (token.length() > 0) {
+                        tokens.add(token.toString());
+                        token.setLength(0);
+                    }
+                } else if (folded == EXPANDED) {
+                    token.append(expansion(text.charAt(i)));
+                } else if (folded != IGNORED) {
+                    token.append(folded);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Normalize a text into its tokens, in their original order, separated by single spaces.
+     *
+     * @param text the text to normalize
+     * @return the normalized text, empty if the text has no token
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean separated = false;
+        for (int i = 0; i < text.length(); i++) {
+            char folded = fold(text.charAt(i));
+            if (folded == SEPARATOR) {
+                separated = normalized.length() > 0;
+            } else if (folded != IGNORED) {
+                if (separated) {
+                    normalized.append(' ');
+                    separated = false;
+                }
+                if (folded == EXPANDED) {
+                    normalized.append(expansion(text.charAt(i)));
+                } else {
+                    normalized.append(folded);
+                }
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String foldSlowly(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void expand(char c, String folded) {
+        FOLDING[c] = EXPANDED;
+        EXPANSIONS[c] = folded.toCharArray();
+    }
+}
@@ -0,0 +1,194 @@
+package com.mycompany.myapp.service.matching;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary giving a dense int id to every normalized token of the intent patterns.
+ *
+ * <p>
+ * Tokens are looked up straight from a {@code char[]} buffer and a precomputed hash, so that a lookup
+ * allocates nothing. The characters of all the tokens are stored end to end in one {@code char[]} pool,
+ * and an open addressing table maps hashes to ids.
+ * </p>
+ * <p>
+ * Tokens are never removed. Lookups never lock: writers are serialized, fill in a new token before
+ * publishing the new size, and replace the arrays as a whole when they need to grow. A reader ignores
+ * the ids at or above the size it has seen, so it never reads a token which is not fully written.
+ * </p>
+ */
+public final class TokenVocabulary {
+
+    private volatile State state = new State(64, 512);
+
+    private volatile int size;
+
+    /**
+     * Compute the hash of a token, as expected by {@link #lookup(char[], int, int)}.
+     */
+    public static int hash(char[] chars, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Get the id of a token.
+     *
+     * @param chars the buffer holding the token
+     * @param length the length of the token
+     * @param hash the hash of the token
+     * @return the id of the token, or -1 if it is not in the vocabulary
+     */
+    public int lookup(char[] chars, int length, int hash) {
+        int known = size;
+        State current = state;
+        int mask = current.slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = current.slots[slot] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (id < known && current.hashes[id] == hash && current.equals(id, chars, length)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Get the id of a token.
+     *
+     * @return the id of the token, or -1 if it is not in the vocabulary
+     */
+    public int lookup(String token) {
+        char[] chars = token.toCharArray();
+        return lookup(chars, chars.length, hash(chars, chars.length));
+    }
+
+    /**
+     * Get the id of a token, adding it to the vocabulary if needed.
+     *
+     * @param chars the buffer holding the token
+     * @param length the length of the token
+     * @param hash the hash of the token
+     * @return the id of the token
+     */
+    public synchronized int add(char[] chars, int length, int hash) {
+        int id = lookup(chars, length, hash);
+        if (id >= 0) {
+            return id;
+        }
+        id = size;
+        State current = ensureCapacity(id + 1, length);
+        int start = current.offsets[id];
+        System.arraycopy(chars, 0, current.pool, start, length);
+        current.offsets[id + 1] = start + length;
+        current.hashes[id] = hash;
+        current.insert(id);
+        // publishing the size makes the token visible to readers
+        size = id + 1;
+        return id;
+    }
+
+    /**
+     * Get a token by id.
+     */
+    public String token(int id) {
+        State current = state;
+        return new String(current.pool, current.offsets[id], current.offsets[id + 1] - current.offsets[id]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Estimate the heap footprint of the vocabulary.
+     */
+    public long estimatedBytes() {
+        State current = state;
+        return MemoryEstimates.OBJECT
+            + MemoryEstimates.charArray(current.pool.length)
+            + MemoryEstimates.intArray(current.offsets.length)
+            + MemoryEstimates.intArray(current.hashes.length)
+            + MemoryEstimates.intArray(current.slots.length);
+    }
+
+    private State ensureCapacity(int tokenCount, int tokenLength) {
+        State current = state;
+        int poolSize = current.offsets[tokenCount - 1] + tokenLength;
+        boolean tooManyTokens = tokenCount > current.hashes.length;
+        if (!tooManyTokens && poolSize <= current.pool.length) {
+            return current;
+        }
+        int tokenCapacity = tooManyTokens ? current.hashes.length * 2 : current.hashes.length;
+        State grown = new State(tokenCapacity, Math.max(poolSize, current.pool.length * 2));
+        System.arraycopy(current.pool, 0, grown.pool, 0, current.offsets[tokenCount - 1]);
+        System.arraycopy(current.offsets, 0, grown.offsets, 0, tokenCount);
+        System.arraycopy(current.hashes, 0, grown.hashes, 0, tokenCount - 1);
+        if (tooManyTokens) {
+            for (int id = 0; id < tokenCount - 1; id++) {
+                grown.insert(id);
+            }
+        } else {
+            System.arraycopy(current.slots, 0, grown.slots, 0, current.slots.length);
+        }
+        state = grown;
+        return grown;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The arrays of the vocabulary, sized for a given token capacity.
+     */
+    private static final class State {
+
+        final char[] pool;
+
+        /**
+         * Start of every token in the pool; the token i ends where the token i + 1 starts.
+         */
+        final int[] offsets;
+
+        final int[] hashes;
+
+        /**
+         * Open addressing table of token ids plus one, 0 marking a free slot. Kept at most half full.
+         */
+        final int[] slots;
+
+        State(int tokenCapacity, int poolCapacity) {
+            this.pool = new char[poolCapacity];
+            this.offsets = new int[tokenCapacity + 1];
+            this.hashes = new int[tokenCapacity];
+            this.slots = new int[tokenCapacity * 2];
+        }
+
+        void insert(int id) {
+            int mask = slots.length - 1;
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+
+        boolean equals(int id, char[] chars, int length) {
+            int start = offsets[id];
+            if (offsets[id + 1] - start != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (pool[start + i] != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
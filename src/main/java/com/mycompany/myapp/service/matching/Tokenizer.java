@@ -0,0 +1,120 @@
+package com.mycompany.myapp.service.matching;
+
+import java.util.Arrays;
+
+/**
+ * Turns free text into the sorted, distinct ids of its normalized tokens, or into the sequence of the ids
+ * of all its tokens.
+ *
+ * <p>
+ * Characters are folded with the {@link TextNormalizer} tables into a reusable {@code char[]} buffer,
+ * and each token is looked up in a {@link TokenVocabulary} straight from that buffer. Once its buffers
+ * have grown to the longest token and the largest text seen, a tokenizer allocates nothing.
+ * </p>
+ * <p>
+ * Tokens missing from the vocabulary get a negative id derived from their hash, so that they still
+ * count as distinct tokens of the text without being added to the vocabulary. Sorting puts them first.
+ * </p>
+ * <p>
+ * A tokenizer is not thread-safe; every thread should use its own.
+ * </p>
+ */
+public final class Tokenizer {
+
+    private char[] token = new char[32];
+
+    private int[] ids = new int[16];
+
+    private int count;
+
+    /**
+     * Tokenize a text, looking its tokens up in a vocabulary.
+     *
+     * @param text the text to tokenize
+     * @param vocabulary the vocabulary giving the token ids
+     * @param learn true to add the missing tokens to the vocabulary, false to give them a negative id
+     * @return the number of distinct tokens, whose ids are the first ones of {@link #ids()}
+     */
+    public int tokenize(CharSequence text, TokenVocabulary vocabulary, boolean learn) {
+        scan(text, vocabulary, learn);
+        Arrays.sort(ids, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        count = distinct;
+        return count;
+    }
+
+    /**
+     * Tokenize a text into the ids of all its tokens, in the order of the text and with the repeated ones.
+     *
+     * @param text the text to tokenize
+     * @param vocabulary the vocabulary giving the token ids
+     * @param learn true to add the missing tokens to the vocabulary, false to give them a negative id
+     * @return the number of tokens, whose ids are the first ones of {@link #ids()}
+     */
+    public int tokenizeSequence(CharSequence text, TokenVocabulary vocabulary, boolean learn) {
+        scan(text, vocabulary, learn);
+        return count;
+    }
+
+    private void scan(CharSequence text, TokenVocabulary vocabulary, boolean learn) {
+        count = 0;
+        if (text == null) {
+            return;
+        }
+        int length = 0;
+        int textLength = text.length();
+        for (int i = 0; i <= textLength; i++) {
+            char c = i < textLength ? text.charAt(i) : ' ';
+            char folded = TextNormalizer.fold(c);
+            if (folded == TextNormalizer.SEPARATOR) {
+                if (length > 0) {
+                    emit(vocabulary, length, learn);
+                    length = 0;
+                }
+            } else if (folded == TextNormalizer.EXPANDED) {
+                char[] expansion = TextNormalizer.expansion(c);
+                ensureTokenCapacity(length + expansion.length);
+                System.arraycopy(expansion, 0, token, length, expansion.length);
+                length += expansion.length;
+            } else if (folded != TextNormalizer.IGNORED) {
+                ensureTokenCapacity(length + 1);
+                token[length++] = folded;
+            }
+        }
+    }
+
+    /**
+     * Get the ids of the last tokenized text. Only the first {@link #count()} ones are meaningful, and the
+     * array is overwritten by the next tokenization.
+     */
+    public int[] ids() {
+        return ids;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    private void emit(TokenVocabulary vocabulary, int length, boolean learn) {
+        int hash = TokenVocabulary.hash(token, length);
+        int id = learn ? vocabulary.add(token, length, hash) : vocabulary.lookup(token, length, hash);
+        if (id < 0) {
+            id = -1 - (hash & Integer.MAX_VALUE);
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+        }
+        ids[count++] = id;
+    }
+
+    private void ensureTokenCapacity(int capacity) {
+        if (capacity > token.length) {
+            token = Arrays.copyOf(token, Math.max(capacity, token.length * 2));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * In-memory indexes and algorithms used to match text against intent patterns.
+ */
+package com.mycompany.myapp.service.matching;
@@ -0,0 +1,116 @@
+package com.mycompany.myapp.service.util;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A bounded, least-recently-used cache whose entries also expire after a fixed time to live.
+ *
+ * <p>
+ * Hits, misses and evictions are counted in the given {@link MetricRegistry}, together with a
+ * gauge of the current size. Missing values are never cached.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class ExpiringCache<K, V> {
+
+    private final long timeToLiveNanos;
+
+    private final Map<K, Entry<V>> entries;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    /**
+     * Incremented by every invalidation, so that a value loaded before an invalidation is not cached after it.
+     */
+    private long generation;
+
+    public ExpiringCache(int maxEntries, long timeToLive, TimeUnit unit, MetricRegistry metricRegistry, String name) {
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.hits = metricRegistry.counter(MetricRegistry.name(name, "hits"));
+        this.misses = metricRegistry.counter(MetricRegistry.name(name, "misses"));
+        this.evictions = metricRegistry.counter(MetricRegistry.name(name, "evictions"));
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.inc();
+                    return true;
+                }
+                return false;
+            }
+        };
+        metricRegistry.register(MetricRegistry.name(name, "size"), (Gauge<Integer>) this::size);
+    }
+
+    /**
+     * Get a value from the cache, loading it on a miss.
+     *
+     * @param key the key of the value
+     * @param loader the function loading the value on a miss, returning null if there is none
+     * @return the value, or null if the loader found none
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - System.nanoTime() > 0) {
+                    hits.inc();
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions.inc();
+            }
+            loadGeneration = generation;
+        }
+        misses.inc();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + timeToLiveNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.mycompany.myapp.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash map whose updates return a new map sharing most of its structure with the previous one.
+ *
+ * <p>
+ * The map is a hash array mapped trie: every level consumes 5 bits of the hash of the keys, and a node only
+ * holds the slots actually used, located by a 32-bit bitmap. Adding or removing a key copies the nodes on its
+ * path, at most 7 of them, and shares all the others, so a new version costs O(log32 n) instead of a full
+ * copy. Keys whose hashes are equal on all 32 bits are kept together in a collision node below the last level.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between threads without synchronization, as long as the keys and
+ * values are not modified.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Shift of the collision nodes: the hash has no bits left.
+     */
+    private static final int COLLISION_SHIFT = 35;
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(EMPTY_NODE, 0);
+
+    private final Node root;
+
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key the key, not null
+     * @return the value, or null if the map does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            if (shift == COLLISION_SHIFT) {
+                int index = node.indexOfKey(key);
+                return index < 0 ? null : (V) node.slots[index + 1];
+            }
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            int index = node.index(bit);
+            Object slotKey = node.slots[index];
+            if (slotKey == null) {
+                node = (Node) node.slots[index + 1];
+            } else {
+                return key.equals(slotKey) ? (V) node.slots[index + 1] : null;
+            }
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Get a map with a key set to a value.
+     *
+     * @param key the key, not null
+     * @param value the value, not null
+     * @return the new map, or this one if the key already had this value
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        boolean added = !containsKey(key);
+        Node newRoot = put(root, hash(key), key, value, 0);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, added ? size + 1 : size);
+    }
+
+    /**
+     * Get a map without a key.
+     *
+     * @param key the key, not null
+     * @return the new map, or this one if it does not contain the key
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        Node newRoot = remove(root, hash(key), key, 0);
+        return new PersistentHashMap<>(newRoot != null ? newRoot : EMPTY_NODE, size - 1);
+    }
+
+    /**
+     * Call an action for every entry of the map, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, (BiConsumer<Object, Object>) action);
+    }
+
+    /**
+     * Get the values of the map, in no particular order.
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    private static void forEach(Node node, BiConsumer<Object, Object> action) {
+        for (int index = 0; index < node.slots.length; index += 2) {
+            Object slotKey = node.slots[index];
+            if (slotKey == null) {
+                forEach((Node) node.slots[index + 1], action);
+            } else {
+                action.accept(slotKey, node.slots[index + 1]);
+            }
+        }
+    }
+
+    private static Node put(Node node, int hash, Object key, Object value, int shift) {
+        if (shift == COLLISION_SHIFT) {
+            int index = node.indexOfKey(key);
+            if (index < 0) {
+                return new Node(0, insert(node.slots, node.slots.length, key, value));
+            }
+            return node.slots[index + 1] == value ? node : new Node(0, replace(node.slots, index + 1, value));
+        }
+        int bit = bit(hash, shift);
+        int index = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            return new Node(node.bitmap | bit, insert(node.slots, index, key, value));
+        }
+        Object slotKey = node.slots[index];
+        Object slotValue = node.slots[index + 1];
+        if (slotKey == null) {
+            Node child = put((Node) slotValue, hash, key, value, shift + BITS);
+            return child == slotValue ? node : new Node(node.bitmap, replace(node.slots, index + 1, child));
+        }
+        if (key.equals(slotKey)) {
+            return slotValue == value ? node : new Node(node.bitmap, replace(node.slots, index + 1, value));
+        }
+        // two keys in the same slot: push both one level down
+        Node child = put(put(EMPTY_NODE, hash(slotKey), slotKey, slotValue, shift + BITS), hash, key, value, shift + BITS);
+        Object[] slots = node.slots.clone();
+        slots[index] = null;
+        slots[index + 1] = child;
+        return new Node(node.bitmap, slots);
+    }
+
+    /**
+     * @return the node without the key, or null if it becomes empty
+     */
+    private static Node remove(Node node, int hash, Object key, int shift) {
+        if (shift == COLLISION_SHIFT) {
+            int index = node.indexOfKey(key);
+            return node.slots.length == 2 ? null : new Node(0, delete(node.slots, index));
+        }
+        int bit = bit(hash, shift);
+        int index = node.index(bit);
+        Object slotKey = node.slots[index];
+        if (slotKey != null) {
+            return node.bitmap == bit ? null : new Node(node.bitmap & ~bit, delete(node.slots, index));
+        }
+        Node child = remove((Node) node.slots[index + 1], hash, key, shift + BITS);
+        if (child == null) {
+            return node.bitmap == bit ? null : new Node(node.bitmap & ~bit, delete(node.slots, index));
+        }
+        if (child.slots.length == 2 && child.slots[0] != null) {
+            // a single entry left below: pull it up into this node
+            return new Node(node.bitmap, replace(replace(node.slots, index, child.slots[0]), index + 1, child.slots[1]));
+        }
+        return new Node(node.bitmap, replace(node.slots, index + 1, child));
+    }
+
+    private static Object[] insert(Object[] slots, int index, Object key, Object value) {
+        Object[] inserted = new Object[slots.length + 2];
+        System.arraycopy(slots, 0, inserted, 0, index);
+        inserted[index] = key;
+        inserted[index + 1] = value;
+        System.arraycopy(slots, index, inserted, index + 2, slots.length - index);
+        return inserted;
+    }
+
+    private static Object[] replace(Object[] slots, int index, Object value) {
+        Object[] replaced = slots.clone();
+        replaced[index] = value;
+        return replaced;
+    }
+
+    private static Object[] delete(Object[] slots, int index) {
+        Object[] deleted = new Object[slots.length - 2];
+        System.arraycopy(slots, 0, deleted, 0, index);
+        System.arraycopy(slots, index + 2, deleted, index, slots.length - index - 2);
+        return deleted;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * A node of the trie: for every bit set in the bitmap, in order, a pair of slots holding either a key and
+     * its value, or null and a child node. Collision nodes have an empty bitmap and only hold keys and values.
+     */
+    private static final class Node {
+
+        final int bitmap;
+
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        /**
+         * Get the index in the slots of the pair of a bit of the bitmap, set or not.
+         */
+        int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        int indexOfKey(Object key) {
+            for (int index = 0; index < slots.length; index += 2) {
+                if (key.equals(slots[index])) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+}
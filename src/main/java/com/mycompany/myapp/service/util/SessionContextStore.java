@@ -0,0 +1,306 @@
+package com.mycompany.myapp.service.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrent store of the current conversation context of every session, whose entries expire after a
+ * time to live without access.
+ *
+ * <p>
+ * The store is meant to hold millions of sessions without putting pressure on the garbage collector: sessions
+ * are spread over lock stripes, and each stripe is an open addressing hash table made of parallel arrays, so
+ * that a session costs no object besides its id. Contexts are interned as int ids, and expiry times are kept
+ * as int seconds since the creation of the store.
+ * </p>
+ *
+ * <p>
+ * Expired sessions are removed when they are accessed, and by {@link #evictExpired()}, which should be
+ * called periodically.
+ * </p>
+ */
+public class SessionContextStore {
+
+    private static final int NO_CONTEXT = 0;
+
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private final Stripe[] stripes;
+
+    private final int stripeShift;
+
+    private final int timeToLiveSeconds;
+
+    private final LongSupplier clock;
+
+    private final long epoch;
+
+    private final Map<String, Integer> contextIds = new ConcurrentHashMap<>();
+
+    private volatile String[] contexts = new String[16];
+
+    private int contextCount = 1;
+
+    public SessionContextStore(int stripeCount, long timeToLive, TimeUnit unit) {
+        this(stripeCount, timeToLive, unit, System::currentTimeMillis);
+    }
+
+    public SessionContextStore(int stripeCount, long timeToLive, TimeUnit unit, LongSupplier clock) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, stripeCount) - 1);
+        this.stripes = new Stripe[1 << bits];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(INITIAL_STRIPE_CAPACITY);
+        }
+        this.stripeShift = 32 - bits;
+        this.timeToLiveSeconds = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, unit.toSeconds(timeToLive)));
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+    }
+
+    /**
+     * Get the context of a session, and extend its time to live.
+     *
+     * @param sessionId the id of the session
+     * @return the context, or null if the session has none or has expired
+     */
+    public String get(String sessionId) {
+        int hash = hash(sessionId);
+        Stripe stripe = stripeFor(hash);
+        int now = now();
+        int contextId;
+        synchronized (stripe) {
+            int slot = stripe.indexOf(sessionId, hash);
+            if (slot < 0) {
+                return null;
+            }
+            if (stripe.expiries[slot] - now <= 0) {
+                stripe.removeAt(slot);
+                return null;
+            }
+            stripe.expiries[slot] = now + timeToLiveSeconds;
+            contextId = stripe.contexts[slot];
+        }
+        return contextId == NO_CONTEXT ? null : contexts[contextId];
+    }
+
+    /**
+     * Set the context of a session, and extend its time to live.
+     *
+     * @param sessionId the id of the session
+     * @param context the context, or null to keep the session without context
+     */
+    public void put(String sessionId, String context) {
+        int contextId = context == null || context.isEmpty() ? NO_CONTEXT : contextId(context);
+        int hash = hash(sessionId);
+        Stripe stripe = stripeFor(hash);
+        int expiry = now() + timeToLiveSeconds;
+        synchronized (stripe) {
+            stripe.put(sessionId, hash, contextId, expiry);
+        }
+    }
+
+    /**
+     * Remove a session.
+     *
+     * @param sessionId the id of the session
+     * @return true if the session was in the store
+     */
+    public boolean remove(String sessionId) {
+        int hash = hash(sessionId);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.indexOf(sessionId, hash);
+            if (slot < 0) {
+                return false;
+            }
+            stripe.removeAt(slot);
+            return true;
+        }
+    }
+
+    /**
+     * Remove all the expired sessions, one stripe at a time.
+     *
+     * @return the number of sessions removed
+     */
+    public int evictExpired() {
+        int now = now();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evicted += stripe.evictExpired(now);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Get the number of sessions, including the expired ones which have not been evicted yet.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private int now() {
+        return (int) ((clock.getAsLong() - epoch) / 1000);
+    }
+
+    private Stripe stripeFor(int hash) {
+        return stripes[stripeShift == 32 ? 0 : hash >>> stripeShift];
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int contextId(String context) {
+        Integer id = contextIds.get(context);
+        return id != null ? id : internContext(context);
+    }
+
+    /**
+     * Contexts come from the intents, so there are few of them and they are never released.
+     */
+    private synchronized int internContext(String context) {
+        Integer id = contextIds.get(context);
+        if (id != null) {
+            return id;
+        }
+        String[] names = contexts;
+        if (contextCount == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[contextCount] = context;
+        contexts = names;
+        contextIds.put(context, contextCount);
+        return contextCount++;
+    }
+
+    /**
+     * A linear probing hash table of sessions, guarded by its own monitor.
+     */
+    private static final class Stripe {
+
+        String[] keys;
+
+        int[] hashes;
+
+        int[] contexts;
+
+        int[] expiries;
+
+        int size;
+
+        Stripe(int capacity) {
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            contexts = new int[capacity];
+            expiries = new int[capacity];
+        }
+
+        /**
+         * Find the slot of a key.
+         *
+         * @return the slot of the key, or (-1 - slot) where slot is the free slot where it would be inserted
+         */
+        int indexOf(String key, int hash) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                String k = keys[i];
+                if (k == null) {
+                    return -1 - i;
+                }
+                if (hashes[i] == hash && k.equals(key)) {
+                    return i;
+                }
+            }
+        }
+
+        void put(String key, int hash, int context, int expiry) {
+            int slot = indexOf(key, hash);
+            if (slot < 0) {
+                if ((size + 1) * 4 > keys.length * 3) {
+                    resize();
+                    slot = indexOf(key, hash);
+                }
+                slot = -1 - slot;
+                keys[slot] = key;
+                hashes[slot] = hash;
+                size++;
+            }
+            contexts[slot] = context;
+            expiries[slot] = expiry;
+        }
+
+        /**
+         * Remove the entry of a slot, shifting back the entries of the following probe sequence.
+         */
+        void removeAt(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            for (int i = (hole + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+                int home = hashes[i] & mask;
+                // The entry can fill the hole unless its home slot is cyclically in (hole, i]
+                boolean stays = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+                if (!stays) {
+                    keys[hole] = keys[i];
+                    hashes[hole] = hashes[i];
+                    contexts[hole] = contexts[i];
+                    expiries[hole] = expiries[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = null;
+            size--;
+        }
+
+        int evictExpired(int now) {
+            int evicted = 0;
+            for (int i = 0; i < keys.length; ) {
+                if (keys[i] != null && expiries[i] - now <= 0) {
+                    // The slot is checked again, as removal may have shifted another entry into it
+                    removeAt(i);
+                    evicted++;
+                } else {
+                    i++;
+                }
+            }
+            return evicted;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldContexts = contexts;
+            int[] oldExpiries = expiries;
+            int capacity = oldKeys.length * 2;
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            contexts = new int[capacity];
+            expiries = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = oldHashes[i] & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    hashes[slot] = oldHashes[i];
+                    contexts[slot] = oldContexts[i];
+                    expiries[slot] = oldExpiries[i];
+                }
+            }
+        }
+    }
+}
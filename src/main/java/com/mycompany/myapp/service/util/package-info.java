@@ -0,0 +1,4 @@
+/**
+ * Utilities for the service layer.
+ */
+package com.mycompany.myapp.service.util;
@@ -0,0 +1,87 @@
+package com.mycompany.myapp.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.mycompany.myapp.service.ConversationContextService;
+import com.mycompany.myapp.service.dto.ConversationContextDTO;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.web.rest.util.HeaderUtil;
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for managing the conversation context of the chatbot sessions.
+ */
+@RestController
+@RequestMapping("/api")
+public class ConversationContextResource {
+
+    private final Logger log = LoggerFactory.getLogger(ConversationContextResource.class);
+
+    private static final String ENTITY_NAME = "conversationContext";
+
+    private final ConversationContextService conversationContextService;
+
+    public ConversationContextResource(ConversationContextService conversationContextService) {
+        this.conversationContextService = conversationContextService;
+    }
+
+    /**
+     * GET  /sessions/:sessionId/context : get the conversation context of a session.
+     *
+     * @param sessionId the id of the session
+     * @return the ResponseEntity with status 200 (OK) and the context in body, which is null if the session has none
+     */
+    @GetMapping("/sessions/{sessionId}/context")
+    @Timed
+    public ResponseEntity<ConversationContextDTO> getConversationContext(@PathVariable String sessionId) {
+        log.debug("REST request to get the context of session : {}", sessionId);
+        return ResponseEntity.ok(conversationContextService.getContext(sessionId));
+    }
+
+    /**
+     * GET  /sessions/:sessionId/intents : get the intents usable in the current context of a session.
+     *
+     * @param sessionId the id of the session
+     * @return the ResponseEntity with status 200 (OK) and the list of intents in body
+     */
+    @GetMapping("/sessions/{sessionId}/intents")
+    @Timed
+    public ResponseEntity<List<IntentDTO>> getEligibleIntents(@PathVariable String sessionId) {
+        log.debug("REST request to get the Intents usable in session : {}", sessionId);
+        return ResponseEntity.ok(conversationContextService.findEligibleIntents(sessionId));
+    }
+
+    /**
+     * POST  /sessions/:sessionId/intents/:tag : apply the context_set of the "tag" intent to a session.
+     *
+     * @param sessionId the id of the session
+     * @param tag the tag of the intent
+     * @return the ResponseEntity with status 200 (OK) and the new context in body,
+     * or with status 404 (Not Found) if there is no such intent
+     */
+    @PostMapping("/sessions/{sessionId}/intents/{tag}")
+    @Timed
+    public ResponseEntity<ConversationContextDTO> applyIntent(@PathVariable String sessionId, @PathVariable String tag) {
+        log.debug("REST request to apply Intent {} to session : {}", tag, sessionId);
+        return ResponseUtil.wrapOrNotFound(conversationContextService.applyIntent(sessionId, tag));
+    }
+
+    /**
+     * DELETE  /sessions/:sessionId/context : forget the conversation context of a session.
+     *
+     * @param sessionId the id of the session
+     * @return the ResponseEntity with status 200 (OK)
+     */
+    @DeleteMapping("/sessions/{sessionId}/context")
+    @Timed
+    public ResponseEntity<Void> clearConversationContext(@PathVariable String sessionId) {
+        log.debug("REST request to clear the context of session : {}", sessionId);
+        conversationContextService.clearContext(sessionId);
+        return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, sessionId)).build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.myapp.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.service.IntentClassificationService;
+import com.mycompany.myapp.service.IntentMatchingService;
+import com.mycompany.myapp.web.rest.errors.CustomParameterizedException;
+import com.mycompany.myapp.web.rest.errors.ErrorConstants;
+import com.mycompany.myapp.web.rest.vm.IntentClassifyVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * REST controller for classifying batches of utterances against the Intent patterns.
+ */
+@RestController
+@RequestMapping("/api")
+public class IntentClassificationResource {
+
+    private final Logger log = LoggerFactory.getLogger(IntentClassificationResource.class);
+
+    private final IntentClassificationService intentClassificationService;
+
+    private final ObjectMapper objectMapper;
+
+    public IntentClassificationResource(IntentClassificationService intentClassificationService, ObjectMapper objectMapper) {
+        this.intentClassificationService = intentClassificationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * POST  /intents/_classify : get the intents best matching every utterance of a batch.
+     *
+     * <p>
+     * The utterances are matched in parallel on a dedicated thread pool, and the results are streamed as
+     * newline-delimited JSON, one line per utterance in the order of the batch, while the next ones are computed.
+     * </p>
+     *
+     * @param intentClassifyVM the utterances to classify, and the maximum number of intents per utterance
+     * @param response the HTTP response the results are written to
+     * @throws IOException if the response cannot be written
+     */
+    @PostMapping("/intents/_classify")
+    @Timed
+    public void classifyIntents(@Valid @RequestBody IntentClassifyVM intentClassifyVM, HttpServletResponse response)
+            throws IOException {
+        log.debug("REST request to classify utterances : {}", intentClassifyVM);
+        int maxUtterances = intentClassificationService.getMaxUtterances();
+        if (intentClassifyVM.getUtterances().size() > maxUtterances) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_BATCH_TOO_LARGE, String.valueOf(maxUtterances));
+        }
+        int limit = intentClassifyVM.getLimit() != null ? intentClassifyVM.getLimit() : IntentMatchingService.DEFAULT_LIMIT;
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(IntentResource.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            intentClassificationService.classify(intentClassifyVM.getUtterances(), limit, classification -> {
+                try {
+                    generator.writeObject(classification);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mycompany.myapp.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.mycompany.myapp.service.IntentMatchingService;
+import com.mycompany.myapp.service.dto.IntentFuzzyMatchDTO;
+import com.mycompany.myapp.service.dto.IntentIndexStatsDTO;
+import com.mycompany.myapp.service.dto.IntentMatchDTO;
+import com.mycompany.myapp.service.dto.IntentPhraseDTO;
+import com.mycompany.myapp.service.dto.IntentRankDTO;
+import com.mycompany.myapp.service.dto.IntentTokenDTO;
+import com.mycompany.myapp.web.rest.errors.CustomParameterizedException;
+import com.mycompany.myapp.web.rest.errors.ErrorConstants;
+import com.mycompany.myapp.web.rest.vm.IntentDetectVM;
+import com.mycompany.myapp.web.rest.vm.IntentMatchVM;
+import com.mycompany.myapp.web.rest.vm.IntentRankVM;
+import com.mycompany.myapp.web.rest.vm.IntentTokenizeVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * REST controller for matching text against the Intent patterns.
+ */
+@RestController
+@RequestMapping("/api")
+public class IntentMatchingResource {
+
+    private final Logger log = LoggerFactory.getLogger(IntentMatchingResource.class);
+
+    private final IntentMatchingService intentMatchingService;
+
+    public IntentMatchingResource(IntentMatchingService intentMatchingService) {
+        this.intentMatchingService = intentMatchingService;
+    }
+
+    /**
+     * POST  /intents/match : get the intents best matching an utterance.
+     *
+     * @param intentMatchVM the utterance to match, and the maximum number of intents to return
+     * @return the ResponseEntity with status 200 (OK) and the matching tags with their scores in body,
+     * or with status 400 (Bad Request) if the intentMatchVM is not valid
+     */
+    @PostMapping("/intents/match")
+    @Timed
+    public ResponseEntity<List<IntentMatchDTO>> matchIntents(@Valid @RequestBody IntentMatchVM intentMatchVM) {
+        log.debug("REST request to match Intents : {}", intentMatchVM);
+        int limit = intentMatchVM.getLimit() != null ? intentMatchVM.getLimit() : IntentMatchingService.DEFAULT_LIMIT;
+        return ResponseEntity.ok(intentMatchingService.match(intentMatchVM.getUtterance(), limit));
+    }
+
+    /**
+     * POST  /intents/rank : rank the intents by BM25 relevance of their patterns to an utterance.
+     *
+     * @param intentRankVM the utterance, the maximum number of intents to return, and whether to detail the
+     * contribution of every term to the scores
+     * @return the ResponseEntity with status 200 (OK) and the ranked tags with their scores in body,
+     * or with status 400 (Bad Request) if the intentRankVM is not valid
+     */
+    @PostMapping("/intents/rank")
+    @Timed
+    public ResponseEntity<List<IntentRankDTO>> rankIntents(@Valid @RequestBody IntentRankVM intentRankVM) {
+        log.debug("REST request to rank Intents : {}", intentRankVM);
+        int limit = intentRankVM.getLimit() != null ? intentRankVM.getLimit() : IntentMatchingService.DEFAULT_LIMIT;
+        return ResponseEntity.ok(intentMatchingService.rank(intentRankVM.getUtterance(), limit, intentRankVM.isExplain()));
+    }
+
+    /**
+     * GET  /intents/_fuzzy : find the patterns closest to a query despite its typos.
+     *
+     * <p>
+     * Patterns are looked up through a character trigram index, and their Levenshtein distance to the query
+     * is verified with a bit-parallel algorithm, so the whole vocabulary is never scanned.
+     * </p>
+     *
+     * @param query the text to look up
+     * @param distance the maximum edit distance, from 0 to 3, 2 by default
+     * @param limit the maximum number of patterns to return
+     * @return the ResponseEntity with status 200 (OK) and the normalized patterns with their distance and tags in body,
+     * or with status 400 (Bad Request) if the distance is out of range
+     */
+    @GetMapping("/intents/_fuzzy")
+    @Timed
+    public ResponseEntity<List<IntentFuzzyMatchDTO>> findFuzzyPatterns(@RequestParam("q") String query,
+            @RequestParam(value = "distance", required = false) Integer distance,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        log.debug("REST request to find the patterns close to : {}", query);
+        int maxDistance = distance != null ? distance : IntentMatchingService.DEFAULT_FUZZY_DISTANCE;
+        if (maxDistance < 0 || maxDistance > IntentMatchingService.MAX_FUZZY_DISTANCE) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_INVALID_DISTANCE, String.valueOf(distance));
+        }
+        int maxResults = limit != null ? Math.max(1, Math.min(100, limit)) : IntentMatchingService.DEFAULT_LIMIT;
+        return ResponseEntity.ok(intentMatchingService.findFuzzy(query, maxDistance, maxResults));
+    }
+
+    /**
+     * POST  /intents/_detect : find every intent having a pattern which occurs as a phrase in a text.
+     *
+     * <p>
+     * All the patterns are compiled into one Aho-Corasick automaton over the normalized tokens, so the text
+     * is scanned once whatever the number of patterns. The automaton is rebuilt in the background when intents
+     * change, and may lag behind the latest changes for a moment.
+     * </p>
+     *
+     * @param intentDetectVM the text to scan
+     * @return the ResponseEntity with status 200 (OK) and the first phrase found of every intent in body, in the
+     * order of the text, or with status 400 (Bad Request) if the intentDetectVM is not valid
+     */
+    @PostMapping("/intents/_detect")
+    @Timed
+    public ResponseEntity<List<IntentPhraseDTO>> detectIntents(@Valid @RequestBody IntentDetectVM intentDetectVM) {
+        log.debug("REST request to detect the Intent phrases : {}", intentDetectVM);
+        return ResponseEntity.ok(intentMatchingService.detect(intentDetectVM.getText()));
+    }
+
+    /**
+     * GET  /intents/match/stats : get the size and estimated memory footprint of the match index.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the index statistics in body
+     */
+    @GetMapping("/intents/match/stats")
+    @Timed
+    public ResponseEntity<IntentIndexStatsDTO> getMatchIndexStats() {
+        log.debug("REST request to get the Intent match index statistics");
+        return ResponseEntity.ok(intentMatchingService.getIndexStats());
+    }
+
+    /**
+     * POST  /intents/_tokenize : normalize and tokenize a text like the intent patterns are.
+     *
+     * @param intentTokenizeVM the text to tokenize
+     * @return the ResponseEntity with status 200 (OK) and the distinct tokens in body, with their id in the vocabulary
+     * of the patterns, or with status 400 (Bad Request) if the intentTokenizeVM is not valid
+     */
+    @PostMapping("/intents/_tokenize")
+    @Timed
+    public ResponseEntity<List<IntentTokenDTO>> tokenize(@Valid @RequestBody IntentTokenizeVM intentTokenizeVM) {
+        log.debug("REST request to tokenize : {}", intentTokenizeVM);
+        return ResponseEntity.ok(intentMatchingService.tokenize(intentTokenizeVM.getText()));
+    }
+}
@@ -1,27 +1,50 @@
 package com.mycompany.myapp.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.service.dto.IntentBulkItemDTO;
+import com.mycompany.myapp.service.dto.IntentBulkReportDTO;
+import com.mycompany.myapp.web.rest.errors.CustomParameterizedException;
+import com.mycompany.myapp.web.rest.errors.ErrorConstants;
+import com.mycompany.myapp.web.rest.util.FieldsUtil;
 import com.mycompany.myapp.web.rest.util.HeaderUtil;
 import com.mycompany.myapp.web.rest.util.PaginationUtil;
 import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.dto.IntentSummaryDTO;
+import com.mycompany.myapp.web.rest.vm.IntentElementVM;
 import io.swagger.annotations.ApiParam;
 import io.github.jhipster.web.util.ResponseUtil;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing Intent.
@@ -34,10 +57,20 @@ public class IntentResource {
 
     private static final String ENTITY_NAME = "intent";
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final IntentService intentService;
 
-    public IntentResource(IntentService intentService) {
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public IntentResource(IntentService intentService, ObjectMapper objectMapper, Validator validator) {
         this.intentService = intentService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     /**
@@ -82,35 +115,271 @@ public class IntentResource {
             .body(result);
     }
 
+    /**
+     * POST  /intents/_bulk : Create or update intents in bulk.
+     *
+     * <p>
+     * The body is either a JSON array of intents, or newline-delimited JSON with one intent per line.
+     * It is read as a stream, and validated and written in chunks, each chunk with one unordered bulk write.
+     * </p>
+     *
+     * @param body the request body
+     * @return the ResponseEntity with status 200 (OK) and with body the result for every intent,
+     * or with status 400 (Bad Request) and the result for the intents read so far if the body is malformed
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/intents/_bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    @Timed
+    public ResponseEntity<IntentBulkReportDTO> bulkSaveIntents(InputStream body) throws IOException {
+        log.debug("REST request to bulk save Intents");
+        IntentBulkReportDTO report = new IntentBulkReportDTO();
+        List<IntentDTO> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+        boolean wellFormed;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            wellFormed = readIntents(parser, chunk, report);
+        } catch (JsonProcessingException e) {
+            log.debug("Malformed bulk of Intents : {}", e.getMessage());
+            wellFormed = false;
+        }
+        saveChunk(chunk, report);
+        if (!wellFormed) {
+            return ResponseEntity.badRequest()
+                .headers(HeaderUtil.createFailureAlert(ENTITY_NAME, "bulkmalformed", "The body must be a JSON array or a stream of intents"))
+                .body(report);
+        }
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * GET  /intents : get all the intents.
      *
+     * <p>
+     * When the "after" parameter is present, keyset pagination is used instead: intents are ordered by id,
+     * the page starts right after the cursor (an empty cursor for the first page), page number and sort are
+     * ignored, no total count is computed and the Link header carries the cursor of the next page.
+     * </p>
+     * <p>
+     * The "fields" parameter, a comma separated list of fields such as "tag,responses", restricts the fields
+     * read from the database, and the fields serialized by the FieldsResponseBodyAdvice.
+     * </p>
+     *
      * @param pageable the pagination information
-     * @return the ResponseEntity with status 200 (OK) and the list of intents in body
+     * @param after the opaque cursor of keyset pagination, from the "next" link of the previous page
+     * @param fields the fields of the intents to return, all of them if absent
+     * @return the ResponseEntity with status 200 (OK) and the list of intents in body,
+     * or with status 400 (Bad Request) if the cursor or the fields are not valid
      */
     @GetMapping("/intents")
     @Timed
-    public ResponseEntity<List<IntentDTO>> getAllIntents(@ApiParam Pageable pageable) {
+    public ResponseEntity<List<IntentDTO>> getAllIntents(@ApiParam Pageable pageable,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = FieldsUtil.PARAMETER, required = false) String fields) {
+        Set<String> selectedFields = parseFields(fields);
+        if (after != null) {
+            return getIntentsAfter(after, pageable.getPageSize(), selectedFields);
+        }
         log.debug("REST request to get a page of Intents");
-        Page<IntentDTO> page = intentService.findAll(pageable);
+        Page<IntentDTO> page = intentService.findAll(pageable, selectedFields);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/intents");
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET  /intents?view=summary : get a page of intent summaries.
+     *
+     * <p>
+     * A summary holds the id, tag and context fields of an intent, with the number of its patterns and
+     * responses instead of the lists, which are counted by the database and never loaded.
+     * </p>
+     *
+     * @param pageable the pagination information
+     * @return the ResponseEntity with status 200 (OK) and the list of intent summaries in body
+     */
+    @GetMapping(value = "/intents", params = "view=summary")
+    @Timed
+    public ResponseEntity<List<IntentSummaryDTO>> getAllIntentSummaries(@ApiParam Pageable pageable) {
+        log.debug("REST request to get a page of Intent summaries");
+        Page<IntentSummaryDTO> page = intentService.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/intents");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    private ResponseEntity<List<IntentDTO>> getIntentsAfter(String after, int size, Set<String> fields) {
+        log.debug("REST request to get a slice of Intents after cursor : {}", after);
+        String afterId = null;
+        if (!after.isEmpty()) {
+            afterId = PaginationUtil.decodeCursor(after);
+            if (afterId == null || !ObjectId.isValid(afterId)) {
+                throw new CustomParameterizedException(ErrorConstants.ERR_INVALID_CURSOR, after);
+            }
+        }
+        Slice<IntentDTO> slice = intentService.findAllAfter(afterId, size, fields);
+        String nextCursor = slice.hasNext()
+            ? PaginationUtil.encodeCursor(slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+            : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice, nextCursor, "/api/intents");
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    private static Set<String> parseFields(String fields) {
+        Set<String> selectedFields = FieldsUtil.parseIntentFields(fields);
+        if (selectedFields != null && selectedFields.isEmpty()) {
+            throw new CustomParameterizedException(ErrorConstants.ERR_INVALID_FIELDS, fields);
+        }
+        return selectedFields;
+    }
+
+    /**
+     * GET  /intents/_context : get the intents usable in any of the given conversation contexts.
+     *
+     * <p>
+     * These are the intents without context_filter, and the intents whose context_filter is one of the contexts.
+     * They are served from in-memory partitions of the intents by context filter, without querying the database.
+     * </p>
+     *
+     * @param contexts the conversation contexts, may be empty
+     * @return the ResponseEntity with status 200 (OK) and the list of intents in body
+     */
+    @GetMapping("/intents/_context")
+    @Timed
+    public ResponseEntity<List<IntentDTO>> getIntentsByContext(
+            @RequestParam(value = "context", required = false) List<String> contexts) {
+        log.debug("REST request to get Intents usable in contexts : {}", contexts);
+        return ResponseEntity.ok(intentService.findAllByContexts(contexts != null ? contexts : Collections.emptyList()));
+    }
+
+    /**
+     * GET  /intents/_export : export all the intents as newline-delimited JSON.
+     *
+     * <p>
+     * Intents are streamed from a database cursor straight to the response, so the heap used does not depend
+     * on the size of the collection. The response is compressed with gzip when the client accepts it with a
+     * quality above 0.
+     * </p>
+     *
+     * @param acceptEncoding the Accept-Encoding header of the request
+     * @param response the HTTP response the intents are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping("/intents/_export")
+    @Timed
+    public void exportIntents(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Intents");
+        boolean gzip = HeaderUtil.acceptsEncoding(acceptEncoding, "gzip");
+        response.setStatus(HttpStatus.OK.value());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"intents.ndjson\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            intentService.streamAll(intentDTO -> {
+                try {
+                    generator.writeObject(intentDTO);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * GET  /intents/:id : get the "id" intent.
      *
      * @param tag the id of the intentDTO to retrieve
-     * @return the ResponseEntity with status 200 (OK) and with body the intentDTO, or with status 404 (Not Found)
+     * @param fields the comma separated fields of the intent to return, all of them if absent
+     * @return the ResponseEntity with status 200 (OK) and with body the intentDTO, with status 404 (Not Found),
+     * or with status 400 (Bad Request) if the fields are not valid
      */
     @GetMapping("/intents/{tag}")
     @Timed
-    public ResponseEntity<IntentDTO> getIntent(@PathVariable String tag) {
+    public ResponseEntity<IntentDTO> getIntent(@PathVariable String tag,
+            @RequestParam(value = FieldsUtil.PARAMETER, required = false) String fields) {
         log.debug("REST request to get Intent : {}", tag);
-        IntentDTO intentDTO = intentService.findOne(tag);
+        Set<String> selectedFields = parseFields(fields);
+        IntentDTO intentDTO = intentService.findOne(tag, selectedFields);
         return ResponseUtil.wrapOrNotFound(Optional.ofNullable(intentDTO));
     }
 
+    /**
+     * POST  /intents/:tag/patterns : add a pattern to the "tag" intent, unless it already has it.
+     *
+     * <p>
+     * Only the pattern is sent to the database, with an atomic $addToSet: concurrent edits of the other patterns
+     * and fields are kept.
+     * </p>
+     *
+     * @param tag the tag of the intent
+     * @param element the pattern
+     * @return the ResponseEntity with status 200 (OK) and with body the updated intentDTO, or with status 404 (Not Found)
+     */
+    @PostMapping("/intents/{tag}/patterns")
+    @Timed
+    public ResponseEntity<IntentDTO> addPattern(@PathVariable String tag, @Valid @RequestBody IntentElementVM element) {
+        log.debug("REST request to add a pattern to Intent : {}", tag);
+        return updatedOrNotFound(intentService.addPattern(tag, element.getText()));
+    }
+
+    /**
+     * DELETE  /intents/:tag/patterns?text= : remove a pattern from the "tag" intent, with an atomic $pull.
+     *
+     * @param tag the tag of the intent
+     * @param text the pattern
+     * @return the ResponseEntity with status 200 (OK) and with body the updated intentDTO, or with status 404 (Not Found)
+     */
+    @DeleteMapping("/intents/{tag}/patterns")
+    @Timed
+    public ResponseEntity<IntentDTO> removePattern(@PathVariable String tag, @RequestParam String text) {
+        log.debug("REST request to remove a pattern from Intent : {}", tag);
+        return updatedOrNotFound(intentService.removePattern(tag, text));
+    }
+
+    /**
+     * POST  /intents/:tag/responses : append a response to the "tag" intent, with an atomic $push.
+     *
+     * @param tag the tag of the intent
+     * @param element the response
+     * @return the ResponseEntity with status 200 (OK) and with body the updated intentDTO, or with status 404 (Not Found)
+     */
+    @PostMapping("/intents/{tag}/responses")
+    @Timed
+    public ResponseEntity<IntentDTO> addResponse(@PathVariable String tag, @Valid @RequestBody IntentElementVM element) {
+        log.debug("REST request to add a response to Intent : {}", tag);
+        return updatedOrNotFound(intentService.addResponse(tag, element.getText()));
+    }
+
+    /**
+     * DELETE  /intents/:tag/responses/:index : remove the response at an index of the "tag" intent.
+     *
+     * @param tag the tag of the intent
+     * @param index the index of the response, from 0
+     * @return the ResponseEntity with status 200 (OK) and with body the updated intentDTO,
+     * or with status 404 (Not Found) if there is no intent with this tag or no response at this index
+     */
+    @DeleteMapping("/intents/{tag}/responses/{index}")
+    @Timed
+    public ResponseEntity<IntentDTO> removeResponse(@PathVariable String tag, @PathVariable int index) {
+        log.debug("REST request to remove response {} from Intent : {}", index, tag);
+        return updatedOrNotFound(index < 0 ? null : intentService.removeResponse(tag, index));
+    }
+
+    private ResponseEntity<IntentDTO> updatedOrNotFound(IntentDTO result) {
+        if (result == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, result.getId()))
+            .body(result);
+    }
+
     /**
      * DELETE  /intents/:id : delete the "id" intent.
      *
@@ -124,4 +393,45 @@ public class IntentResource {
         intentService.delete(tag);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, tag)).build();
     }
+
+    private boolean readIntents(JsonParser parser, List<IntentDTO> chunk, IntentBulkReportDTO report) throws IOException {
+        JsonToken token = parser.nextToken();
+        boolean array = token == JsonToken.START_ARRAY;
+        if (array) {
+            token = parser.nextToken();
+        }
+        while (token == JsonToken.START_OBJECT) {
+            chunk.add(objectMapper.readValue(parser, IntentDTO.class));
+            if (chunk.size() == BULK_CHUNK_SIZE) {
+                saveChunk(chunk, report);
+            }
+            token = parser.nextToken();
+        }
+        return array ? token == JsonToken.END_ARRAY && parser.nextToken() == null : token == null;
+    }
+
+    private void saveChunk(List<IntentDTO> chunk, IntentBulkReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        IntentBulkItemDTO[] invalid = new IntentBulkItemDTO[chunk.size()];
+        List<IntentDTO> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            IntentDTO intentDTO = chunk.get(i);
+            Set<ConstraintViolation<IntentDTO>> violations = validator.validate(intentDTO);
+            if (violations.isEmpty()) {
+                valid.add(intentDTO);
+            } else {
+                invalid[i] = new IntentBulkItemDTO(intentDTO.getId(), intentDTO.getTag(), IntentBulkItemDTO.Status.INVALID);
+                invalid[i].setError(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+            }
+        }
+        Iterator<IntentBulkItemDTO> saved = intentService.saveAll(valid).iterator();
+        for (IntentBulkItemDTO item : invalid) {
+            report.add(item != null ? item : saved.next());
+        }
+        chunk.clear();
+    }
 }
@@ -0,0 +1,42 @@
+package com.mycompany.myapp.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.mycompany.myapp.service.SpellCorrectionService;
+import com.mycompany.myapp.service.dto.SpellCorrectionDTO;
+import com.mycompany.myapp.web.rest.vm.SpellCorrectionVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+/**
+ * REST controller for correcting the spelling of user text against the words of the intents.
+ */
+@RestController
+@RequestMapping("/api")
+public class SpellCorrectionResource {
+
+    private final Logger log = LoggerFactory.getLogger(SpellCorrectionResource.class);
+
+    private final SpellCorrectionService spellCorrectionService;
+
+    public SpellCorrectionResource(SpellCorrectionService spellCorrectionService) {
+        this.spellCorrectionService = spellCorrectionService;
+    }
+
+    /**
+     * POST  /intents/_correct : correct the spelling of a text against the words of the intent patterns and responses.
+     *
+     * @param spellCorrectionVM the text to correct
+     * @return the ResponseEntity with status 200 (OK) and the normalized, corrected text with the corrections in body,
+     * or with status 400 (Bad Request) if the spellCorrectionVM is not valid
+     */
+    @PostMapping("/intents/_correct")
+    @Timed
+    public ResponseEntity<SpellCorrectionDTO> correct(@Valid @RequestBody SpellCorrectionVM spellCorrectionVM) {
+        log.debug("REST request to correct : {}", spellCorrectionVM);
+        return ResponseEntity.ok(spellCorrectionService.correct(spellCorrectionVM.getText()));
+    }
+}
@@ -3,8 +3,13 @@ package com.mycompany.myapp.web.rest.errors;
 public final class ErrorConstants {
 
     public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
+    public static final String ERR_DUPLICATE_KEY = "error.duplicateKey";
     public static final String ERR_ACCESS_DENIED = "error.accessDenied";
     public static final String ERR_VALIDATION = "error.validation";
+    public static final String ERR_INVALID_CURSOR = "error.invalidCursor";
+    public static final String ERR_INVALID_DISTANCE = "error.invalidDistance";
+    public static final String ERR_BATCH_TOO_LARGE = "error.batchTooLarge";
+    public static final String ERR_INVALID_FIELDS = "error.invalidFields";
     public static final String ERR_METHOD_NOT_SUPPORTED = "error.methodNotSupported";
     public static final String ERR_INTERNAL_SERVER_ERROR = "error.internalServerError";
 
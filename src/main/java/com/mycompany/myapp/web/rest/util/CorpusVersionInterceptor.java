@@ -0,0 +1,41 @@
+package com.mycompany.myapp.web.rest.util;
+
+import com.mycompany.myapp.service.IntentService;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.UUID;
+
+/**
+ * Interceptor adding the version of the intent corpus to the responses, in the {@link HeaderUtil#CORPUS_VERSION}
+ * header, and the id of the instance which counts it, in the {@link HeaderUtil#CORPUS_INSTANCE} header.
+ *
+ * <p>
+ * The version is the one current when the request is received, so the response reflects at least that version,
+ * and a client holding a copy of an older version knows it is stale. The header is set before the handler runs,
+ * as the streaming endpoints commit the response while writing it.
+ * </p>
+ * <p>
+ * The version is counted in memory by every instance, from 0 when it starts: versions only compare within one
+ * instance id, which changes on every start. A client behind the load balancer receiving another instance id
+ * cannot tell whether its copy is stale, and must reload it.
+ * </p>
+ */
+public class CorpusVersionInterceptor extends HandlerInterceptorAdapter {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final IntentService intentService;
+
+    public CorpusVersionInterceptor(IntentService intentService) {
+        this.intentService = intentService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.setHeader(HeaderUtil.CORPUS_INSTANCE, instanceId);
+        response.setHeader(HeaderUtil.CORPUS_VERSION, String.valueOf(intentService.getCorpus().getVersion()));
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mycompany.myapp.web.rest.util;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Controller advice serializing only the fields selected by the "fields" parameter of a request.
+ *
+ * <p>
+ * It applies to the handler methods declaring a "fields" request parameter, which validate it and project their
+ * query on the fields. Their declared return types are left as they are, so that the API documentation still
+ * describes the returned DTOs.
+ * </p>
+ */
+@ControllerAdvice
+public class FieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && hasFieldsParameter(returnType.getMethod());
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+            MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FieldsUtil.PARAMETER);
+        Set<String> selectedFields = FieldsUtil.parseIntentFields(fields);
+        if (selectedFields != null && !selectedFields.isEmpty()) {
+            bodyContainer.setFilters(FieldsUtil.filters(selectedFields));
+        }
+    }
+
+    private static boolean hasFieldsParameter(Method method) {
+        if (method == null) {
+            return false;
+        }
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            RequestParam requestParam = new MethodParameter(method, i).getParameterAnnotation(RequestParam.class);
+            if (requestParam != null && (FieldsUtil.PARAMETER.equals(requestParam.value())
+                    || FieldsUtil.PARAMETER.equals(requestParam.name()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
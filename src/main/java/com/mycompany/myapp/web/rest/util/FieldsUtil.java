@@ -0,0 +1,80 @@
+package com.mycompany.myapp.web.rest.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Utility class for handling sparse fieldsets, the "fields" parameter selecting the fields of the returned intents.
+ *
+ * <p>
+ * The selected fields are both projected by the database query and kept by a Jackson filter, so the other
+ * fields are neither read nor serialized. The filter is applied to IntentDTO through {@link FieldsFilterMixin},
+ * and serializes everything unless {@link FieldsResponseBodyAdvice} sets the filters of a response.
+ * </p>
+ */
+public final class FieldsUtil {
+
+    public static final String PARAMETER = "fields";
+
+    public static final String FILTER = "fields";
+
+    /**
+     * The fields which can be selected, as named in the JSON of the intents and in the documents.
+     */
+    public static final Set<String> INTENT_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(
+        Arrays.asList("id", "tag", "patterns", "responses", "context_set", "context_filter")));
+
+    /**
+     * The filters of the ObjectMapper, serializing all the fields.
+     */
+    public static final FilterProvider ALL_FIELDS =
+        new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    private FieldsUtil() {
+    }
+
+    /**
+     * Parse a comma separated list of intent fields.
+     *
+     * @param fields the value of the parameter, or null if there is none
+     * @return the selected fields, null if the parameter is absent, or an empty set if it is not valid
+     */
+    public static Set<String> parseIntentFields(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!INTENT_FIELDS.contains(name)) {
+                return Collections.emptySet();
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * Get the filters serializing only some fields.
+     *
+     * @param fields the fields to serialize
+     * @return the filters
+     */
+    public static FilterProvider filters(Set<String> fields) {
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    /**
+     * Mix-in applying the fields filter to a class.
+     */
+    @JsonFilter(FILTER)
+    public abstract static class FieldsFilterMixin {
+    }
+}
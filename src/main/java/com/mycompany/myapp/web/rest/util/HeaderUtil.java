@@ -10,6 +10,10 @@ public final class HeaderUtil {
 
     private static final Logger log = LoggerFactory.getLogger(HeaderUtil.class);
 
+    public static final String CORPUS_VERSION = "X-projet01App-corpus-version";
+
+    public static final String CORPUS_INSTANCE = "X-projet01App-corpus-instance";
+
     private HeaderUtil() {
     }
 
@@ -32,6 +36,43 @@ public final class HeaderUtil {
         return createAlert("A " + entityName + " is deleted with identifier " + param, param);
     }
 
+    /**
+     * Check if an Accept-Encoding header accepts a content coding, following its quality values: "gzip;q=0"
+     * refuses gzip, and "*" applies to the codings which are not listed.
+     *
+     * @param acceptEncoding the value of the header, or null if there is none
+     * @param coding the content coding, such as "gzip"
+     * @return true if the coding is accepted with a quality above 0
+     */
+    public static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcardQuality = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String name = parameters[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        return wildcardQuality > 0;
+    }
+
     public static HttpHeaders createFailureAlert(String entityName, String errorKey, String defaultMessage) {
         log.error("Entity processing failed, {}", defaultMessage);
         HttpHeaders headers = new HttpHeaders();
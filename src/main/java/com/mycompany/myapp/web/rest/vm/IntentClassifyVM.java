@@ -0,0 +1,45 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * View Model object for a batch of utterances to classify against the intents.
+ */
+public class IntentClassifyVM {
+
+    @NotNull
+    @Size(min = 1)
+    private List<String> utterances;
+
+    @Min(1)
+    @Max(100)
+    private Integer limit;
+
+    public List<String> getUtterances() {
+        return utterances;
+    }
+
+    public void setUtterances(List<String> utterances) {
+        this.utterances = utterances;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentClassifyVM{" +
+            "utterances=" + (utterances != null ? utterances.size() : null) +
+            ", limit=" + limit +
+            '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * View Model object for a text to scan for the intent patterns.
+ */
+public class IntentDetectVM {
+
+    @NotNull
+    private String text;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentDetectVM{" +
+            "text='" + text + '\'' +
+            '}';
+    }
+}
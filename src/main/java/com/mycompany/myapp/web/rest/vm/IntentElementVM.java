@@ -0,0 +1,29 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * View Model object for a pattern or a response added to an intent.
+ */
+public class IntentElementVM {
+
+    @NotNull
+    @Size(min = 1)
+    private String text;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentElementVM{" +
+            "text='" + text + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * View Model object for an utterance to match against the intents.
+ */
+public class IntentMatchVM {
+
+    @NotNull
+    private String utterance;
+
+    @Min(1)
+    @Max(100)
+    private Integer limit;
+
+    public String getUtterance() {
+        return utterance;
+    }
+
+    public void setUtterance(String utterance) {
+        this.utterance = utterance;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentMatchVM{" +
+            "utterance='" + utterance + '\'' +
+            ", limit=" + limit +
+            '}';
+    }
+}
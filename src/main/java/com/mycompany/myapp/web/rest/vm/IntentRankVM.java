@@ -0,0 +1,53 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * View Model object for an utterance to rank the intents against.
+ */
+public class IntentRankVM {
+
+    @NotNull
+    private String utterance;
+
+    @Min(1)
+    @Max(100)
+    private Integer limit;
+
+    private boolean explain;
+
+    public String getUtterance() {
+        return utterance;
+    }
+
+    public void setUtterance(String utterance) {
+        this.utterance = utterance;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+
+    @Override
+    public String toString() {
+        return "IntentRankVM{" +
+            "utterance='" + utterance + '\'' +
+            ", limit=" + limit +
+            ", explain=" + explain +
+            '}';
+    }
+}
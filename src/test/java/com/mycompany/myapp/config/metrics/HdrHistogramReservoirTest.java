@@ -0,0 +1,104 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for the HdrHistogramReservoir class.
+ *
+ * @see HdrHistogramReservoir
+ */
+public class HdrHistogramReservoirTest {
+
+    private ManualClock clock;
+
+    private HdrHistogramReservoir reservoir;
+
+    @Before
+    public void setup() {
+        clock = new ManualClock();
+        reservoir = new HdrHistogramReservoir(60, TimeUnit.SECONDS, 6, 3, clock);
+    }
+
+    @Test
+    public void testTailPercentilesAreNotSampledOut() {
+        for (int i = 1; i <= 100_000; i++) {
+            reservoir.update(i);
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(100_000);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMedian()).isCloseTo(50_000, within(50.0));
+        assertThat(snapshot.get99thPercentile()).isCloseTo(99_000, within(99.0));
+        assertThat(snapshot.get999thPercentile()).isCloseTo(99_900, within(100.0));
+        assertThat(snapshot.getMax()).isCloseTo(100_000, within(100L));
+    }
+
+    @Test
+    public void testValuesExpireWhenTheWindowSlides() {
+        reservoir.update(1000);
+        clock.advance(30, TimeUnit.SECONDS);
+        reservoir.update(2000);
+
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(2);
+
+        clock.advance(35, TimeUnit.SECONDS);
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.getMin()).isCloseTo(2000, within(2L));
+
+        clock.advance(10, TimeUnit.MINUTES);
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(0);
+        assertThat(reservoir.getSnapshot().getMax()).isEqualTo(0);
+    }
+
+    @Test
+    public void testSnapshotValues() {
+        reservoir.update(5);
+        reservoir.update(5);
+        reservoir.update(7);
+
+        assertThat(reservoir.getSnapshot().getValues()).containsExactly(5, 5, 7);
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilTheWindowChanges() {
+        reservoir.update(5);
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(reservoir.getSnapshot()).isSameAs(snapshot);
+        assertThat(reservoir.size()).isEqualTo(1);
+
+        reservoir.update(7);
+        Snapshot updated = reservoir.getSnapshot();
+        assertThat(updated).isNotSameAs(snapshot);
+        assertThat(updated.size()).isEqualTo(2);
+        assertThat(snapshot.size()).isEqualTo(1);
+
+        clock.advance(2, TimeUnit.MINUTES);
+        assertThat(reservoir.getSnapshot()).isNotSameAs(updated);
+        assertThat(reservoir.size()).isEqualTo(0);
+    }
+
+    private static class ManualClock extends Clock {
+
+        private long tick;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            tick += unit.toNanos(duration);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mycompany.myapp.config.ApplicationProperties;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the MongoCommandMetricsListener class.
+ *
+ * @see MongoCommandMetricsListener
+ */
+public class MongoCommandMetricsListenerTest {
+
+    private static final String PREFIX = MongoCommandMetricsListener.class.getName();
+
+    private final ConnectionDescription connection =
+        new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private MetricRegistry metricRegistry;
+
+    private MongoCommandMetricsListener listener;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        ApplicationProperties.MongoMetrics properties = new ApplicationProperties.MongoMetrics();
+        // measure every payload
+        properties.setPayloadSampling(1);
+        listener = new MongoCommandMetricsListener(metricRegistry, properties);
+    }
+
+    @Test
+    public void testRecordsLatencyAndPayloadsPerCommandAndCollection() {
+        BsonDocument find = new BsonDocument("find", new BsonString("intent"))
+            .append("filter", new BsonDocument("tag", new BsonString("greeting")));
+        BsonDocument response = new BsonDocument("ok", new BsonInt32(1));
+
+        listener.commandStarted(new CommandStartedEvent(1, connection, "test", "find", find));
+        listener.commandSucceeded(new CommandSucceededEvent(1, connection, "find", response,
+            TimeUnit.MILLISECONDS.toNanos(3)));
+
+        assertThat(metricRegistry.timer(PREFIX + ".find.intent.latency").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer(PREFIX + ".find.intent.latency").getSnapshot().getMax())
+            .isBetween(TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(4));
+        assertThat(metricRegistry.histogram(PREFIX + ".find.intent.request-bytes").getSnapshot().getMax())
+            .isGreaterThan(0);
+        assertThat(metricRegistry.histogram(PREFIX + ".find.intent.response-bytes").getSnapshot().getMax())
+            .isGreaterThan(0);
+        assertThat(metricRegistry.counter(PREFIX + ".find.intent.failures").getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testFindsCollectionOfGetMoreAndCommandsWithoutCollection() {
+        BsonDocument getMore = new BsonDocument("getMore", new BsonInt64(42))
+            .append("collection", new BsonString("intent"));
+        BsonDocument isMaster = new BsonDocument("isMaster", new BsonInt32(1));
+
+        listener.commandStarted(new CommandStartedEvent(1, connection, "test", "getMore", getMore));
+        listener.commandStarted(new CommandStartedEvent(2, connection, "admin", "isMaster", isMaster));
+        listener.commandSucceeded(new CommandSucceededEvent(2, connection, "isMaster", isMaster, 1000));
+        listener.commandSucceeded(new CommandSucceededEvent(1, connection, "getMore", isMaster, 1000));
+
+        assertThat(metricRegistry.timer(PREFIX + ".getMore.intent.latency").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer(PREFIX + ".isMaster.-.latency").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCountsFailures() {
+        BsonDocument insert = new BsonDocument("insert", new BsonString("intent"));
+
+        listener.commandStarted(new CommandStartedEvent(1, connection, "test", "insert", insert));
+        listener.commandFailed(new CommandFailedEvent(1, connection, "insert", 1000, new MongoException("duplicate key")));
+        // an event without started event is ignored
+        listener.commandFailed(new CommandFailedEvent(2, connection, "insert", 1000, new MongoException("unknown")));
+
+        assertThat(metricRegistry.counter(PREFIX + ".insert.intent.failures").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer(PREFIX + ".insert.intent.latency").getCount()).isEqualTo(1);
+    }
+}
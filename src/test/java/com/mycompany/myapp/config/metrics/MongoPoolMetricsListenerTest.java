@@ -0,0 +1,91 @@
+package com.mycompany.myapp.config.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mycompany.myapp.config.ApplicationProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the MongoPoolMetricsListener and MongoPoolHealthIndicator classes.
+ *
+ * @see MongoPoolMetricsListener
+ * @see MongoPoolHealthIndicator
+ */
+public class MongoPoolMetricsListenerTest {
+
+    private static final String PREFIX = MongoPoolMetricsListener.class.getName();
+
+    private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress());
+
+    private MetricRegistry metricRegistry;
+
+    private MongoPoolMetricsListener listener;
+
+    private MongoPoolHealthIndicator healthIndicator;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        listener = new MongoPoolMetricsListener(metricRegistry, new ApplicationProperties.MongoMetrics());
+        healthIndicator = new MongoPoolHealthIndicator(listener, 0.75);
+        listener.connectionPoolOpened(new ConnectionPoolOpenedEvent(serverId,
+            ConnectionPoolSettings.builder().maxSize(4).maxWaitQueueSize(20).build()));
+    }
+
+    @Test
+    public void testPublishesPoolGauges() {
+        ConnectionId connection = new ConnectionId(serverId);
+        listener.connectionAdded(new ConnectionAddedEvent(connection));
+        listener.connectionAdded(new ConnectionAddedEvent(new ConnectionId(serverId)));
+        listener.waitQueueEntered(new ConnectionPoolWaitQueueEnteredEvent(serverId));
+
+        assertThat(metricRegistry.getGauges().get(PREFIX + ".wait-queue").getValue()).isEqualTo(1);
+
+        listener.waitQueueExited(new ConnectionPoolWaitQueueExitedEvent(serverId));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+
+        assertThat(metricRegistry.getGauges().get(PREFIX + ".size").getValue()).isEqualTo(2);
+        assertThat(metricRegistry.getGauges().get(PREFIX + ".checked-out").getValue()).isEqualTo(1);
+        assertThat(metricRegistry.getGauges().get(PREFIX + ".wait-queue").getValue()).isEqualTo(0);
+        assertThat(metricRegistry.getGauges().get(PREFIX + ".saturation").getValue()).isEqualTo(0.25);
+        assertThat(metricRegistry.timer(PREFIX + ".wait").getCount()).isEqualTo(1);
+
+        listener.connectionCheckedIn(new ConnectionCheckedInEvent(connection));
+
+        assertThat(metricRegistry.getGauges().get(PREFIX + ".checked-out").getValue()).isEqualTo(0);
+    }
+
+    @Test
+    public void testHealthDegradesWhenPoolSaturates() {
+        ConnectionId connection = new ConnectionId(serverId);
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(MongoPoolHealthIndicator.DEGRADED);
+        assertThat(health.getDetails()).containsKey(serverId.getAddress().toString());
+
+        listener.connectionCheckedIn(new ConnectionCheckedInEvent(connection));
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
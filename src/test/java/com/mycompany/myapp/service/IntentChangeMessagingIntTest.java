@@ -0,0 +1,122 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.Projet01App;
+import com.mycompany.myapp.config.SecurityBeanOverrideConfiguration;
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.dto.IntentChangeDTO;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.dto.IntentMatchDTO;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.messaging.Sink;
+import org.springframework.cloud.stream.messaging.Source;
+import org.springframework.cloud.stream.test.binder.MessageCollector;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the propagation of intent changes between instances, over the test binder.
+ *
+ * @see IntentChangePublisher
+ * @see IntentChangeConsumer
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Projet01App.class, SecurityBeanOverrideConfiguration.class})
+public class IntentChangeMessagingIntTest {
+
+    private static final String DEFAULT_TAG = "AAAAAAAAAA";
+    private static final String OTHER_ORIGIN = "other-instance";
+
+    @Autowired
+    private Source source;
+
+    @Autowired
+    private Sink sink;
+
+    @Autowired
+    private MessageCollector messageCollector;
+
+    @Autowired
+    private IntentRepository intentRepository;
+
+    @Autowired
+    private IntentService intentService;
+
+    @Autowired
+    private IntentMatchingService intentMatchingService;
+
+    @Before
+    public void initTest() {
+        intentRepository.deleteAll();
+        intentService.reloadCorpus();
+        messageCollector.forChannel(source.output()).clear();
+    }
+
+    @Test
+    public void publishChangeOnSave() throws Exception {
+        IntentDTO intentDTO = new IntentDTO();
+        intentDTO.setTag(DEFAULT_TAG);
+        intentService.save(intentDTO);
+
+        Message<?> message = messageCollector.forChannel(source.output()).poll();
+        assertThat(message).isNotNull();
+        assertThat(payloadAsString(message)).contains(DEFAULT_TAG).contains(IntentChangeDTO.Operation.SAVE.name());
+    }
+
+    @Test
+    public void publishChangeOnDelete() throws Exception {
+        intentService.delete(DEFAULT_TAG);
+
+        Message<?> message = messageCollector.forChannel(source.output()).poll();
+        assertThat(message).isNotNull();
+        assertThat(payloadAsString(message)).contains(DEFAULT_TAG).contains(IntentChangeDTO.Operation.DELETE.name());
+    }
+
+    @Test
+    public void refreshOnChangeFromOtherInstance() throws Exception {
+        // Another instance creates the intent
+        Intent intent = new Intent().tag(DEFAULT_TAG);
+        intent.setPatterns(Collections.singletonList("first pattern"));
+        intentRepository.save(intent);
+        assertThat(intentMatchingService.match("first pattern", 1)).isEmpty();
+        sink.input().send(MessageBuilder.withPayload(
+            new IntentChangeDTO(DEFAULT_TAG, 1L, IntentChangeDTO.Operation.SAVE, OTHER_ORIGIN)).build());
+        assertThat(intentMatchingService.match("first pattern", 1))
+            .extracting(IntentMatchDTO::getTag).containsExactly(DEFAULT_TAG);
+        assertThat(intentService.findOne(DEFAULT_TAG).getPatterns()).containsExactly("first pattern");
+
+        // Another instance updates the intent, which is cached here
+        intent.setPatterns(Collections.singletonList("second pattern"));
+        intentRepository.save(intent);
+        sink.input().send(MessageBuilder.withPayload(
+            new IntentChangeDTO(DEFAULT_TAG, 2L, IntentChangeDTO.Operation.SAVE, OTHER_ORIGIN)).build());
+        assertThat(intentService.findOne(DEFAULT_TAG).getPatterns()).containsExactly("second pattern");
+        assertThat(intentMatchingService.match("first", 1)).isEmpty();
+
+        // Another instance deletes the intent
+        intentRepository.deleteByTag(DEFAULT_TAG);
+        sink.input().send(MessageBuilder.withPayload(
+            new IntentChangeDTO(DEFAULT_TAG, 3L, IntentChangeDTO.Operation.DELETE, OTHER_ORIGIN)).build());
+        assertThat(intentService.findOne(DEFAULT_TAG)).isNull();
+        assertThat(intentMatchingService.match("second pattern", 1)).isEmpty();
+    }
+
+    private static String payloadAsString(Message<?> message) {
+        Object payload = message.getPayload();
+        if (payload instanceof byte[]) {
+            return new String((byte[]) payload, StandardCharsets.UTF_8);
+        }
+        return payload.toString();
+    }
+}
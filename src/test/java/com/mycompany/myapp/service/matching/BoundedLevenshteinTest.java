@@ -0,0 +1,102 @@
+package com.mycompany.myapp.service.matching;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the BoundedLevenshtein class.
+ *
+ * @see BoundedLevenshtein
+ */
+public class BoundedLevenshteinTest {
+
+    private BoundedLevenshtein levenshtein;
+
+    @Before
+    public void setup() {
+        levenshtein = new BoundedLevenshtein();
+    }
+
+    @Test
+    public void testComputesSmallDistances() {
+        levenshtein.setPattern("bonjour");
+
+        assertThat(levenshtein.distance("bonjour", 2)).isEqualTo(0);
+        assertThat(levenshtein.distance("bonjur", 2)).isEqualTo(1);
+        assertThat(levenshtein.distance("bnojour", 2)).isEqualTo(2);
+        assertThat(levenshtein.distance("bonsoir", 2)).isEqualTo(2);
+        assertThat(levenshtein.distance("au revoir", 2)).isEqualTo(3);
+        assertThat(levenshtein.distance("bon", 2)).isEqualTo(3);
+    }
+
+    @Test
+    public void testHandlesCharactersOutsideLatin1() {
+        levenshtein.setPattern("Жук");
+
+        assertThat(levenshtein.distance("Жук", 1)).isEqualTo(0);
+        assertThat(levenshtein.distance("Жк", 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void testMatchesDynamicProgramming() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            // patterns longer than 64 characters use the dynamic programming fallback
+            String pattern = randomText(random, random.nextInt(i % 10 == 0 ? 100 : 20));
+            String text = random.nextBoolean() ? mutate(random, pattern) : randomText(random, random.nextInt(20));
+            int maxDistance = random.nextInt(4);
+            levenshtein.setPattern(pattern);
+            int expected = Math.min(reference(pattern, text), maxDistance + 1);
+            assertThat(levenshtein.distance(text, maxDistance)).as("%s / %s", pattern, text).isEqualTo(expected);
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(4)));
+        }
+        return text.toString();
+    }
+
+    private static String mutate(Random random, String text) {
+        StringBuilder mutated = new StringBuilder(text);
+        for (int edits = random.nextInt(4); edits > 0; edits--) {
+            int position = random.nextInt(mutated.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    mutated.insert(position, (char) ('a' + random.nextInt(4)));
+                    break;
+                case 1:
+                    if (position < mutated.length()) {
+                        mutated.deleteCharAt(position);
+                    }
+                    break;
+                default:
+                    if (position < mutated.length()) {
+                        mutated.setCharAt(position, (char) ('a' + random.nextInt(4)));
+                    }
+            }
+        }
+        return mutated.toString();
+    }
+
+    private static int reference(String a, String b) {
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    int substitution = distances[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                    distances[i][j] = Math.min(substitution, Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+        return distances[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,63 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentFuzzyMatchDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the FuzzyPatternIndex class.
+ *
+ * @see FuzzyPatternIndex
+ */
+public class FuzzyPatternIndexTest {
+
+    private FuzzyPatternIndex index;
+
+    @Before
+    public void setup() {
+        index = new FuzzyPatternIndex();
+        index.reload(Arrays.asList(
+            intent("1", "greeting", "hi", "hey", "hello there"),
+            intent("2", "goodbye", "bye", "goodbye"),
+            intent("3", "thanks", "thanks", "thank you")));
+    }
+
+    @Test
+    public void testFindsLongQueriesThroughTrigrams() {
+        assertThat(index.find("helo ther", 2, 10))
+            .extracting(IntentFuzzyMatchDTO::getPattern).containsExactly("hello there");
+        assertThat(index.find("thnak you", 2, 10).get(0).getTags()).containsExactly("thanks");
+    }
+
+    @Test
+    public void testFindsShortQueriesByLength() {
+        // too short for the trigrams to exclude anything: only the patterns of 1 to 5 characters are compared
+        assertThat(index.find("hye", 2, 10))
+            .extracting(IntentFuzzyMatchDTO::getPattern).containsExactly("bye", "hey", "hi");
+        assertThat(index.find("zzz", 2, 10)).isEmpty();
+    }
+
+    @Test
+    public void testForgetsRemovedPatterns() {
+        index.putAll(Collections.singletonList(intent("2", "goodbye", "see you")));
+        index.remove("greeting");
+
+        assertThat(index.find("bye", 1, 10)).isEmpty();
+        assertThat(index.find("hey", 2, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static Intent intent(String id, String tag, String... patterns) {
+        Intent intent = new Intent();
+        intent.setId(id);
+        intent.setTag(tag);
+        intent.setPatterns(Arrays.asList(patterns));
+        return intent;
+    }
+}
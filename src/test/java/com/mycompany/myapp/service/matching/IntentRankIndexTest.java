@@ -0,0 +1,144 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentRankDTO;
+import com.mycompany.myapp.service.dto.IntentRankTermDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for the IntentRankIndex class.
+ *
+ * @see IntentRankIndex
+ */
+public class IntentRankIndexTest {
+
+    private IntentRankIndex index;
+
+    @Before
+    public void setup() {
+        index = new IntentRankIndex();
+        index.reload(Arrays.asList(
+            intent("1", "greeting", "hello there", "good morning"),
+            intent("2", "goodbye", "goodbye", "see you later", "good night"),
+            intent("3", "weather", "what is the weather", "is it sunny")));
+    }
+
+    @Test
+    public void testScoresWithBm25() {
+        List<IntentRankDTO> ranks = index.rank("good morning", 10, false);
+
+        assertThat(ranks).extracting(IntentRankDTO::getTag).containsExactly("greeting", "goodbye");
+        double averageLength = 17 / 3.0;
+        double good = Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5));
+        double morning = Math.log(1 + (3 - 1 + 0.5) / (1 + 0.5));
+        double norm = IntentRankIndex.K1 * (1 - IntentRankIndex.B + IntentRankIndex.B * 4 / averageLength);
+        double expected = (good + morning) * (IntentRankIndex.K1 + 1) / (1 + norm);
+        assertThat(ranks.get(0).getScore()).isCloseTo(expected, within(1e-9));
+        assertThat(ranks.get(0).getTerms()).isNull();
+    }
+
+    @Test
+    public void testExplainsTermContributions() {
+        IntentRankDTO rank = index.rank("good morning, unknown", 1, true).get(0);
+
+        assertThat(rank.getTerms()).extracting(IntentRankTermDTO::getToken).containsExactly("good", "morning");
+        assertThat(rank.getTerms()).extracting(IntentRankTermDTO::getDocumentFrequency).containsExactly(2, 1);
+        double sum = rank.getTerms().stream().mapToDouble(IntentRankTermDTO::getScore).sum();
+        assertThat(sum).isCloseTo(rank.getScore(), within(1e-9));
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchReload() {
+        index.putAll(Collections.singletonList(intent("2", "farewell", "bye bye", "good evening")));
+        index.remove("weather");
+        index.putAll(Collections.singletonList(intent("4", "thanks", "thank you", "good job")));
+
+        IntentRankIndex reloaded = new IntentRankIndex();
+        reloaded.reload(Arrays.asList(
+            intent("1", "greeting", "hello there", "good morning"),
+            intent("2", "farewell", "bye bye", "good evening"),
+            intent("4", "thanks", "thank you", "good job")));
+        assertThat(index.size()).isEqualTo(3);
+        for (String utterance : Arrays.asList("good", "good bye", "see you", "what is the weather", "thank you")) {
+            List<IntentRankDTO> expected = reloaded.rank(utterance, 10, false);
+            List<IntentRankDTO> actual = index.rank(utterance, 10, false);
+            assertThat(actual).extracting(IntentRankDTO::getTag)
+                .containsExactlyElementsOf(expected.stream().map(IntentRankDTO::getTag).collect(Collectors.toList()));
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(actual.get(i).getScore()).isCloseTo(expected.get(i).getScore(), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void testLimitsToBestIntents() {
+        List<IntentRankDTO> ranks = index.rank("good morning", 1, false);
+
+        assertThat(ranks).extracting(IntentRankDTO::getTag).containsExactly("greeting");
+        assertThat(index.rank("nothing known", 10, false)).isEmpty();
+    }
+
+    @Test
+    public void testPrunedRankingIsIdenticalToExhaustiveRanking() {
+        Random random = new Random(42);
+        List<Intent> corpus = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            corpus.add(randomIntent(random, i));
+        }
+        index.reload(corpus);
+        for (int i = 0; i < 200; i++) {
+            // keep updating the corpus, so that ordinals are reused and bounds recomputed
+            index.putAll(Collections.singletonList(randomIntent(random, random.nextInt(2500))));
+            index.remove("intent-" + random.nextInt(2500));
+            String utterance = sentence(random, 1 + random.nextInt(8));
+            for (int limit : new int[] {1, 5, 50}) {
+                List<IntentRankDTO> expected = index.rankExhaustively(utterance, limit, false);
+                List<IntentRankDTO> actual = index.rank(utterance, limit, false);
+                assertThat(actual).hasSameSizeAs(expected);
+                for (int r = 0; r < expected.size(); r++) {
+                    assertThat(actual.get(r).getTag()).isEqualTo(expected.get(r).getTag());
+                    assertThat(actual.get(r).getScore()).isEqualTo(expected.get(r).getScore());
+                }
+            }
+        }
+    }
+
+    private static Intent randomIntent(Random random, int number) {
+        String[] patterns = new String[1 + random.nextInt(5)];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = sentence(random, 1 + random.nextInt(6));
+        }
+        return intent(String.valueOf(number), "intent-" + number, patterns);
+    }
+
+    /**
+     * Build a sentence from a small Zipf-like vocabulary, so that a few terms are very common.
+     */
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int word = (int) Math.floor(Math.pow(300, random.nextDouble()));
+            sentence.append(" w").append(word);
+        }
+        return sentence.toString();
+    }
+
+    private static Intent intent(String id, String tag, String... patterns) {
+        Intent intent = new Intent();
+        intent.setId(id);
+        intent.setTag(tag);
+        intent.setPatterns(Arrays.asList(patterns));
+        return intent;
+    }
+}
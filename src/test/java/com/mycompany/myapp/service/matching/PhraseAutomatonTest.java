@@ -0,0 +1,124 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentPhraseDTO;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the PhraseAutomaton class.
+ *
+ * @see PhraseAutomaton
+ */
+public class PhraseAutomatonTest {
+
+    @Test
+    public void testDetectsOverlappingPhrases() {
+        PhraseAutomaton automaton = PhraseAutomaton.build(Arrays.asList(
+            intent("x", "red apple"),
+            intent("y", "apple pie recipe"),
+            intent("z", "PIE")));
+
+        List<IntentPhraseDTO> detected = automaton.detect("A red apple pie recipe");
+
+        assertThat(detected).extracting(IntentPhraseDTO::getTag).containsExactly("x", "z", "y");
+        assertThat(detected).extracting(IntentPhraseDTO::getPosition).containsExactly(1, 3, 2);
+        assertThat(detected).extracting(IntentPhraseDTO::getPhrase).containsExactly("red apple", "pie", "apple pie recipe");
+    }
+
+    @Test
+    public void testFollowsFailureAndDictionaryLinks() {
+        PhraseAutomaton automaton = PhraseAutomaton.build(Arrays.asList(
+            intent("repeat", "very very good"),
+            intent("short", "good"),
+            intent("long", "very good news")));
+
+        // "very very very good" only matches "very very good" through the failure of "very very" on "very"
+        assertThat(automaton.detect("very very very good")).extracting(IntentPhraseDTO::getTag)
+            .containsExactly("repeat", "short");
+        // "good" ends inside "very good news", and is reported through the dictionary link
+        assertThat(automaton.detect("very good stuff")).extracting(IntentPhraseDTO::getTag)
+            .containsExactly("short");
+        assertThat(automaton.detect("nothing to see")).isEmpty();
+    }
+
+    @Test
+    public void testReportsTheFirstPhraseOfEveryTag() {
+        PhraseAutomaton automaton = PhraseAutomaton.build(Arrays.asList(
+            intent("greeting", "hello", "good morning", "Hello")));
+
+        List<IntentPhraseDTO> detected = automaton.detect("good morning, hello, good morning");
+
+        assertThat(automaton.phraseCount()).isEqualTo(2);
+        assertThat(detected).hasSize(1);
+        assertThat(detected.get(0).getPhrase()).isEqualTo("good morning");
+        assertThat(detected.get(0).getPosition()).isEqualTo(0);
+    }
+
+    @Test
+    public void testEmptyAutomaton() {
+        PhraseAutomaton automaton = PhraseAutomaton.build(Collections.emptyList());
+
+        assertThat(automaton.size()).isEqualTo(1);
+        assertThat(automaton.detect("hello")).isEmpty();
+        assertThat(automaton.detect(null)).isEmpty();
+    }
+
+    @Test
+    public void testMatchesNaiveScan() {
+        Random random = new Random(42);
+        String[] words = {"a", "b", "c", "d"};
+        for (int round = 0; round < 200; round++) {
+            List<Intent> intents = new ArrayList<>();
+            for (int t = 0; t < 5; t++) {
+                String[] patterns = new String[1 + random.nextInt(3)];
+                for (int p = 0; p < patterns.length; p++) {
+                    patterns[p] = randomText(random, words, 1 + random.nextInt(3));
+                }
+                intents.add(intent("tag" + t, patterns));
+            }
+            String text = randomText(random, words, 30);
+            Map<String, Integer> detectedEnds = PhraseAutomaton.build(intents).detect(text).stream()
+                .collect(Collectors.toMap(IntentPhraseDTO::getTag,
+                    phrase -> phrase.getPosition() + phrase.getPhrase().split(" ").length - 1));
+
+            assertThat(detectedEnds).isEqualTo(naiveFirstEnds(intents, text));
+        }
+    }
+
+    private static Map<String, Integer> naiveFirstEnds(List<Intent> intents, String text) {
+        String[] tokens = text.split(" ");
+        Map<String, Integer> ends = new HashMap<>();
+        for (Intent intent : intents) {
+            for (String pattern : intent.getPatterns()) {
+                String[] phrase = pattern.split(" ");
+                for (int start = 0; start + phrase.length <= tokens.length; start++) {
+                    if (Arrays.equals(phrase, Arrays.copyOfRange(tokens, start, start + phrase.length))) {
+                        ends.merge(intent.getTag(), start + phrase.length - 1, Math::min);
+                        break;
+                    }
+                }
+            }
+        }
+        return ends;
+    }
+
+    private static String randomText(Random random, String[] words, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(i > 0 ? " " : "").append(words[random.nextInt(words.length)]);
+        }
+        return text.toString();
+    }
+
+    private static Intent intent(String tag, String... patterns) {
+        Intent intent = new Intent();
+        intent.setTag(tag);
+        intent.setPatterns(Arrays.asList(patterns));
+        return intent;
+    }
+}
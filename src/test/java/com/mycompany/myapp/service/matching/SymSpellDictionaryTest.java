@@ -0,0 +1,63 @@
+package com.mycompany.myapp.service.matching;
+
+import com.mycompany.myapp.service.dto.SpellSuggestionDTO;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the SymSpellDictionary class.
+ *
+ * @see SymSpellDictionary
+ */
+public class SymSpellDictionaryTest {
+
+    @Test
+    public void testFindsClosestThenMostFrequentWord() {
+        Map<String, Integer> words = new HashMap<>();
+        words.put("commande", 10);
+        words.put("command", 1);
+        words.put("livraison", 5);
+        words.put("price", 3);
+        words.put("prize", 7);
+        words.put("facture", 3);
+        SymSpellDictionary dictionary = SymSpellDictionary.build(words, 2, 7, 1000);
+
+        assertThat(dictionary.lookup("commande", 2).getDistance()).isEqualTo(0);
+        SpellSuggestionDTO suggestion = dictionary.lookup("comande", 2);
+        assertThat(suggestion.getSuggestion()).isEqualTo("commande");
+        assertThat(suggestion.getDistance()).isEqualTo(1);
+        assertThat(dictionary.lookup("livriason", 2).getSuggestion()).isEqualTo("livraison");
+        // both are at distance 1, the most frequent wins
+        assertThat(dictionary.lookup("prise", 2).getSuggestion()).isEqualTo("prize");
+        assertThat(dictionary.lookup("fcature", 2).getSuggestion()).isEqualTo("facture");
+        assertThat(dictionary.lookup("fature", 1).getSuggestion()).isEqualTo("facture");
+        assertThat(dictionary.lookup("xyz", 2)).isNull();
+    }
+
+    @Test
+    public void testCorrectsBeyondThePrefix() {
+        Map<String, Integer> words = new HashMap<>();
+        words.put("disponibilite", 1);
+        SymSpellDictionary dictionary = SymSpellDictionary.build(words, 2, 7, 1000);
+
+        assertThat(dictionary.lookup("disponibilitee", 2).getSuggestion()).isEqualTo("disponibilite");
+        assertThat(dictionary.lookup("disponbilite", 2).getSuggestion()).isEqualTo("disponibilite");
+    }
+
+    @Test
+    public void testKeepsTheMostFrequentWords() {
+        Map<String, Integer> words = new HashMap<>();
+        words.put("hello", 5);
+        words.put("help", 1);
+        SymSpellDictionary dictionary = SymSpellDictionary.build(words, 2, 7, 1);
+
+        assertThat(dictionary.size()).isEqualTo(1);
+        assertThat(dictionary.lookup("help", 0)).isNull();
+        assertThat(dictionary.lookup("hallo", 1).getSuggestion()).isEqualTo("hello");
+        assertThat(dictionary.estimatedBytes()).isPositive();
+    }
+}
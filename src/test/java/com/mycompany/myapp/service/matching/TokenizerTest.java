@@ -0,0 +1,86 @@
+package com.mycompany.myapp.service.matching;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the Tokenizer class.
+ *
+ * @see Tokenizer
+ */
+public class TokenizerTest {
+
+    private TokenVocabulary vocabulary;
+
+    private Tokenizer tokenizer;
+
+    @Before
+    public void setup() {
+        vocabulary = new TokenVocabulary();
+        tokenizer = new Tokenizer();
+    }
+
+    @Test
+    public void testFoldsAccentsCaseAndLigatures() {
+        int count = tokenizer.tokenize("Où est l'ŒUVRE d'Éloïse ?", vocabulary, true);
+
+        assertThat(count).isEqualTo(6);
+        assertThat(tokens(count)).containsExactlyInAnyOrder("ou", "est", "l", "oeuvre", "d", "eloise");
+    }
+
+    @Test
+    public void testIgnoresCombiningMarks() {
+        int known = tokenizer.tokenize("cafe", vocabulary, true);
+        int id = tokenizer.ids()[0];
+
+        assertThat(known).isEqualTo(1);
+        assertThat(tokenizer.tokenize("café", vocabulary, false)).isEqualTo(1);
+        assertThat(tokenizer.ids()[0]).isEqualTo(id);
+    }
+
+    @Test
+    public void testSortsAndRemovesDuplicates() {
+        tokenizer.tokenize("alpha beta gamma", vocabulary, true);
+
+        int count = tokenizer.tokenize("gamma, Alpha! alpha gamma beta", vocabulary, false);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(Arrays.copyOf(tokenizer.ids(), count)).isSorted().containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void testUnknownTokensGetNegativeIds() {
+        tokenizer.tokenize("hello", vocabulary, true);
+
+        int count = tokenizer.tokenize("hello world world", vocabulary, false);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(tokenizer.ids()[0]).isNegative();
+        assertThat(tokenizer.ids()[1]).isEqualTo(vocabulary.lookup("hello"));
+        assertThat(vocabulary.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testVocabularyGrows() {
+        for (int i = 0; i < 10_000; i++) {
+            tokenizer.tokenize("token" + i, vocabulary, true);
+        }
+
+        assertThat(vocabulary.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(vocabulary.token(vocabulary.lookup("token" + i))).isEqualTo("token" + i);
+        }
+    }
+
+    private String[] tokens(int count) {
+        String[] tokens = new String[count];
+        for (int i = 0; i < count; i++) {
+            tokens[i] = vocabulary.token(tokenizer.ids()[i]);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.myapp.service.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the PersistentHashMap class.
+ *
+ * @see PersistentHashMap
+ */
+public class PersistentHashMapTest {
+
+    @Test
+    public void testUpdatesLeavePreviousVersionsUnchanged() {
+        PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+        PersistentHashMap<String, Integer> one = empty.plus("a", 1);
+        PersistentHashMap<String, Integer> two = one.plus("b", 2);
+        PersistentHashMap<String, Integer> replaced = two.plus("a", 3);
+        PersistentHashMap<String, Integer> removed = replaced.minus("b");
+
+        assertThat(empty.size()).isEqualTo(0);
+        assertThat(empty.get("a")).isNull();
+        assertThat(one.size()).isEqualTo(1);
+        assertThat(two.get("a")).isEqualTo(1);
+        assertThat(two.get("b")).isEqualTo(2);
+        assertThat(replaced.size()).isEqualTo(2);
+        assertThat(replaced.get("a")).isEqualTo(3);
+        assertThat(removed.size()).isEqualTo(1);
+        assertThat(removed.get("b")).isNull();
+        assertThat(removed.values()).containsExactly(3);
+    }
+
+    @Test
+    public void testUnchangedMapIsReturned() {
+        Integer value = 1;
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().plus("a", value);
+
+        assertThat(map.plus("a", value)).isSameAs(map);
+        assertThat(map.minus("b")).isSameAs(map);
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(42);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int operation = 0; operation < 100000; operation++) {
+            // five keys share every hash, so that they also collide on all the bits
+            Key key = new Key(random.nextInt(5000));
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, operation);
+                map = map.plus(key, operation);
+            }
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        Map<Key, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static final class Key {
+
+        private final int id;
+
+        Key(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 1000;
+        }
+    }
+}
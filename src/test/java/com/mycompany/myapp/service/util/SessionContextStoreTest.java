@@ -0,0 +1,90 @@
+package com.mycompany.myapp.service.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the SessionContextStore class.
+ *
+ * @see SessionContextStore
+ */
+public class SessionContextStoreTest {
+
+    private AtomicLong clock;
+
+    private SessionContextStore store;
+
+    @Before
+    public void setup() {
+        clock = new AtomicLong(1_000_000L);
+        store = new SessionContextStore(4, 60, TimeUnit.SECONDS, clock::get);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        store.put("session-1", "order");
+        store.put("session-2", null);
+
+        assertThat(store.get("session-1")).isEqualTo("order");
+        assertThat(store.get("session-2")).isNull();
+        assertThat(store.get("unknown")).isNull();
+        assertThat(store.size()).isEqualTo(2);
+
+        store.put("session-1", "delivery");
+        assertThat(store.get("session-1")).isEqualTo("delivery");
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testSessionsExpireWithoutAccess() {
+        store.put("idle", "order");
+        store.put("active", "order");
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(40));
+        assertThat(store.get("active")).isEqualTo("order");
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(40));
+
+        assertThat(store.get("idle")).isNull();
+        assertThat(store.get("active")).isEqualTo("order");
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEvictExpired() {
+        for (int i = 0; i < 10_000; i++) {
+            store.put("expired-" + i, "ctx-" + (i % 10));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(30));
+        for (int i = 0; i < 10_000; i++) {
+            store.put("live-" + i, "ctx-" + (i % 10));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(45));
+
+        assertThat(store.evictExpired()).isEqualTo(10_000);
+        assertThat(store.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(store.get("live-" + i)).isEqualTo("ctx-" + (i % 10));
+        }
+    }
+
+    @Test
+    public void testRemoveKeepsOtherSessionsReachable() {
+        for (int i = 0; i < 10_000; i++) {
+            store.put("session-" + i, "ctx-" + i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertThat(store.remove("session-" + i)).isTrue();
+        }
+
+        assertThat(store.remove("session-0")).isFalse();
+        assertThat(store.size()).isEqualTo(5_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(store.get("session-" + i)).isEqualTo(i % 2 == 0 ? null : "ctx-" + i);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.Projet01App;
+
+import com.mycompany.myapp.config.SecurityBeanOverrideConfiguration;
+
+import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.ConversationContextService;
+import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.web.rest.errors.ExceptionTranslator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the ConversationContextResource REST controller.
+ *
+ * @see ConversationContextResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Projet01App.class, SecurityBeanOverrideConfiguration.class})
+public class ConversationContextResourceIntTest {
+
+    @Autowired
+    private IntentRepository intentRepository;
+
+    @Autowired
+    private IntentService intentService;
+
+    @Autowired
+    private ConversationContextService conversationContextService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restConversationContextMockMvc;
+
+    private String sessionId;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        ConversationContextResource conversationContextResource = new ConversationContextResource(conversationContextService);
+        this.restConversationContextMockMvc = MockMvcBuilders.standaloneSetup(conversationContextResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    /**
+     * Create an intent DTO for this test.
+     */
+    public static IntentDTO createIntentDTO(String tag, String contextSet, String contextFilter) {
+        IntentDTO intentDTO = new IntentDTO();
+        intentDTO.setTag(tag);
+        intentDTO.setContext_set(contextSet);
+        intentDTO.setContext_filter(contextFilter);
+        return intentDTO;
+    }
+
+    @Before
+    public void initTest() {
+        intentRepository.deleteAll();
+        intentService.reloadCorpus();
+        intentService.save(createIntentDTO("greeting", null, null));
+        intentService.save(createIntentDTO("order", "ordering", null));
+        intentService.save(createIntentDTO("orderSize", null, "ordering"));
+        intentService.save(createIntentDTO("rentalDuration", null, "renting"));
+        sessionId = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void getEligibleIntentsWithoutContext() throws Exception {
+        restConversationContextMockMvc.perform(get("/api/sessions/{sessionId}/intents", sessionId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].tag").value(containsInAnyOrder("greeting", "order")));
+    }
+
+    @Test
+    public void applyIntentSetsContext() throws Exception {
+        restConversationContextMockMvc.perform(post("/api/sessions/{sessionId}/intents/{tag}", sessionId, "order"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.sessionId").value(sessionId))
+            .andExpect(jsonPath("$.context").value("ordering"));
+
+        restConversationContextMockMvc.perform(get("/api/sessions/{sessionId}/intents", sessionId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].tag").value(containsInAnyOrder("greeting", "order", "orderSize")));
+
+        // An intent without context_set keeps the context
+        restConversationContextMockMvc.perform(post("/api/sessions/{sessionId}/intents/{tag}", sessionId, "greeting"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.context").value("ordering"));
+    }
+
+    @Test
+    public void applyNonExistingIntent() throws Exception {
+        restConversationContextMockMvc.perform(post("/api/sessions/{sessionId}/intents/{tag}", sessionId, "unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void clearConversationContext() throws Exception {
+        conversationContextService.applyIntent(sessionId, "order");
+
+        restConversationContextMockMvc.perform(delete("/api/sessions/{sessionId}/context", sessionId))
+            .andExpect(status().isOk());
+
+        restConversationContextMockMvc.perform(get("/api/sessions/{sessionId}/context", sessionId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.context").doesNotExist());
+        restConversationContextMockMvc.perform(get("/api/sessions/{sessionId}/intents", sessionId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)));
+    }
+}
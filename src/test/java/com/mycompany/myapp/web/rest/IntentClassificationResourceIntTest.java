@@ -0,0 +1,148 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.Projet01App;
+
+import com.mycompany.myapp.config.SecurityBeanOverrideConfiguration;
+
+import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.IntentClassificationService;
+import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.service.dto.IntentClassificationDTO;
+import com.mycompany.myapp.web.rest.errors.ErrorConstants;
+import com.mycompany.myapp.web.rest.errors.ExceptionTranslator;
+import com.mycompany.myapp.web.rest.vm.IntentClassifyVM;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.mycompany.myapp.web.rest.IntentMatchingResourceIntTest.createIntentDTO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the IntentClassificationResource REST controller.
+ *
+ * @see IntentClassificationResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Projet01App.class, SecurityBeanOverrideConfiguration.class})
+public class IntentClassificationResourceIntTest {
+
+    private static final String GREETING_TAG = "greeting";
+    private static final String GOODBYE_TAG = "goodbye";
+
+    @Autowired
+    private IntentRepository intentRepository;
+
+    @Autowired
+    private IntentService intentService;
+
+    @Autowired
+    private IntentClassificationService intentClassificationService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restIntentClassificationMockMvc;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        IntentClassificationResource intentClassificationResource = new IntentClassificationResource(
+            intentClassificationService, jacksonMessageConverter.getObjectMapper());
+        this.restIntentClassificationMockMvc = MockMvcBuilders.standaloneSetup(intentClassificationResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        intentRepository.deleteAll();
+        intentService.reloadCorpus();
+        intentService.save(createIntentDTO(GREETING_TAG, "Bonjour", "Hello there", "Good morning"));
+        intentService.save(createIntentDTO(GOODBYE_TAG, "Goodbye", "See you later", "Au revoir"));
+    }
+
+    @Test
+    public void classifyIntents() throws Exception {
+        // more utterances than a chunk, so that several tasks run in parallel
+        List<String> utterances = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            utterances.add(i % 3 == 0 ? "hello, good MORNING!" : i % 3 == 1 ? "au revoir" : "nothing in common");
+        }
+        utterances.add(null);
+
+        String body = restIntentClassificationMockMvc.perform(post("/api/intents/_classify")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createClassifyVM(utterances, 1))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(IntentResource.APPLICATION_NDJSON_VALUE + ";charset=UTF-8"))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(1001);
+        for (int i = 0; i < lines.length; i++) {
+            IntentClassificationDTO classification = readClassification(lines[i]);
+            assertThat(classification.getIndex()).isEqualTo(i);
+            if (i < 1000 && i % 3 == 0) {
+                assertThat(classification.getMatches()).extracting("tag").containsExactly(GREETING_TAG);
+            } else if (i < 1000 && i % 3 == 1) {
+                assertThat(classification.getMatches()).extracting("tag").containsExactly(GOODBYE_TAG);
+            } else {
+                assertThat(classification.getMatches()).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    public void classifyIntentsWithTooManyUtterances() throws Exception {
+        List<String> utterances = Collections.nCopies(intentClassificationService.getMaxUtterances() + 1, "hello");
+
+        restIntentClassificationMockMvc.perform(post("/api/intents/_classify")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createClassifyVM(utterances, null))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_BATCH_TOO_LARGE));
+    }
+
+    @Test
+    public void checkUtterancesAreRequired() throws Exception {
+        restIntentClassificationMockMvc.perform(post("/api/intents/_classify")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createClassifyVM(null, null))))
+            .andExpect(status().isBadRequest());
+
+        restIntentClassificationMockMvc.perform(post("/api/intents/_classify")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createClassifyVM(Collections.emptyList(), null))))
+            .andExpect(status().isBadRequest());
+    }
+
+    private IntentClassificationDTO readClassification(String line) throws IOException {
+        return jacksonMessageConverter.getObjectMapper().readValue(line, IntentClassificationDTO.class);
+    }
+
+    private static IntentClassifyVM createClassifyVM(List<String> utterances, Integer limit) {
+        IntentClassifyVM intentClassifyVM = new IntentClassifyVM();
+        intentClassifyVM.setUtterances(utterances);
+        intentClassifyVM.setLimit(limit);
+        return intentClassifyVM;
+    }
+}
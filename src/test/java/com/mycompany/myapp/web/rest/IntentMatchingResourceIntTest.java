@@ -0,0 +1,320 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.Projet01App;
+
+import com.mycompany.myapp.config.SecurityBeanOverrideConfiguration;
+
+import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.IntentMatchingService;
+import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.web.rest.errors.ErrorConstants;
+import com.mycompany.myapp.web.rest.errors.ExceptionTranslator;
+import com.mycompany.myapp.web.rest.vm.IntentDetectVM;
+import com.mycompany.myapp.web.rest.vm.IntentMatchVM;
+import com.mycompany.myapp.web.rest.vm.IntentRankVM;
+import com.mycompany.myapp.web.rest.vm.IntentTokenizeVM;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the IntentMatchingResource REST controller.
+ *
+ * @see IntentMatchingResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Projet01App.class, SecurityBeanOverrideConfiguration.class})
+public class IntentMatchingResourceIntTest {
+
+    private static final String GREETING_TAG = "greeting";
+    private static final String GOODBYE_TAG = "goodbye";
+
+    @Autowired
+    private IntentRepository intentRepository;
+
+    @Autowired
+    private IntentService intentService;
+
+    @Autowired
+    private IntentMatchingService intentMatchingService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restIntentMatchingMockMvc;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        IntentMatchingResource intentMatchingResource = new IntentMatchingResource(intentMatchingService);
+        this.restIntentMatchingMockMvc = MockMvcBuilders.standaloneSetup(intentMatchingResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    /**
+     * Create an intent DTO for this test.
+     */
+    public static IntentDTO createIntentDTO(String tag, String... patterns) {
+        IntentDTO intentDTO = new IntentDTO();
+        intentDTO.setTag(tag);
+        intentDTO.setPatterns(Arrays.asList(patterns));
+        return intentDTO;
+    }
+
+    @Before
+    public void initTest() {
+        intentRepository.deleteAll();
+        intentService.reloadCorpus();
+        intentService.save(createIntentDTO(GREETING_TAG, "Bonjour", "Hello there", "Good morning"));
+        intentService.save(createIntentDTO(GOODBYE_TAG, "Goodbye", "See you later", "Au revoir"));
+    }
+
+    @Test
+    public void matchIntents() throws Exception {
+        restIntentMatchingMockMvc.perform(post("/api/intents/match")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createMatchVM("hello, good MORNING!", null))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].tag").value(GREETING_TAG));
+    }
+
+    @Test
+    public void matchIntentsFoldsAccents() throws Exception {
+        restIntentMatchingMockMvc.perform(post("/api/intents/match")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createMatchVM("Àu rêvoir", 1))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].tag").value(GOODBYE_TAG))
+            .andExpect(jsonPath("$.[0].score").value(1.0));
+    }
+
+    @Test
+    public void matchIntentsAfterDelete() throws Exception {
+        intentService.delete(GOODBYE_TAG);
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/match")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createMatchVM("au revoir", null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void matchIntentsAfterUpdate() throws Exception {
+        IntentDTO greeting = intentService.findOne(GREETING_TAG);
+        greeting.setPatterns(Arrays.asList("Salut"));
+        intentService.save(greeting);
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/match")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createMatchVM("good morning", null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+        restIntentMatchingMockMvc.perform(post("/api/intents/match")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createMatchVM("salut !", null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].tag").value(GREETING_TAG));
+    }
+
+    @Test
+    public void rankIntents() throws Exception {
+        restIntentMatchingMockMvc.perform(post("/api/intents/rank")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createRankVM("Good morning, see you!", false))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].tag").value(GREETING_TAG))
+            .andExpect(jsonPath("$.[1].tag").value(GOODBYE_TAG))
+            .andExpect(jsonPath("$.[0].terms").doesNotExist());
+    }
+
+    @Test
+    public void rankIntentsWithExplanation() throws Exception {
+        restIntentMatchingMockMvc.perform(post("/api/intents/rank")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createRankVM("hello, unknown", true))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].tag").value(GREETING_TAG))
+            .andExpect(jsonPath("$.[0].terms", hasSize(1)))
+            .andExpect(jsonPath("$.[0].terms.[0].token").value("hello"))
+            .andExpect(jsonPath("$.[0].terms.[0].termFrequency").value(1))
+            .andExpect(jsonPath("$.[0].terms.[0].documentFrequency").value(1));
+    }
+
+    @Test
+    public void rankIntentsAfterDelete() throws Exception {
+        intentService.delete(GREETING_TAG);
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/rank")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createRankVM("good morning, see you", false))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].tag").value(GOODBYE_TAG));
+    }
+
+    @Test
+    public void findFuzzyPatterns() throws Exception {
+        restIntentMatchingMockMvc.perform(get("/api/intents/_fuzzy?q=Helo THER"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].pattern").value("hello there"))
+            .andExpect(jsonPath("$.[0].distance").value(2))
+            .andExpect(jsonPath("$.[0].tags").value(contains(GREETING_TAG)));
+
+        restIntentMatchingMockMvc.perform(get("/api/intents/_fuzzy?q=godbye&distance=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].pattern").value("goodbye"))
+            .andExpect(jsonPath("$.[0].tags").value(contains(GOODBYE_TAG)));
+
+        restIntentMatchingMockMvc.perform(get("/api/intents/_fuzzy?q=hello there&distance=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].distance").value(0));
+    }
+
+    @Test
+    public void findFuzzyPatternsAfterDelete() throws Exception {
+        intentService.delete(GOODBYE_TAG);
+
+        restIntentMatchingMockMvc.perform(get("/api/intents/_fuzzy?q=goodbye"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void findFuzzyPatternsWithInvalidDistance() throws Exception {
+        restIntentMatchingMockMvc.perform(get("/api/intents/_fuzzy?q=hello&distance=5"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_INVALID_DISTANCE));
+    }
+
+    @Test
+    public void detectIntents() throws Exception {
+        // the automaton is rebuilt in the background after the saves
+        intentMatchingService.rebuildPhraseAutomaton();
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/_detect")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createDetectVM("Well, GOOD morning! Hello there, and au revoir; goodbye"))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].tag").value(GREETING_TAG))
+            .andExpect(jsonPath("$.[0].phrase").value("good morning"))
+            .andExpect(jsonPath("$.[0].position").value(1))
+            .andExpect(jsonPath("$.[1].tag").value(GOODBYE_TAG))
+            .andExpect(jsonPath("$.[1].phrase").value("au revoir"))
+            .andExpect(jsonPath("$.[1].position").value(6));
+    }
+
+    @Test
+    public void detectIntentsOnlyMatchesWholeTokens() throws Exception {
+        intentMatchingService.rebuildPhraseAutomaton();
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/_detect")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createDetectVM("goodbyes, see you"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void detectIntentsAfterDelete() throws Exception {
+        intentService.delete(GREETING_TAG);
+        intentMatchingService.rebuildPhraseAutomaton();
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/_detect")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createDetectVM("bonjour and goodbye"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].tag").value(GOODBYE_TAG));
+    }
+
+    @Test
+    public void checkDetectTextIsRequired() throws Exception {
+        restIntentMatchingMockMvc.perform(post("/api/intents/_detect")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createDetectVM(null))))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getMatchIndexStats() throws Exception {
+        restIntentMatchingMockMvc.perform(get("/api/intents/match/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.intents").value(2))
+            .andExpect(jsonPath("$.patterns").value(6))
+            .andExpect(jsonPath("$.deadPatterns").value(0));
+    }
+
+    @Test
+    public void tokenize() throws Exception {
+        IntentTokenizeVM intentTokenizeVM = new IntentTokenizeVM();
+        intentTokenizeVM.setText("BONJOUR, où est l'Œuvre ? Bonjour !");
+
+        restIntentMatchingMockMvc.perform(post("/api/intents/_tokenize")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(intentTokenizeVM)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].token").value(contains("bonjour", "est", "l", "oeuvre", "ou")))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].id").doesNotExist());
+    }
+
+    @Test
+    public void checkUtteranceIsRequired() throws Exception {
+        restIntentMatchingMockMvc.perform(post("/api/intents/match")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createMatchVM(null, null))))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static IntentMatchVM createMatchVM(String utterance, Integer limit) {
+        IntentMatchVM intentMatchVM = new IntentMatchVM();
+        intentMatchVM.setUtterance(utterance);
+        intentMatchVM.setLimit(limit);
+        return intentMatchVM;
+    }
+
+    private static IntentRankVM createRankVM(String utterance, boolean explain) {
+        IntentRankVM intentRankVM = new IntentRankVM();
+        intentRankVM.setUtterance(utterance);
+        intentRankVM.setExplain(explain);
+        return intentRankVM;
+    }
+
+    private static IntentDetectVM createDetectVM(String text) {
+        IntentDetectVM intentDetectVM = new IntentDetectVM();
+        intentDetectVM.setText(text);
+        return intentDetectVM;
+    }
+}
@@ -1,15 +1,22 @@
 package com.mycompany.myapp.web.rest;
 
+import com.codahale.metrics.MetricRegistry;
 import com.mycompany.myapp.Projet01App;
 
 import com.mycompany.myapp.config.SecurityBeanOverrideConfiguration;
 
 import com.mycompany.myapp.domain.Intent;
 import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.IntentCorpusSnapshot;
 import com.mycompany.myapp.service.IntentService;
 import com.mycompany.myapp.service.dto.IntentDTO;
 import com.mycompany.myapp.service.mapper.IntentMapper;
+import com.mycompany.myapp.web.rest.errors.ErrorConstants;
 import com.mycompany.myapp.web.rest.errors.ExceptionTranslator;
+import com.mycompany.myapp.web.rest.util.CorpusVersionInterceptor;
+import com.mycompany.myapp.web.rest.util.FieldsResponseBodyAdvice;
+import com.mycompany.myapp.web.rest.util.HeaderUtil;
+import com.mycompany.myapp.web.rest.vm.IntentElementVM;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -18,16 +25,34 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.isEmptyOrNullString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -52,6 +77,9 @@ public class IntentResourceIntTest {
     @Autowired
     private IntentService intentService;
 
+    @Autowired
+    private MetricRegistry metricRegistry;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -61,6 +89,12 @@ public class IntentResourceIntTest {
     @Autowired
     private ExceptionTranslator exceptionTranslator;
 
+    @Autowired
+    private FieldsResponseBodyAdvice fieldsResponseBodyAdvice;
+
+    @Autowired
+    private Validator validator;
+
     private MockMvc restIntentMockMvc;
 
     private Intent intent;
@@ -68,10 +102,11 @@ public class IntentResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        IntentResource intentResource = new IntentResource(intentService);
+        IntentResource intentResource = new IntentResource(intentService, jacksonMessageConverter.getObjectMapper(), validator);
         this.restIntentMockMvc = MockMvcBuilders.standaloneSetup(intentResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
-            .setControllerAdvice(exceptionTranslator)
+            .setControllerAdvice(exceptionTranslator, fieldsResponseBodyAdvice)
+            .addInterceptors(new CorpusVersionInterceptor(intentService))
             .setMessageConverters(jacksonMessageConverter).build();
     }
 
@@ -90,6 +125,7 @@ public class IntentResourceIntTest {
     @Before
     public void initTest() {
         intentRepository.deleteAll();
+        intentService.reloadCorpus();
         intent = createEntity();
     }
 
@@ -130,6 +166,23 @@ public class IntentResourceIntTest {
         assertThat(intentList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    public void createIntentWithExistingTag() throws Exception {
+        // Initialize the database
+        intentRepository.save(intent);
+        int databaseSizeBeforeCreate = intentRepository.findAll().size();
+
+        // The tag is unique, so creating a second intent with the same tag must fail
+        IntentDTO intentDTO = intentMapper.toDto(createEntity());
+        restIntentMockMvc.perform(post("/api/intents")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(intentDTO)))
+            .andExpect(status().isConflict());
+
+        List<Intent> intentList = intentRepository.findAll();
+        assertThat(intentList).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     public void checkTagIsRequired() throws Exception {
         int databaseSizeBeforeTest = intentRepository.findAll().size();
@@ -148,6 +201,170 @@ public class IntentResourceIntTest {
         assertThat(intentList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    public void bulkSaveIntentsFromJsonArray() throws Exception {
+        int databaseSizeBeforeCreate = intentRepository.findAll().size();
+
+        // Bulk create two valid intents and an invalid one
+        IntentDTO first = intentMapper.toDto(createEntity());
+        IntentDTO invalid = new IntentDTO();
+        IntentDTO second = intentMapper.toDto(createEntity().tag(UPDATED_TAG));
+        restIntentMockMvc.perform(post("/api/intents/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(first, invalid, second))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.succeeded").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+            .andExpect(jsonPath("$.items[2].status").value("CREATED"))
+            .andExpect(jsonPath("$.items[2].tag").value(UPDATED_TAG));
+
+        // Validate the Intents in the database
+        List<Intent> intentList = intentRepository.findAll();
+        assertThat(intentList).hasSize(databaseSizeBeforeCreate + 2);
+        assertThat(intentList).extracting(Intent::getTag).contains(DEFAULT_TAG, UPDATED_TAG);
+    }
+
+    @Test
+    public void bulkSaveIntentsFromNdjson() throws Exception {
+        // Initialize the database
+        intentRepository.save(intent);
+        int databaseSizeBeforeUpdate = intentRepository.findAll().size();
+
+        // Bulk update the intent, and try to create another one with the same tag
+        IntentDTO update = intentMapper.toDto(intent);
+        update.setPatterns(Collections.singletonList("updated pattern"));
+        IntentDTO duplicate = intentMapper.toDto(createEntity());
+        String body = new String(TestUtil.convertObjectToJsonBytes(update), StandardCharsets.UTF_8) + "\n"
+            + new String(TestUtil.convertObjectToJsonBytes(duplicate), StandardCharsets.UTF_8) + "\n";
+        restIntentMockMvc.perform(post("/api/intents/_bulk")
+            .contentType(IntentResource.APPLICATION_NDJSON_VALUE)
+            .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[0].status").value("UPDATED"))
+            .andExpect(jsonPath("$.items[0].id").value(intent.getId()))
+            .andExpect(jsonPath("$.items[1].status").value("FAILED"));
+
+        // Validate the Intent in the database
+        List<Intent> intentList = intentRepository.findAll();
+        assertThat(intentList).hasSize(databaseSizeBeforeUpdate);
+        assertThat(intentRepository.findOne(intent.getId()).getPatterns()).containsExactly("updated pattern");
+    }
+
+    @Test
+    public void bulkSaveIntentsWithMalformedBody() throws Exception {
+        restIntentMockMvc.perform(post("/api/intents/_bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("42"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.total").value(0));
+    }
+
+    @Test
+    public void getIntentsByContext() throws Exception {
+        // Initialize the database through the service, which maintains the context partitions
+        IntentDTO unfiltered = intentService.save(intentMapper.toDto(createEntity().tag("unfiltered")));
+        IntentDTO ordering = intentMapper.toDto(createEntity().tag("ordering"));
+        ordering.setContext_filter("order");
+        ordering = intentService.save(ordering);
+        IntentDTO renting = intentMapper.toDto(createEntity().tag("renting"));
+        renting.setContext_filter("rent");
+        intentService.save(renting);
+
+        restIntentMockMvc.perform(get("/api/intents/_context"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].tag").value(containsInAnyOrder(unfiltered.getTag())));
+        restIntentMockMvc.perform(get("/api/intents/_context?context=order&context=rent"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].tag").value(containsInAnyOrder("unfiltered", "ordering", "renting")));
+
+        // Moving an intent to another context, and deleting one, updates the partitions
+        ordering.setContext_filter("rent");
+        intentService.save(ordering);
+        intentService.delete("renting");
+        restIntentMockMvc.perform(get("/api/intents/_context?context=order"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].tag").value(containsInAnyOrder("unfiltered")));
+        restIntentMockMvc.perform(get("/api/intents/_context?context=rent"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].tag").value(containsInAnyOrder("unfiltered", "ordering")));
+    }
+
+    @Test
+    public void exportIntents() throws Exception {
+        // Initialize the database
+        intentRepository.save(intent);
+        intentRepository.save(createEntity().tag(UPDATED_TAG));
+
+        // Export all the intents, one JSON document per line
+        String body = restIntentMockMvc.perform(get("/api/intents/_export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(IntentResource.APPLICATION_NDJSON_VALUE + ";charset=UTF-8"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(Arrays.stream(lines).map(line -> readIntentDTO(line.getBytes(StandardCharsets.UTF_8)).getTag()))
+            .containsExactlyInAnyOrder(DEFAULT_TAG, UPDATED_TAG);
+    }
+
+    @Test
+    public void exportIntentsWithGzip() throws Exception {
+        // Initialize the database
+        intentRepository.save(intent);
+
+        // Export all the intents, compressed
+        byte[] body = restIntentMockMvc.perform(get("/api/intents/_export")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            byte[] buffer = new byte[1024];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                uncompressed.write(buffer, 0, read);
+            }
+        }
+        String[] lines = new String(uncompressed.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(readIntentDTO(lines[0].getBytes(StandardCharsets.UTF_8)).getId()).isEqualTo(intent.getId());
+    }
+
+    @Test
+    public void exportIntentsWithGzipRefused() throws Exception {
+        // Initialize the database
+        intentRepository.save(intent);
+
+        // A quality of 0 refuses gzip, even through the wildcard
+        restIntentMockMvc.perform(get("/api/intents/_export")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        restIntentMockMvc.perform(get("/api/intents/_export")
+            .header(HttpHeaders.ACCEPT_ENCODING, "identity, *;q=0"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        restIntentMockMvc.perform(get("/api/intents/_export")
+            .header(HttpHeaders.ACCEPT_ENCODING, "*;q=0.5, gzip;q=0.8"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    private IntentDTO readIntentDTO(byte[] json) {
+        try {
+            return jacksonMessageConverter.getObjectMapper().readValue(json, IntentDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Test
     public void getAllIntents() throws Exception {
         // Initialize the database
@@ -161,6 +378,91 @@ public class IntentResourceIntTest {
             .andExpect(jsonPath("$.[*].tag").value(hasItem(DEFAULT_TAG.toString())));
     }
 
+    @Test
+    public void getAllIntentSummaries() throws Exception {
+        // Initialize the database
+        intent.setPatterns(Arrays.asList("hello", "hi there", "good morning"));
+        intent.setResponses(Collections.singletonList("Hello!"));
+        intentRepository.save(intent);
+        intentRepository.save(createEntity().tag(UPDATED_TAG));
+
+        // Get the summaries, without patterns and responses
+        restIntentMockMvc.perform(get("/api/intents?view=summary&sort=tag,asc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(intent.getId()))
+            .andExpect(jsonPath("$.[0].tag").value(DEFAULT_TAG))
+            .andExpect(jsonPath("$.[0].patternCount").value(3))
+            .andExpect(jsonPath("$.[0].responseCount").value(1))
+            .andExpect(jsonPath("$.[0].patterns").doesNotExist())
+            .andExpect(jsonPath("$.[1].tag").value(UPDATED_TAG))
+            .andExpect(jsonPath("$.[1].patternCount").value(0))
+            .andExpect(jsonPath("$.[1].responseCount").value(0));
+    }
+
+    @Test
+    public void getAllIntentsWithFields() throws Exception {
+        // Initialize the database
+        intent.setPatterns(Collections.singletonList("hello"));
+        intent.setResponses(Collections.singletonList("Hello!"));
+        intentRepository.save(intent);
+
+        // Get only the responses, in both pagination modes
+        restIntentMockMvc.perform(get("/api/intents?fields=responses"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].responses").value(hasItem("Hello!")))
+            .andExpect(jsonPath("$.[0].id").doesNotExist())
+            .andExpect(jsonPath("$.[0].tag").doesNotExist())
+            .andExpect(jsonPath("$.[0].patterns").doesNotExist());
+        restIntentMockMvc.perform(get("/api/intents?after=&fields=id,patterns"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(intent.getId()))
+            .andExpect(jsonPath("$.[0].patterns").value(hasItem("hello")))
+            .andExpect(jsonPath("$.[0].responses").doesNotExist());
+    }
+
+    @Test
+    public void getAllIntentsWithInvalidFields() throws Exception {
+        restIntentMockMvc.perform(get("/api/intents?fields=tag,password"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_INVALID_FIELDS));
+    }
+
+    @Test
+    public void getAllIntentsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        intentRepository.save(intent);
+        intentRepository.save(createEntity().tag(UPDATED_TAG));
+        intentRepository.save(createEntity().tag("CCCCCCCCCC"));
+
+        // Get the first page
+        String link = restIntentMockMvc.perform(get("/api/intents?after=&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(intent.getId()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        // Follow the next link to the last page
+        Matcher next = Pattern.compile("after=([^&>]+)&size=2>; rel=\"next\"").matcher(link);
+        assertThat(next.find()).isTrue();
+        restIntentMockMvc.perform(get("/api/intents?after={after}&size=2", next.group(1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].tag").value("CCCCCCCCCC"))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
+    @Test
+    public void getAllIntentsWithInvalidCursor() throws Exception {
+        restIntentMockMvc.perform(get("/api/intents?after=not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidCursor"));
+    }
+
     @Test
     public void getIntent() throws Exception {
         // Initialize the database
@@ -174,6 +476,121 @@ public class IntentResourceIntTest {
             .andExpect(jsonPath("$.tag").value(DEFAULT_TAG.toString()));
     }
 
+    @Test
+    public void getIntentAfterReloadingTheCorpus() throws Exception {
+        // Initialize the database, and cache the intent
+        intent.setResponses(Collections.singletonList("Hello!"));
+        intentRepository.save(intent);
+        restIntentMockMvc.perform(get("/api/intents/{tag}", DEFAULT_TAG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses[0]").value("Hello!"));
+
+        // Change the intent in the database only, and reload the corpus
+        intent.setResponses(Collections.singletonList("Hi!"));
+        intentRepository.save(intent);
+        intentService.reloadCorpus();
+
+        // The cache does not hide the change
+        restIntentMockMvc.perform(get("/api/intents/{tag}", DEFAULT_TAG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses[0]").value("Hi!"));
+    }
+
+    @Test
+    public void getIntentWithFields() throws Exception {
+        // Initialize the database
+        intent.setPatterns(Collections.singletonList("hello"));
+        intent.setResponses(Collections.singletonList("Hello!"));
+        intentRepository.save(intent);
+
+        // Get only the tag and the responses
+        restIntentMockMvc.perform(get("/api/intents/{tag}?fields=tag,responses", DEFAULT_TAG))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.tag").value(DEFAULT_TAG))
+            .andExpect(jsonPath("$.responses").value(hasItem("Hello!")))
+            .andExpect(jsonPath("$.patterns").doesNotExist());
+        restIntentMockMvc.perform(get("/api/intents/{tag}?fields=tag", UPDATED_TAG))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getIntentByTagIsCached() throws Exception {
+        // Initialize the database
+        IntentDTO intentDTO = intentService.save(intentMapper.toDto(intent));
+        long hitsBefore = metricRegistry.counter(MetricRegistry.name(IntentService.class, "cache", "hits")).getCount();
+
+        // Get the intent twice, the second time from the cache
+        restIntentMockMvc.perform(get("/api/intents/{tag}", DEFAULT_TAG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(intentDTO.getId()));
+        restIntentMockMvc.perform(get("/api/intents/{tag}", DEFAULT_TAG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(intentDTO.getId()));
+        assertThat(metricRegistry.counter(MetricRegistry.name(IntentService.class, "cache", "hits")).getCount())
+            .isEqualTo(hitsBefore + 1);
+
+        // Renaming the intent must invalidate the cached entry of its previous tag
+        intentDTO.setTag(UPDATED_TAG);
+        intentService.save(intentDTO);
+        restIntentMockMvc.perform(get("/api/intents/{tag}", DEFAULT_TAG))
+            .andExpect(status().isNotFound());
+        restIntentMockMvc.perform(get("/api/intents/{tag}", UPDATED_TAG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(intentDTO.getId()));
+
+        // Deleting the intent must invalidate its cached entry
+        intentService.delete(UPDATED_TAG);
+        restIntentMockMvc.perform(get("/api/intents/{tag}", UPDATED_TAG))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void corpusSnapshotFollowsChanges() throws Exception {
+        IntentCorpusSnapshot empty = intentService.getCorpus();
+        assertThat(empty.size()).isEqualTo(0);
+
+        // Every change publishes the next version, and leaves the previous ones unchanged
+        IntentDTO intentDTO = intentService.save(intentMapper.toDto(intent));
+        IntentCorpusSnapshot created = intentService.getCorpus();
+        assertThat(created.getVersion()).isEqualTo(empty.getVersion() + 1);
+        assertThat(created.get(DEFAULT_TAG).getId()).isEqualTo(intentDTO.getId());
+        assertThat(empty.get(DEFAULT_TAG)).isNull();
+
+        intentDTO.setTag(UPDATED_TAG);
+        intentService.save(intentDTO);
+        IntentCorpusSnapshot renamed = intentService.getCorpus();
+        assertThat(renamed.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(renamed.size()).isEqualTo(1);
+        assertThat(renamed.get(DEFAULT_TAG)).isNull();
+        assertThat(renamed.get(UPDATED_TAG).getId()).isEqualTo(intentDTO.getId());
+        assertThat(created.get(DEFAULT_TAG)).isNotNull();
+
+        intentService.delete(UPDATED_TAG);
+        IntentCorpusSnapshot deleted = intentService.getCorpus();
+        assertThat(deleted.getVersion()).isEqualTo(renamed.getVersion() + 1);
+        assertThat(deleted.size()).isEqualTo(0);
+        assertThat(renamed.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void getIntentsHasCorpusVersionHeader() throws Exception {
+        long version = intentService.getCorpus().getVersion();
+
+        String instanceId = restIntentMockMvc.perform(get("/api/intents"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HeaderUtil.CORPUS_VERSION, String.valueOf(version)))
+            .andExpect(header().string(HeaderUtil.CORPUS_INSTANCE, not(isEmptyOrNullString())))
+            .andReturn().getResponse().getHeader(HeaderUtil.CORPUS_INSTANCE);
+
+        // The versions of the same instance compare
+        intentService.save(intentMapper.toDto(intent));
+        restIntentMockMvc.perform(get("/api/intents/{tag}", DEFAULT_TAG))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HeaderUtil.CORPUS_VERSION, String.valueOf(version + 1)))
+            .andExpect(header().string(HeaderUtil.CORPUS_INSTANCE, instanceId));
+    }
+
     @Test
     public void getNonExistingIntent() throws Exception {
         // Get the intent
@@ -223,6 +640,101 @@ public class IntentResourceIntTest {
         assertThat(intentList).hasSize(databaseSizeBeforeUpdate + 1);
     }
 
+    @Test
+    public void addAndRemovePatterns() throws Exception {
+        // Initialize the database
+        intent.setPatterns(new ArrayList<>(Arrays.asList("hello", "hi")));
+        intent.setResponses(Collections.singletonList("Hello!"));
+        intentRepository.save(intent);
+        intentService.reloadCorpus();
+
+        // Add a pattern, twice
+        IntentElementVM element = new IntentElementVM();
+        element.setText("good morning");
+        for (int i = 0; i < 2; i++) {
+            restIntentMockMvc.perform(post("/api/intents/{tag}/patterns", DEFAULT_TAG)
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(element)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patterns").value(containsInAnyOrder("hello", "hi", "good morning")));
+        }
+
+        // Remove a pattern
+        restIntentMockMvc.perform(delete("/api/intents/{tag}/patterns", DEFAULT_TAG).param("text", "hi"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.patterns").value(containsInAnyOrder("hello", "good morning")));
+
+        // The database and the in-memory views have the same patterns, and the other fields are unchanged
+        Intent updated = intentRepository.findByTag(DEFAULT_TAG);
+        assertThat(updated.getPatterns()).containsExactlyInAnyOrder("hello", "good morning");
+        assertThat(updated.getResponses()).containsExactly("Hello!");
+        assertThat(intentService.getCorpus().get(DEFAULT_TAG).getPatterns())
+            .containsExactlyInAnyOrder("hello", "good morning");
+
+        // An unknown intent is not found, and an empty pattern is not valid
+        restIntentMockMvc.perform(post("/api/intents/{tag}/patterns", UPDATED_TAG)
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(element)))
+            .andExpect(status().isNotFound());
+        element.setText("");
+        restIntentMockMvc.perform(post("/api/intents/{tag}/patterns", DEFAULT_TAG)
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(element)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void addAndRemoveResponses() throws Exception {
+        // Initialize the database
+        intent.setPatterns(Collections.singletonList("hello"));
+        intent.setResponses(new ArrayList<>(Arrays.asList("Hello!", "Hi!")));
+        intentRepository.save(intent);
+        intentService.reloadCorpus();
+
+        // Append a response
+        IntentElementVM element = new IntentElementVM();
+        element.setText("Good morning!");
+        restIntentMockMvc.perform(post("/api/intents/{tag}/responses", DEFAULT_TAG)
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(element)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses[2]").value("Good morning!"));
+
+        // Remove the response in the middle
+        restIntentMockMvc.perform(delete("/api/intents/{tag}/responses/{index}", DEFAULT_TAG, 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses", hasSize(2)))
+            .andExpect(jsonPath("$.responses[1]").value("Good morning!"));
+
+        // There is no response at index 2 anymore
+        restIntentMockMvc.perform(delete("/api/intents/{tag}/responses/{index}", DEFAULT_TAG, 2))
+            .andExpect(status().isNotFound());
+
+        Intent updated = intentRepository.findByTag(DEFAULT_TAG);
+        assertThat(updated.getResponses()).containsExactly("Hello!", "Good morning!");
+        assertThat(updated.getPatterns()).containsExactly("hello");
+        assertThat(intentService.getCorpus().get(DEFAULT_TAG).getResponses()).containsExactly("Hello!", "Good morning!");
+    }
+
+    @Test
+    public void removeResponseKeepsNullAndDuplicateResponses() throws Exception {
+        // Initialize the database with a null response, and a response appearing twice
+        intent.setPatterns(Collections.singletonList("hello"));
+        intent.setResponses(new ArrayList<>(Arrays.asList("Hello!", null, "Hi!", "Hello!")));
+        intentRepository.save(intent);
+        intentService.reloadCorpus();
+
+        // Remove the last response only
+        restIntentMockMvc.perform(delete("/api/intents/{tag}/responses/{index}", DEFAULT_TAG, 3))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses", hasSize(3)))
+            .andExpect(jsonPath("$.responses[2]").value("Hi!"));
+
+        Intent updated = intentRepository.findByTag(DEFAULT_TAG);
+        assertThat(updated.getResponses()).containsExactly("Hello!", null, "Hi!");
+        assertThat(intentService.getCorpus().get(DEFAULT_TAG).getResponses()).containsExactly("Hello!", null, "Hi!");
+    }
+
     @Test
     public void deleteIntent() throws Exception {
         // Initialize the database
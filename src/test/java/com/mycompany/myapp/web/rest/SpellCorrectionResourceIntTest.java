@@ -0,0 +1,122 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.Projet01App;
+
+import com.mycompany.myapp.config.SecurityBeanOverrideConfiguration;
+
+import com.mycompany.myapp.repository.IntentRepository;
+import com.mycompany.myapp.service.IntentService;
+import com.mycompany.myapp.service.SpellCorrectionService;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.web.rest.errors.ExceptionTranslator;
+import com.mycompany.myapp.web.rest.vm.SpellCorrectionVM;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the SpellCorrectionResource REST controller.
+ *
+ * @see SpellCorrectionResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Projet01App.class, SecurityBeanOverrideConfiguration.class})
+public class SpellCorrectionResourceIntTest {
+
+    @Autowired
+    private IntentRepository intentRepository;
+
+    @Autowired
+    private IntentService intentService;
+
+    @Autowired
+    private SpellCorrectionService spellCorrectionService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restSpellCorrectionMockMvc;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        SpellCorrectionResource spellCorrectionResource = new SpellCorrectionResource(spellCorrectionService);
+        this.restSpellCorrectionMockMvc = MockMvcBuilders.standaloneSetup(spellCorrectionResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        intentRepository.deleteAll();
+        intentService.reloadCorpus();
+        IntentDTO greeting = new IntentDTO();
+        greeting.setTag("greeting");
+        greeting.setPatterns(Arrays.asList("Bonjour", "Hello there", "Good morning"));
+        greeting.setResponses(Arrays.asList("Hello! How can I help you?"));
+        intentService.save(greeting);
+        // the background rebuild may not have run yet
+        spellCorrectionService.rebuild();
+    }
+
+    @Test
+    public void correct() throws Exception {
+        restSpellCorrectionMockMvc.perform(post("/api/intents/_correct")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createVM("Helo, godd MORNIN frend 42!"))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.corrected").value("hello good morning frend 42"))
+            .andExpect(jsonPath("$.corrections", hasSize(3)))
+            .andExpect(jsonPath("$.corrections.[*].token").value(contains("helo", "godd", "mornin")))
+            .andExpect(jsonPath("$.corrections.[0].suggestion").value("hello"))
+            .andExpect(jsonPath("$.corrections.[0].distance").value(1))
+            .andExpect(jsonPath("$.corrections.[0].count").value(2));
+    }
+
+    @Test
+    public void correctAfterDelete() throws Exception {
+        intentService.delete("greeting");
+        spellCorrectionService.rebuild();
+
+        restSpellCorrectionMockMvc.perform(post("/api/intents/_correct")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createVM("helo"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.corrected").value("helo"))
+            .andExpect(jsonPath("$.corrections", hasSize(0)));
+    }
+
+    @Test
+    public void checkTextIsRequired() throws Exception {
+        restSpellCorrectionMockMvc.perform(post("/api/intents/_correct")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(createVM(null))))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static SpellCorrectionVM createVM(String text) {
+        SpellCorrectionVM spellCorrectionVM = new SpellCorrectionVM();
+        spellCorrectionVM.setText(text);
+        return spellCorrectionVM;
+    }
+}
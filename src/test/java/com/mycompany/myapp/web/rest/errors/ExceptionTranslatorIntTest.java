@@ -48,6 +48,13 @@ public class ExceptionTranslatorIntTest {
             .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
     }
 
+    @Test
+    public void testDuplicateKey() throws Exception {
+        mockMvc.perform(get("/test/duplicate-key"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_DUPLICATE_KEY));
+    }
+
     @Test
     public void testMethodArgumentNotValid() throws Exception {
          mockMvc.perform(post("/test/method-argument").content("{}").contentType(MediaType.APPLICATION_JSON))
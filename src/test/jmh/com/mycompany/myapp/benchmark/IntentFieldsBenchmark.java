@@ -0,0 +1,128 @@
+package com.mycompany.myapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.web.rest.util.FieldsUtil;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a page of intents read with a "fields" parameter, against the full documents.
+ *
+ * A page is decoded from the BSON documents returned by the database, with the projection of the fields, and
+ * serialized to JSON through the fields filter, like IntentResource does. An empty "fields" is the full document
+ * path. The BSON bytes read and the JSON bytes written for a page are reported next to the latency, as the
+ * "bsonBytes" and "jsonBytes" secondary results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntentFieldsBenchmark {
+
+    @Param({"20", "2000"})
+    private int pageSize;
+
+    @Param({"", "responses", "tag,patterns"})
+    private String fields;
+
+    private final DocumentCodec codec = new DocumentCodec();
+
+    private ObjectWriter writer;
+
+    private List<RawBsonDocument> documents;
+
+    private long bsonBytes;
+
+    /**
+     * The bytes of a page. Every invocation sets them rather than adding to them, so that the results are the
+     * bytes of one page whatever the number of invocations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PageBytes {
+
+        public long bsonBytes;
+
+        public long jsonBytes;
+    }
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new AfterburnerModule())
+            .addMixIn(IntentDTO.class, FieldsUtil.FieldsFilterMixin.class)
+            .setFilterProvider(FieldsUtil.ALL_FIELDS);
+        Set<String> selectedFields = fields.isEmpty() ? null : FieldsUtil.parseIntentFields(fields);
+        writer = selectedFields == null ? objectMapper.writer() : objectMapper.writer(new SimpleFilterProvider()
+            .addFilter(FieldsUtil.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selectedFields)));
+        documents = new ArrayList<>(pageSize);
+        bsonBytes = 0;
+        for (Intent intent : IntentFixtures.intents(pageSize, 50, 42)) {
+            RawBsonDocument document = new RawBsonDocument(project(intent, selectedFields), codec);
+            bsonBytes += document.getByteBuffer().remaining();
+            documents.add(document);
+        }
+    }
+
+    @Benchmark
+    public byte[] read(PageBytes pageBytes) throws IOException {
+        List<IntentDTO> intentDTOs = new ArrayList<>(documents.size());
+        for (RawBsonDocument document : documents) {
+            intentDTOs.add(toDto(document.decode(codec)));
+        }
+        byte[] json = writer.writeValueAsBytes(intentDTOs);
+        pageBytes.bsonBytes = bsonBytes;
+        pageBytes.jsonBytes = json.length;
+        return json;
+    }
+
+    /**
+     * Get the document of an intent, with the fields a projection on them would return.
+     */
+    private static Document project(Intent intent, Set<String> fields) {
+        Document document = new Document("_id", intent.getId());
+        if (fields == null || fields.contains("tag")) {
+            document.append("tag", intent.getTag());
+        }
+        if (fields == null || fields.contains("patterns")) {
+            document.append("patterns", intent.getPatterns());
+        }
+        if (fields == null || fields.contains("responses")) {
+            document.append("responses", intent.getResponses());
+        }
+        if (fields == null || fields.contains("context_set")) {
+            document.append("context_set", intent.getContext_set());
+        }
+        if (fields == null || fields.contains("context_filter")) {
+            document.append("context_filter", intent.getContext_filter());
+        }
+        return document;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IntentDTO toDto(Document document) {
+        IntentDTO intentDTO = new IntentDTO();
+        intentDTO.setId(document.getString("_id"));
+        intentDTO.setTag(document.getString("tag"));
+        intentDTO.setPatterns((List<String>) document.get("patterns"));
+        intentDTO.setResponses((List<String>) document.get("responses"));
+        intentDTO.setContext_set(document.getString("context_set"));
+        intentDTO.setContext_filter(document.getString("context_filter"));
+        return intentDTO;
+    }
+}
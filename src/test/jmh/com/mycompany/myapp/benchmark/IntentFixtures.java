@@ -0,0 +1,107 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Intent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic intents shared by the benchmarks, so that results are comparable between runs and releases.
+ */
+public final class IntentFixtures {
+
+    private static final String[] WORDS = {
+        "bonjour", "hello", "salut", "au", "revoir", "goodbye", "merci", "thanks", "prix", "price",
+        "commande", "order", "livraison", "delivery", "retour", "return", "compte", "account", "mot", "passe",
+        "password", "facture", "invoice", "aide", "help", "horaires", "opening", "hours", "adresse", "address",
+        "paiement", "payment", "carte", "card", "annuler", "cancel", "modifier", "change", "suivi", "tracking",
+        "réduction", "discount", "stock", "disponible", "available", "taille", "size", "couleur", "colour", "été"
+    };
+
+    private IntentFixtures() {
+    }
+
+    /**
+     * Create intents with random patterns and responses drawn from a small bilingual vocabulary.
+     *
+     * @param count the number of intents
+     * @param patternsPerIntent the number of patterns of each intent
+     * @param seed the seed of the random generator
+     * @return the intents, with ids
+     */
+    public static List<Intent> intents(int count, int patternsPerIntent, long seed) {
+        Random random = new Random(seed);
+        List<Intent> intents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> patterns = new ArrayList<>(patternsPerIntent);
+            for (int j = 0; j < patternsPerIntent; j++) {
+                patterns.add(sentence(random, 3 + random.nextInt(6)));
+            }
+            List<String> responses = new ArrayList<>(2);
+            responses.add(sentence(random, 8));
+            responses.add(sentence(random, 12));
+            Intent intent = new Intent().tag("intent-" + i);
+            intent.setId(String.format("%024x", i));
+            intent.setPatterns(patterns);
+            intent.setResponses(responses);
+            intent.setContext_set(i % 10 == 0 ? "ctx-" + (i / 10) : null);
+            intent.setContext_filter(i % 10 == 1 ? "ctx-" + (i / 10) : null);
+            intents.add(intent);
+        }
+        return intents;
+    }
+
+    /**
+     * Create intents whose patterns are drawn from a large synthetic vocabulary with a Zipf-like distribution,
+     * like natural language: a few words are in most patterns, most words are rare.
+     *
+     * @param count the number of intents
+     * @param patternsPerIntent the number of patterns of each intent
+     * @param vocabularySize the number of distinct words
+     * @param seed the seed of the random generator
+     * @return the intents, with ids
+     */
+    public static List<Intent> zipfIntents(int count, int patternsPerIntent, int vocabularySize, long seed) {
+        Random random = new Random(seed);
+        List<Intent> intents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> patterns = new ArrayList<>(patternsPerIntent);
+            for (int j = 0; j < patternsPerIntent; j++) {
+                patterns.add(zipfSentence(random, 3 + random.nextInt(6), vocabularySize));
+            }
+            Intent intent = new Intent().tag("intent-" + i);
+            intent.setId(String.format("%024x", i));
+            intent.setPatterns(patterns);
+            intents.add(intent);
+        }
+        return intents;
+    }
+
+    /**
+     * Create a random sentence from a synthetic vocabulary with a Zipf-like distribution.
+     */
+    public static String zipfSentence(Random random, int words, int vocabularySize) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int word = (int) Math.pow(vocabularySize, random.nextDouble());
+            sentence.append(i > 0 ? " w" : "w").append(word);
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * Create a random sentence, capitalized and punctuated like user input.
+     */
+    public static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(random.nextInt(8) == 0 ? ", " : " ");
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            sentence.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        }
+        return sentence.append(random.nextBoolean() ? " ?" : "!").toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mycompany.myapp.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.mapper.IntentMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Jackson serialization of IntentDTO lists, as returned by the REST API.
+ *
+ * The ObjectMapper has the Afterburner module, like the one configured by JacksonConfiguration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntentJsonBenchmark {
+
+    @Param({"20", "2000"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<IntentDTO> intentDTOs;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new AfterburnerModule());
+        writer = objectMapper.writerFor(new TypeReference<List<IntentDTO>>() { });
+        reader = objectMapper.readerFor(new TypeReference<List<IntentDTO>>() { });
+        intentDTOs = new IntentMapperImpl().toDto(IntentFixtures.intents(pageSize, 5, 42));
+        json = writer.writeValueAsBytes(intentDTOs);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(intentDTOs);
+    }
+
+    @Benchmark
+    public List<IntentDTO> deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentDTO;
+import com.mycompany.myapp.service.mapper.IntentMapper;
+import com.mycompany.myapp.service.mapper.IntentMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the MapStruct IntentMapper, on a page of intents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntentMapperBenchmark {
+
+    @Param({"20", "2000"})
+    private int pageSize;
+
+    private final IntentMapper intentMapper = new IntentMapperImpl();
+
+    private List<Intent> intents;
+
+    private List<IntentDTO> intentDTOs;
+
+    @Setup
+    public void setup() {
+        intents = IntentFixtures.intents(pageSize, 5, 42);
+        intentDTOs = intentMapper.toDto(intents);
+    }
+
+    @Benchmark
+    public List<IntentDTO> toDto() {
+        return intentMapper.toDto(intents);
+    }
+
+    @Benchmark
+    public List<Intent> toEntity() {
+        return intentMapper.toEntity(intentDTOs);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentFuzzyMatchDTO;
+import com.mycompany.myapp.service.dto.IntentMatchDTO;
+import com.mycompany.myapp.service.dto.IntentPhraseDTO;
+import com.mycompany.myapp.service.matching.FuzzyPatternIndex;
+import com.mycompany.myapp.service.matching.IntentMatchIndex;
+import com.mycompany.myapp.service.matching.PhraseAutomaton;
+import com.mycompany.myapp.service.matching.TextNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the text normalization, of the intent match index and of the fuzzy pattern lookup and of the
+ * phrase detection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntentMatchingBenchmark {
+
+    private static final int UTTERANCES = 1024;
+
+    @Param({"1000", "20000"})
+    private int intentCount;
+
+    private final IntentMatchIndex index = new IntentMatchIndex();
+
+    private final FuzzyPatternIndex fuzzyIndex = new FuzzyPatternIndex();
+
+    private PhraseAutomaton automaton;
+
+    private String[] typos;
+
+    private List<Intent> intents;
+
+    private String[] utterances;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        intents = IntentFixtures.intents(intentCount, 5, 42);
+        index.reload(intents);
+        fuzzyIndex.reload(intents);
+        automaton = PhraseAutomaton.build(intents);
+        Random random = new Random(7);
+        utterances = new String[UTTERANCES];
+        typos = new String[UTTERANCES];
+        for (int i = 0; i < UTTERANCES; i++) {
+            utterances[i] = IntentFixtures.sentence(random, 2 + random.nextInt(8));
+            // a stored pattern with one character dropped
+            List<String> patterns = intents.get(random.nextInt(intents.size())).getPatterns();
+            String pattern = patterns.get(random.nextInt(patterns.size()));
+            int typo = random.nextInt(pattern.length());
+            typos[i] = pattern.substring(0, typo) + pattern.substring(typo + 1);
+        }
+    }
+
+    private String nextUtterance() {
+        return utterances[next++ & (UTTERANCES - 1)];
+    }
+
+    @Benchmark
+    public List<String> tokens() {
+        return TextNormalizer.tokens(nextUtterance());
+    }
+
+    @Benchmark
+    public List<IntentMatchDTO> match() {
+        return index.match(nextUtterance(), 5);
+    }
+
+    @Benchmark
+    public List<IntentFuzzyMatchDTO> fuzzy() {
+        return fuzzyIndex.find(typos[next++ & (UTTERANCES - 1)], 2, 5);
+    }
+
+    @Benchmark
+    public List<IntentPhraseDTO> detect() {
+        return automaton.detect(nextUtterance());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PhraseAutomaton buildAutomaton() {
+        return PhraseAutomaton.build(intents);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntentMatchIndex reload() {
+        index.reload(intents);
+        return index;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.dto.IntentRankDTO;
+import com.mycompany.myapp.service.matching.IntentRankIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the BM25 rank index, with MaxScore pruning and with exhaustive scoring.
+ *
+ * The rankings are sampled, so that the results give their latency percentiles: p0.99 should stay
+ * under 1 ms with 50,000 patterns. The largest corpus has 100,000 patterns.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntentRankBenchmark {
+
+    private static final int UTTERANCES = 1024;
+
+    private static final int PATTERNS_PER_INTENT = 5;
+
+    private static final int ZIPF_VOCABULARY_SIZE = 20000;
+
+    @Param({"1000", "10000", "20000"})
+    private int intentCount;
+
+    /**
+     * The small bilingual vocabulary shares most terms between many intents; the Zipf one is closer to
+     * natural language, and is where pruning pays off.
+     */
+    @Param({"bilingual", "zipf"})
+    private String corpus;
+
+    private final IntentRankIndex index = new IntentRankIndex();
+
+    private List<Intent> intents;
+
+    private String[] utterances;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        boolean zipf = "zipf".equals(corpus);
+        intents = zipf
+            ? IntentFixtures.zipfIntents(intentCount, PATTERNS_PER_INTENT, ZIPF_VOCABULARY_SIZE, 42)
+            : IntentFixtures.intents(intentCount, PATTERNS_PER_INTENT, 42);
+        index.reload(intents);
+        Random random = new Random(7);
+        utterances = new String[UTTERANCES];
+        for (int i = 0; i < UTTERANCES; i++) {
+            int words = 2 + random.nextInt(8);
+            utterances[i] = zipf
+                ? IntentFixtures.zipfSentence(random, words, ZIPF_VOCABULARY_SIZE)
+                : IntentFixtures.sentence(random, words);
+        }
+    }
+
+    private String nextUtterance() {
+        return utterances[next++ & (UTTERANCES - 1)];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<IntentRankDTO> rank() {
+        return index.rank(nextUtterance(), 5, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<IntentRankDTO> rankExhaustively() {
+        return index.rankExhaustively(nextUtterance(), 5, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<IntentRankDTO> rankWithExplanation() {
+        return index.rank(nextUtterance(), 5, true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public IntentRankIndex update() {
+        // saving an intent again replaces its previous version
+        index.putAll(Collections.singletonList(intents.get(next++ % intents.size())));
+        return index;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.web.rest.util.PaginationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the generation of the pagination headers, for offset and keyset pagination.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginationUtilBenchmark {
+
+    private Page<String> page;
+
+    private Slice<String> slice;
+
+    private String cursor;
+
+    @Setup
+    public void setup() {
+        page = new PageImpl<>(Collections.nCopies(20, "intent"), new PageRequest(50, 20), 10_000);
+        slice = new SliceImpl<>(Collections.nCopies(20, "intent"), new PageRequest(0, 20), true);
+        cursor = PaginationUtil.encodeCursor(String.format("%024x", 1000));
+    }
+
+    @Benchmark
+    public HttpHeaders offsetHeaders() {
+        return PaginationUtil.generatePaginationHttpHeaders(page, "/api/intents");
+    }
+
+    @Benchmark
+    public HttpHeaders keysetHeaders() {
+        return PaginationUtil.generateKeysetPaginationHttpHeaders(slice, cursor, "/api/intents");
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Intent;
+import com.mycompany.myapp.service.matching.TextNormalizer;
+import com.mycompany.myapp.service.matching.TokenVocabulary;
+import com.mycompany.myapp.service.matching.Tokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the tokenization of utterances into token ids, against the allocating string tokenization.
+ *
+ * Run with the GC profiler, which the jmh profile enables, to see the allocation rate: once warmed up,
+ * the tokenizer should report a gc.alloc.rate.norm of 0 bytes per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TokenizerBenchmark {
+
+    private static final int UTTERANCES = 1024;
+
+    private final TokenVocabulary vocabulary = new TokenVocabulary();
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    private String[] utterances;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        for (Intent intent : IntentFixtures.intents(1000, 5, 42)) {
+            for (String pattern : intent.getPatterns()) {
+                tokenizer.tokenize(pattern, vocabulary, true);
+            }
+        }
+        Random random = new Random(7);
+        utterances = new String[UTTERANCES];
+        for (int i = 0; i < UTTERANCES; i++) {
+            utterances[i] = IntentFixtures.sentence(random, 2 + random.nextInt(8));
+        }
+    }
+
+    private String nextUtterance() {
+        return utterances[next++ & (UTTERANCES - 1)];
+    }
+
+    @Benchmark
+    public int tokenIds() {
+        return tokenizer.tokenize(nextUtterance(), vocabulary, false);
+    }
+
+    @Benchmark
+    public List<String> stringTokens() {
+        return TextNormalizer.tokens(nextUtterance());
+    }
+}